@@ -4,6 +4,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.apache.log4j.LogManager;
 
 /** This is the main class which extends Application,
  * It holds the main method which calls the launch method of Application
@@ -24,6 +25,8 @@ public class Main extends Application {
     @Override
     public void stop() throws Exception {
         super.stop();
+        // writes the log records still queued by the asynchronous appender
+        LogManager.shutdown();
         Platform.exit();
         System.exit(0);
     }
@@ -0,0 +1,40 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result comes with the bytes allocated per operation.
+ * <p>
+ * Usage: {@code BenchmarkRunner [regex of the benchmarks]}, for example {@code BenchmarkRunner Targeting}.
+ * The benchmark classes have to be compiled with the JMH annotation processor, see the Benchmarks section of the README.
+ * Any other JMH option can be given through the standard {@code org.openjdk.jmh.Main} instead.
+ * @version $revision $
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args Regular expressions of the benchmarks to run, all of them if empty
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0) {
+            builder.include("benchmark\\..*");
+        }
+        for (String include : args) {
+            builder.include(include);
+        }
+
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import javafx.embed.swing.JFXPanel;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Helpers shared by the benchmarks.
+ * The sprites load their images through JavaFX, so the toolkit has to be running before the game classes are used.
+ * @version $revision $
+ */
+public final class BenchmarkSupport {
+    private static boolean javaFXStarted = false;
+
+    /**
+     * Not instantiable
+     */
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Starts the JavaFX toolkit once per JVM, the same way the tests do
+     *
+     * @throws InterruptedException if interrupted while waiting for the toolkit
+     */
+    public static synchronized void startJavaFX() throws InterruptedException {
+        if (javaFXStarted) {
+            return;
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                new JFXPanel();
+                latch.countDown();
+            }
+        });
+        latch.await();
+        javaFXStarted = true;
+    }
+
+    /**
+     * Builds the data of a map, in the format of the files of userData/maps, with a straight path
+     * crossing the map from left to right in the middle row
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     * @return Returns the lines of the map, the first one holding the size
+     */
+    public static String[] straightPathMap(int columns, int rows) {
+        String[] mapData = new String[columns + 1];
+        mapData[0] = columns + "," + rows;
+
+        int row = rows / 2;
+        for (int x = 0; x < columns; x++) {
+            String type = x == 0 ? "ENTRY_POINT" : x == columns - 1 ? "EXIT_POINT" : "PATH";
+            mapData[x + 1] = x + "," + row + ":" + type;
+        }
+        return mapData;
+    }
+}
@@ -0,0 +1,130 @@
+package benchmark.game;
+
+import benchmark.BenchmarkSupport;
+import com.google.gson.Gson;
+import common.Helper;
+import common.TileManager;
+import common.render.NullRenderer;
+import game.GameManager;
+import game.gamestate.GameState;
+import map.MapGrid;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.game.HeadlessGame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro benchmark of the whole game: waves played headless on a map of userData/maps, with a fixed
+ * tower layout given in the {@link GameState} format and a seeded source of randomness.
+ * <p>
+ * One operation is one frame of {@link GameManager#step(double)} at the normal simulation speed, so one
+ * simulation tick followed by a draw into a {@link NullRenderer}. When a wave ends the next operation
+ * starts the next one; when the game is lost the game is set up again from the same layout. Both are
+ * part of the measured operations, like they are part of the frames of the game.
+ * <p>
+ * {@link #ticksPerSecond()} gives the ticks per second, {@link #tickLatency()} the distribution of the
+ * time of a tick, and the GC profiler of {@link benchmark.BenchmarkRunner} the bytes allocated per tick.
+ * Run it from the root of the project, where the maps are.
+ * @version $revision $
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class WaveBenchmark {
+    private static final String MAP_NAME = "Sample Map 1";
+    private static final long SEED = 42;
+
+    // towers along the path of the map, in the format of the saved games
+    private static final String TOWER_LAYOUT = "{\"level\":1,\"availableGold\":1000000,\"towers\":["
+            + "{\"id\":\"tower-1\",\"posX\":1,\"posY\":4,\"towerType\":\"ARROW\",\"strategy\":\"CLOSEST\",\"level\":1},"
+            + "{\"id\":\"tower-2\",\"posX\":3,\"posY\":2,\"towerType\":\"FROST\",\"strategy\":\"FARTHEST\",\"level\":1},"
+            + "{\"id\":\"tower-3\",\"posX\":5,\"posY\":3,\"towerType\":\"SIEGE\",\"strategy\":\"LOWESTHP\",\"level\":1},"
+            + "{\"id\":\"tower-4\",\"posX\":7,\"posY\":3,\"towerType\":\"ARROW\",\"strategy\":\"HIGHESTHP\",\"level\":2},"
+            + "{\"id\":\"tower-5\",\"posX\":8,\"posY\":4,\"towerType\":\"FROST\",\"strategy\":\"CLOSEST\",\"level\":1},"
+            + "{\"id\":\"tower-6\",\"posX\":10,\"posY\":4,\"towerType\":\"SIEGE\",\"strategy\":\"CLOSEST\",\"level\":2},"
+            + "{\"id\":\"tower-7\",\"posX\":9,\"posY\":6,\"towerType\":\"ARROW\",\"strategy\":\"LOWESTHP\",\"level\":1},"
+            + "{\"id\":\"tower-8\",\"posX\":12,\"posY\":6,\"towerType\":\"ARROW\",\"strategy\":\"FARTHEST\",\"level\":3}"
+            + "]}";
+
+    // critters per wave, 0 plays the waves of the game: between 30 and 50 critters
+    @Param({"0", "1000", "10000", "100000"})
+    public int critters;
+
+    private GameManager gameManager;
+    private MapGrid grid;
+    private GameState layout;
+    private Random random;
+
+    /**
+     * Loads the map and the tower layout, and sets the game up
+     *
+     * @throws InterruptedException if interrupted while starting JavaFX
+     */
+    @Setup
+    public void setUp() throws InterruptedException {
+        BenchmarkSupport.startJavaFX();
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        grid = Helper.loadMapGrid(MAP_NAME);
+        if (grid == null) {
+            throw new IllegalStateException("Could not load " + MAP_NAME + ", run from the root of the project");
+        }
+
+        layout = new Gson().fromJson(TOWER_LAYOUT, GameState.class);
+        random = new Random(SEED);
+        newGame();
+    }
+
+    /**
+     * Sets up a new game on the map, with the tower layout
+     */
+    private void newGame() {
+        gameManager = HeadlessGame.create(new TileManager(grid), random);
+        gameManager.setSaveGameState(layout);
+    }
+
+    /**
+     * Runs one tick of the game, starting a wave or a game first when needed
+     *
+     * @return Returns the game manager, so the work is not optimized away
+     */
+    private GameManager tick() {
+        if (gameManager.isGameEnded()) {
+            newGame();
+        }
+        if (!gameManager.isWaveStarted()) {
+            gameManager.startWave(critters > 0 ? critters : gameManager.critterManager.nextWaveSize());
+        }
+
+        gameManager.step(HeadlessGame.DELTA);
+        return gameManager;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GameManager ticksPerSecond() {
+        return tick();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameManager tickLatency() {
+        return tick();
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark.game.pathlogic;
+
+import game.pathlogic.Graph;
+
+import java.util.LinkedList;
+
+/**
+ * Graph that gives up once a deadline has passed. The depth first search does not return before it has
+ * walked every path, which on the bigger maps takes longer than anyone would wait, so the graph throws
+ * as soon as the search asks for neighbours past the deadline.
+ * <p>
+ * It wraps a graph built by the {@link game.pathlogic.PathFinder}; the search only asks for the
+ * neighbours, which come from the wrapped graph.
+ * @version $revision $
+ */
+public class DeadlineGraph<T> extends Graph<T> {
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Graph<T> graph;
+    private long deadline = Long.MAX_VALUE;
+    private long calls = 0;
+
+    /**
+     * Main constructor
+     *
+     * @param graph The graph to search
+     */
+    public DeadlineGraph(Graph<T> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Starts the countdown
+     *
+     * @param timeoutMillis Time the next search may take, in milliseconds
+     */
+    public void arm(long timeoutMillis) {
+        deadline = System.nanoTime() + (timeoutMillis * 1000000L);
+        calls = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the deadline has passed
+     */
+    @Override
+    public LinkedList<T> adjacentNodes(T last) {
+        if (++calls % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+            throw new IllegalStateException("Search timed out after visiting " + calls + " nodes");
+        }
+        return graph.adjacentNodes(last);
+    }
+}
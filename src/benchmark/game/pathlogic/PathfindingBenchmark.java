@@ -0,0 +1,148 @@
+package benchmark.game.pathlogic;
+
+import benchmark.BenchmarkSupport;
+import common.Tile;
+import common.TileManager;
+import game.pathlogic.Graph;
+import game.pathlogic.PathFinder;
+import game.pathlogic.Search;
+import map.GeneratedMap;
+import map.MapGenerator;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the path finding: building the {@link Graph} of the path tiles, the depth first
+ * {@link Search} on its own, and the whole {@link PathFinder#getPaths()}.
+ * <p>
+ * The maps come from the {@link MapGenerator}: a random walk (one long path), a path splitting into
+ * {@code branches} parallel branches, a maze filling the map with {@code loops} loops, and an open field
+ * where every cell is a path, the worst case of the search. The search enumerates every path, so the
+ * time grows with the number and the length of the paths rather than with the size of the map. A search
+ * that takes longer than {@code timeoutMillis} fails with an {@link IllegalStateException}; JMH reports
+ * the failure and moves on to the next parameters.
+ * The branches and the loops are swept to show how the cost of the search grows with them; JMH runs every
+ * combination of the parameters, so narrow the run to one shape, for example
+ * {@code -p shape=MAZE -p branches=1}, rather than repeating the other shapes for each value.
+ * Everything goes through the public API of the {@link PathFinder}: the deadline wraps the graph it builds,
+ * and {@link #getPaths()} is only run on the maps whose search fits in the timeout.
+ * @version $revision $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+// the search recurses once per tile of the path
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx2g"})
+public class PathfindingBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * Kind of generated map
+     */
+    public enum Shape {
+        WALK,
+        BRANCHES,
+        MAZE,
+        OPEN_FIELD
+    }
+
+    @Param({"WALK", "BRANCHES", "MAZE", "OPEN_FIELD"})
+    public Shape shape;
+
+    // number of rows and of columns; the path finder only handles square maps
+    @Param({"20", "50", "100", "250", "1000"})
+    public int size;
+
+    // only used by the BRANCHES maps; a map of 20 rows has room for 10 branches
+    @Param({"1", "2", "4", "8"})
+    public int branches;
+
+    // only used by the MAZE maps, every loop can double the number of paths
+    @Param({"0", "2", "4", "8", "16"})
+    public int loops;
+
+    @Param({"5000"})
+    public long timeoutMillis;
+
+    private PathFinder pathFinder;
+    private DeadlineGraph<Tile> graph;
+    private boolean searchTimedOut;
+    private final Search<Tile> search = new Search<>();
+
+    /**
+     * Builds the map and its graph
+     *
+     * @throws InterruptedException if interrupted while starting JavaFX
+     */
+    @Setup
+    public void setUp() throws InterruptedException {
+        BenchmarkSupport.startJavaFX();
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        MapGenerator generator = new MapGenerator(SEED);
+        GeneratedMap map;
+        switch (shape) {
+            case WALK:
+                map = generator.randomWalk(size, size);
+                break;
+            case BRANCHES:
+                map = generator.branches(size, size, branches);
+                break;
+            case MAZE:
+                map = generator.maze(size, size, loops);
+                break;
+            default:
+                map = generator.openField(size, size);
+                break;
+        }
+
+        Tile[][] tiles = new TileManager(map).getTilesOverlay();
+        pathFinder = new PathFinder(tiles, size, size);
+        graph = new DeadlineGraph<>(pathFinder.buildGraph());
+
+        // the search of getPaths cannot be stopped, try it under the deadline first
+        try {
+            graph.arm(timeoutMillis);
+            search.depthFirst(graph, pathFinder.getEntryPoint(), pathFinder.getExitPoint());
+            searchTimedOut = false;
+        } catch (IllegalStateException e) {
+            searchTimedOut = true;
+        }
+    }
+
+    @Benchmark
+    public Graph<Tile> buildGraph() {
+        return pathFinder.buildGraph();
+    }
+
+    @Benchmark
+    public List<LinkedList<Tile>> depthFirst() {
+        graph.arm(timeoutMillis);
+        return search.depthFirst(graph, pathFinder.getEntryPoint(), pathFinder.getExitPoint());
+    }
+
+    @Benchmark
+    public LinkedList<Tile> getPaths() {
+        if (searchTimedOut) {
+            throw new IllegalStateException("The search takes longer than " + timeoutMillis + " ms on this map");
+        }
+        return pathFinder.getPaths();
+    }
+}
@@ -0,0 +1,235 @@
+package benchmark.game.towerlogic;
+
+import benchmark.BenchmarkSupport;
+import common.Settings;
+import common.TileManager;
+import common.core.Vector2;
+import game.Critter;
+import game.CritterManager;
+import game.CritterType;
+import game.GameManager;
+import game.pathlogic.PathFinder;
+import game.towerlogic.AttackStrategyEnum;
+import game.towerlogic.AttackStrategyFactory;
+import game.towerlogic.IAttackStrategy;
+import game.towerlogic.Tower;
+import game.towerlogic.TowerType;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the target selection of the towers: every {@link IAttackStrategy} and the range and
+ * splash queries of the {@link CritterManager}.
+ * <p>
+ * The strategies sort the list they receive, so every operation first copies the candidates in their
+ * original order into a reused list; {@link #copyCandidates()} measures that copy alone.
+ * The tower does no damage, so the health points stay the same from one operation to the next.
+ * Run through {@link benchmark.BenchmarkRunner} to get the bytes allocated per operation.
+ * @version $revision $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetingBenchmark {
+    // the path finder bounds both coordinates by the same side, so the map is kept square
+    private static final int MAP_COLUMNS = 24;
+    private static final int MAP_ROWS = 24;
+    private static final long SEED = 42;
+
+    /**
+     * How the critters are placed around the tower
+     */
+    public enum Distribution {
+        // all the critters within one tile
+        CLUSTERED,
+        // spread over the range of the tower
+        UNIFORM,
+        // in single file along the path
+        PATH
+    }
+
+    /**
+     * How the health points of the critters differ
+     */
+    public enum HealthSpread {
+        // every critter has full health
+        EQUAL,
+        // health points drawn between 1 and 100
+        UNIFORM,
+        // most critters have full health, a few are almost dead
+        BIMODAL
+    }
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int candidates;
+
+    @Param({"CLUSTERED", "UNIFORM", "PATH"})
+    public Distribution distribution;
+
+    @Param({"EQUAL", "UNIFORM", "BIMODAL"})
+    public HealthSpread healthSpread;
+
+    private Tower tower;
+    private CritterManager critterManager;
+    private ArrayList<Critter> critters;
+    private ArrayList<Critter> working;
+    private Critter splashCenter;
+    private final EnumMap<AttackStrategyEnum, IAttackStrategy> strategies = new EnumMap<>(AttackStrategyEnum.class);
+
+    /**
+     * Builds the map, the tower and the critters
+     *
+     * @throws InterruptedException if interrupted while starting JavaFX
+     */
+    @Setup
+    public void setUp() throws InterruptedException {
+        BenchmarkSupport.startJavaFX();
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        TileManager tileManager = new TileManager(MAP_ROWS, MAP_COLUMNS,
+                BenchmarkSupport.straightPathMap(MAP_COLUMNS, MAP_ROWS));
+        // the strategy aiming at the exit reads the tiles through the game manager
+        GameManager.getInstance().tileManager = tileManager;
+
+        double pathY = Settings.TILE_HEIGHT * (MAP_ROWS / 2);
+        tower = new Tower(TowerType.ARROW, new Vector2(Settings.TILE_WIDTH * (MAP_COLUMNS / 2), pathY - Settings.TILE_HEIGHT));
+        tower.setDamage(0);
+        tower.setActive(true);
+
+        AttackStrategyFactory factory = new AttackStrategyFactory();
+        for (AttackStrategyEnum strategy : AttackStrategyEnum.values()) {
+            strategies.put(strategy, factory.getAttackStrategy(strategy, tower));
+        }
+
+        Random random = new Random(SEED);
+        critters = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            Critter critter = new Critter(Settings.TILE_WIDTH, Settings.TILE_HEIGHT,
+                    position(i, random, pathY), CritterType.GROUND);
+            critter.setHealthPoints(healthPoints(random));
+            critters.add(critter);
+        }
+        Collections.shuffle(critters, random);
+
+        working = new ArrayList<>(critters);
+        splashCenter = critters.get(0);
+
+        critterManager = new CritterManager(new PathFinder(tileManager.getTilesOverlay(), MAP_ROWS, MAP_COLUMNS));
+        critterManager.setCritterList(new ArrayList<>(critters));
+    }
+
+    /**
+     * Places a critter
+     *
+     * @param index Index of the critter
+     * @param random Source of randomness
+     * @param pathY Vertical position of the path
+     * @return Returns the position of the critter
+     */
+    private Vector2 position(int index, Random random, double pathY) {
+        Vector2 center = tower.getPosition();
+        double range = tower.getRange() * Settings.TILE_WIDTH;
+
+        switch (distribution) {
+            case CLUSTERED:
+                return new Vector2(center.getX() + random.nextDouble() * Settings.TILE_WIDTH,
+                        center.getY() + random.nextDouble() * Settings.TILE_HEIGHT);
+            case UNIFORM:
+                return new Vector2(center.getX() + (random.nextDouble() * 2 - 1) * range,
+                        center.getY() + (random.nextDouble() * 2 - 1) * range);
+            default:
+                // critters spawn one width apart, the line wraps around the range
+                double offset = (index * Settings.TILE_WIDTH) % (2 * range);
+                return new Vector2(center.getX() - range + offset, pathY);
+        }
+    }
+
+    /**
+     * Draws the health points of a critter
+     *
+     * @param random Source of randomness
+     * @return Returns the health points
+     */
+    private float healthPoints(Random random) {
+        switch (healthSpread) {
+            case UNIFORM:
+                return 1 + random.nextInt(100);
+            case BIMODAL:
+                return random.nextInt(10) == 0 ? 1 + random.nextInt(10) : 100;
+            default:
+                return 100;
+        }
+    }
+
+    /**
+     * Restores the original order of the candidates
+     *
+     * @return Returns the list to give to a strategy
+     */
+    private List<Critter> resetCandidates() {
+        working.clear();
+        working.addAll(critters);
+        return working;
+    }
+
+    @Benchmark
+    public List<Critter> copyCandidates() {
+        return resetCandidates();
+    }
+
+    @Benchmark
+    public List<Critter> closest() {
+        return strategies.get(AttackStrategyEnum.CLOSEST).doDamage(resetCandidates());
+    }
+
+    @Benchmark
+    public List<Critter> farthest() {
+        return strategies.get(AttackStrategyEnum.FARTHEST).doDamage(resetCandidates());
+    }
+
+    @Benchmark
+    public List<Critter> lowestHP() {
+        return strategies.get(AttackStrategyEnum.LOWESTHP).doDamage(resetCandidates());
+    }
+
+    @Benchmark
+    public List<Critter> highestHP() {
+        return strategies.get(AttackStrategyEnum.HIGHESTHP).doDamage(resetCandidates());
+    }
+
+    @Benchmark
+    public List<Critter> nearestToEndPoint() {
+        return strategies.get(AttackStrategyEnum.NEARESTTOENDPOINT).doDamage(resetCandidates());
+    }
+
+    @Benchmark
+    public List<Critter> shootableCritters() {
+        return critterManager.getShootableCritters(tower);
+    }
+
+    @Benchmark
+    public List<Critter> critterNeighbours() {
+        return critterManager.getCritterNeighbours(tower, critters, splashCenter);
+    }
+}
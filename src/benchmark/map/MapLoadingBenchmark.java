@@ -0,0 +1,117 @@
+package benchmark.map;
+
+import benchmark.BenchmarkSupport;
+import common.TileManager;
+import map.BinaryMapFormat;
+import map.MapGenerator;
+import map.MapGrid;
+import map.TextMapParser;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the loading of a map: parsing the text map file, read whole or read as lines,
+ * reading the binary map file with one byte per cell and with runs of cells, and building the
+ * {@link TileManager} of the loaded map.
+ * The map is a maze of the {@link MapGenerator}, so about half of its cells are path tiles.
+ * @version $revision $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class MapLoadingBenchmark {
+    private static final long SEED = 42;
+
+    // number of rows and of columns
+    @Param({"100", "1000", "3000"})
+    public int size;
+
+    private Path textFile;
+    private Path rawFile;
+    private Path runsFile;
+    private MapGrid grid;
+
+    /**
+     * Writes the map in every format
+     *
+     * @throws IOException if a file cannot be written
+     * @throws InterruptedException if interrupted while starting JavaFX
+     */
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        BenchmarkSupport.startJavaFX();
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        grid = new MapGenerator(SEED).maze(size, size, 10);
+
+        textFile = Files.createTempFile("map", ".txt");
+        try (Writer out = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+            grid.write(out);
+        }
+        rawFile = Files.createTempFile("map", BinaryMapFormat.EXTENSION);
+        BinaryMapFormat.write(grid, rawFile, false);
+        runsFile = Files.createTempFile("map", BinaryMapFormat.EXTENSION);
+        BinaryMapFormat.write(grid, runsFile, true);
+    }
+
+    /**
+     * Deletes the map files
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(rawFile);
+        Files.deleteIfExists(runsFile);
+    }
+
+    @Benchmark
+    public MapGrid parseText() throws IOException {
+        return TextMapParser.parse(textFile);
+    }
+
+    @Benchmark
+    public MapGrid parseTextLines() throws IOException {
+        List<String> lines = Files.readAllLines(textFile, StandardCharsets.UTF_8);
+        return MapGrid.fromMapData(lines.toArray(new String[lines.size()]));
+    }
+
+    @Benchmark
+    public MapGrid readRaw() throws IOException {
+        return BinaryMapFormat.read(rawFile);
+    }
+
+    @Benchmark
+    public MapGrid readRuns() throws IOException {
+        return BinaryMapFormat.read(runsFile);
+    }
+
+    @Benchmark
+    public TileManager buildTileManager() {
+        return new TileManager(grid);
+    }
+}
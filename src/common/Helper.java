@@ -1,11 +1,24 @@
 package common;
 
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 import javafx.scene.paint.Color;
+import map.BinaryMapFormat;
+import map.MapGrid;
+import map.TextMapParser;
 import org.apache.log4j.Logger;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * This class helps to abstract methods the are commonly used through out all classes
@@ -33,33 +46,35 @@ public class Helper {
     /**
      * Draw text on the canvas.
      *
-     * @param gc is the graphic context
+     * @param renderer is the renderer
      * @param text is a text
      * @param position is the text position on canvas
      * @param color is the text color
      */
-    public static void drawText(GraphicsContext gc, String text, Vector2 position, Color color) {
-        gc.setFill(color);
-        gc.fillText(text, position.getX(), position.getY());
+    public static void drawText(IRenderer renderer, String text, Vector2 position, Color color) {
+        renderer.setFill(color);
+        renderer.fillText(text, position.getX(), position.getY());
     }
 
     /**
      * Draw mouse icon as tile image.
      *
-     * @param gc Graphics context of the canvas.
+     * @param renderer Renderer to draw on.
      * @param tile Tile to get the image.
      * @param mousePosition Position to draw.
      */
-    public static void drawMouseIconTile(GraphicsContext gc, Tile tile, Vector2 mousePosition) {
-        Vector2 imageOffset = tile.getImageOffset();
+    public static void drawMouseIconTile(IRenderer renderer, Tile tile, Vector2 mousePosition) {
+        AtlasSprite sprite = tile.getAtlasSprite();
+        if (sprite == null) {
+            return;
+        }
 
         double w = tile.getWidth();
         double h = tile.getHeight();
         double sx = Math.max(mousePosition.getX() - (w / 2), 0);
         double xy = Math.max(mousePosition.getY() - (h / 2), 0);
 
-        gc.drawImage(tile.getImage(), imageOffset.getX(), imageOffset.getY(), w, h,
-                sx, xy, tile.getWidth(), tile.getHeight());
+        renderer.drawSprite(sprite, sx, xy, w, h);
     }
 
     /**
@@ -71,6 +86,13 @@ public class Helper {
     public static void saveMap(String mapName, String mapContents) {
         try {
             LOGGER.info("Attempting to write into file");
+            Path path = Paths.get(Settings.USER_MAP_DIRECTORY, mapName);
+            if (Files.exists(path) && BinaryMapFormat.isBinaryMap(path)) {
+                // binary maps stay binary once edited
+                BinaryMapFormat.write(TextMapParser.parse(new StringReader(mapContents)), path, true);
+                return;
+            }
+
             BufferedWriter out = new BufferedWriter(new FileWriter(Settings.USER_MAP_DIRECTORY + "/" + mapName));
             out.write(mapContents);
             out.close();
@@ -88,72 +110,68 @@ public class Helper {
      */
     public static void saveGameState(String mapName, String gameContents) {
         try {
-            BufferedWriter out = new BufferedWriter(new FileWriter(Settings.USER_GAME_STATE_DIRECTORY + "/" + mapName));
-            out.write(gameContents);
-            out.close();
+            writeAtomically(Paths.get(Settings.USER_GAME_STATE_DIRECTORY, mapName),
+                    gameContents.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             System.out.println(e.toString());
         }
     }
 
     /**
-     * method to load selected map to be edited to start game
+     * method to replace a file without ever leaving it half written: the content goes to a temporary
+     * file of the same folder, is flushed to the disk, and the temporary file is renamed over the target
      *
-     * @param mapName name of map to be loaded
-     * @return contents of loaded map as string
+     * @param target file to replace
+     * @param content new content of the file
+     * @throws IOException if the file cannot be written, the target is then left as it was
      */
-    public static String loadMap(String mapName) {
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
         try {
-            StringBuilder sb = new StringBuilder();
-
-            BufferedReader br = new BufferedReader(new FileReader(Settings.USER_MAP_DIRECTORY + "/" + mapName));
-            String line = br.readLine();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
 
-            while (line != null) {
-                sb.append(line);
-                sb.append(System.lineSeparator());
-                line = br.readLine();
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            br.close();
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
 
-            return sb.toString();
+        // the rename lasts through a crash once the folder is flushed, not every platform can open a folder
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            System.out.println(e.toString());
+            LOGGER.debug("Could not flush " + directory + ": " + e.getMessage());
         }
-
-        return null;
     }
+
     /**
-     * Loads selected map into tileManager
-     * @param tileManager TileManager object to create map
-     * @param mapData Loaded map data as Array of string
+     * method to load selected map, either a text or a binary map file
+     *
+     * @param mapName name of map to be loaded
+     * @return tiles of loaded map, null if it cannot be loaded
      */
-    public static void loadTileManagerFromMapData(TileManager tileManager, String[] mapData) {
+    public static MapGrid loadMapGrid(String mapName) {
         try {
-            for (int i = 1; i < mapData.length; i++) {
-                if (mapData[i] == null || mapData[i] == "") {
-                    continue;
-                }
-
-                String[] parts = mapData[i].split(":");
-
-                int sIndex = parts[0].indexOf(",");
-                int x = Integer.parseInt(parts[0].substring(0, sIndex));
-                int y = Integer.parseInt(parts[0].substring(sIndex + 1, parts[0].length()));
-
-                SpriteType type = SpriteType.valueOf(parts[1]);
-                Vector2 position = new Vector2(Settings.TILE_WIDTH * x, Settings.TILE_HEIGHT * y);
-                Tile newTile = new Tile(type, Settings.TILE_WIDTH, Settings.TILE_HEIGHT, position);
-
-                tileManager.getTilesOverlay()[x][y] = newTile;
+            Path path = Paths.get(Settings.USER_MAP_DIRECTORY, mapName);
+            if (BinaryMapFormat.isBinaryMap(path)) {
+                return BinaryMapFormat.read(path);
             }
 
-            tileManager.setHasAnyOverlayTile(true);
-            tileManager.setHasEntryPointTile(true);
-            tileManager.setHasExitPointTile(true);
-        }
-        catch (Exception ex) {
-            System.out.println(ex.toString());
+            return TextMapParser.parse(path);
+        } catch (IOException e) {
+            LOGGER.error("Could not load map " + mapName, e);
         }
+
+        return null;
     }
 }
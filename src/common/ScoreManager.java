@@ -2,7 +2,7 @@ package common;
 
 import common.core.MouseState;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.IRenderer;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
@@ -100,68 +100,68 @@ public class ScoreManager {
 
     /**
      * method to display text and other information
-     * @param gc graphics context to draw
+     * @param renderer renderer to draw on
      */
-    public void draw(GraphicsContext gc) {
+    public void draw(IRenderer renderer) {
         Font font = Font.font("Courier New", FontWeight.BOLD, 28);
-        gc.setFont(font);
+        renderer.setFont(font);
 
         Vector2 position = new Vector2(leftOffset + 15, topOffset + 30);
-        drawText(gc, LEVEL_TITLE, position, Color.RED);
+        drawText(renderer, LEVEL_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
-        drawText(gc, String.valueOf(level), position, Color.BLUE);
+        drawText(renderer, String.valueOf(level), position, Color.BLUE);
 
         position.setY(position.getY() + 50);
-        drawText(gc, HEALTH_TITLE, position, Color.RED);
+        drawText(renderer, HEALTH_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
-        drawText(gc, String.valueOf(health), position, Color.BLUE);
+        drawText(renderer, String.valueOf(health), position, Color.BLUE);
 
         position.setY(position.getY() + 50);
-        drawText(gc, MONEY_TITLE, position, Color.RED);
+        drawText(renderer, MONEY_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
-        drawText(gc, String.valueOf(money), position, Color.BLUE);
+        drawText(renderer, String.valueOf(money), position, Color.BLUE);
 
 
         // mouse
         position.setY(position.getY() + 50);
-        drawText(gc, MOUSE_TITLE, position, Color.RED);
+        drawText(renderer, MOUSE_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
         String mousePos = String.valueOf(mousePosition.getX()) + "," +
                           String.valueOf(mousePosition.getY());
-        drawText(gc, mousePos, position, Color.BLUE);
+        drawText(renderer, mousePos, position, Color.BLUE);
 
         // mouse left
         position.setY(position.getY() + 50);
-        drawText(gc, MOUSE_LEFT_CLICK_TITLE, position, Color.RED);
+        drawText(renderer, MOUSE_LEFT_CLICK_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
         mousePos = String.valueOf(leftClickPosition.getX()) + "," +
                    String.valueOf(rightClickPosition.getY());
-        drawText(gc, mousePos, position, Color.BLUE);
+        drawText(renderer, mousePos, position, Color.BLUE);
 
         // mouse right
         position.setY(position.getY() + 50);
-        drawText(gc, MOUSE_RIGHT_CLICK_TITLE, position, Color.RED);
+        drawText(renderer, MOUSE_RIGHT_CLICK_TITLE, position, Color.RED);
 
         position.setY(position.getY() + 25);
         mousePos = String.valueOf(rightClickPosition.getX()) + "," +
                 String.valueOf(rightClickPosition.getY());
-        drawText(gc, mousePos, position, Color.BLUE);
+        drawText(renderer, mousePos, position, Color.BLUE);
     }
 
     /**
      * method to draw text on sidebar
-     * @param gc graphic context to draw
+     * @param renderer renderer to draw on
      * @param text text to be drawn
      * @param position position at which text will be drawn
      * @param color color of text
      */
-    private static void drawText(GraphicsContext gc, String text, Vector2 position, Color color) {
-        gc.setFill(color);
-        gc.fillText(text, position.getX(), position.getY());
+    private static void drawText(IRenderer renderer, String text, Vector2 position, Color color) {
+        renderer.setFill(color);
+        renderer.fillText(text, position.getX(), position.getY());
     }
 }
@@ -1,6 +1,8 @@
 package common;
 
+import common.render.SpriteAtlas;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
 
 /**
  * This class is used to set or initialize variables such as width, height, margin, image, font, currency e.t.c
@@ -11,9 +13,20 @@ public class Settings {
 
     public static final double DEFAULT_MARGIN = 10;
     public static final double SIDEBAR_WIDTH = 300;
+    public static final double MAX_VIEWPORT_WIDTH = 1024;
+    public static final double MAX_VIEWPORT_HEIGHT = 768;
+    public static final double CAMERA_PAN_SPEED = 600;
+    public static final double CAMERA_ZOOM_STEP = 1.1;
+    public static final int PIXEL_BUFFER_CRITTER_THRESHOLD = 2000;
+    public static final double LOD_MAX_ZOOM = 0.75;
+    public static final int LOD_CRITTER_THRESHOLD = 500;
+    public static final int LOD_MIN_BUCKET_SIZE = 3;
+    public static final double MAX_SIMULATION_SPEED = 8;
+    public static final KeyCode PERFORMANCE_OVERLAY_KEY = KeyCode.F3;
 
     public static final String USER_MAP_DIRECTORY = "userData/maps";
     public static final String USER_GAME_STATE_DIRECTORY = "userData/gameStates";
+    public static final long AUTOSAVE_INTERVAL = 30000; // milliseconds
 
     public static final Image BACKGROUND_TILE_IMAGE = new Image("/assets/images/background_tiles.png");
     public static final Image TOWERSIEGE_TILE_IMAGE = new Image("/assets/images/Castle1.png");
@@ -29,6 +42,8 @@ public class Settings {
     public static final Image RIGHTBUTTON_TILE_IMAGE = new Image("/assets/images/RightArrowButton.png");
     public static final Image NEWWAVEBUTTON_TILE_IMAGE = new Image("/assets/images/NewWaveButton.png");
 
+    public static final SpriteAtlas SPRITE_ATLAS = SpriteAtlas.build();
+
     public static final String FONT_NAME = "Courier New";
     public static final int FONTSIZE_TITLE = 28;
     public static final int FONTSIZE_LINE = 16;
@@ -3,7 +3,8 @@ package common;
 import common.core.ImageSprite;
 import common.core.MouseState;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 
@@ -46,15 +47,13 @@ public class Tile extends ImageSprite {
 
     /**
      * Method to draw tiles
-     * @param gc The context to draw on
+     * @param renderer The renderer to draw on
      */
     @Override
-    public void draw(GraphicsContext gc) {
-        if (type == SpriteType.SCENERY || type == SpriteType.PATH ||
-                type == SpriteType.ENTRY_POINT || type == SpriteType.EXIT_POINT) {
-            Vector2 imageOffset = getImageOffset();
-            gc.drawImage(this.getImage(), imageOffset.getX(), imageOffset.getY(), this.width, this.height,
-                    position.getX(), position.getY(), this.width, this.height);
+    public void draw(IRenderer renderer) {
+        AtlasSprite sprite = getAtlasSprite();
+        if (sprite != null) {
+            renderer.drawSprite(sprite, position.getX(), position.getY(), this.width, this.height);
         }
         /*else {
             // background
@@ -124,6 +123,27 @@ public class Tile extends ImageSprite {
     public SpriteType getType() {
         return type;
     }
+    /**
+    * Method to get the sprite of the tile inside the {@link common.render.SpriteAtlas}
+    * @return The sprite, or null if the tile type has no image of its own
+    */
+    public AtlasSprite getAtlasSprite() {
+        if (type == SpriteType.SCENERY) {
+            return AtlasSprite.SCENERY;
+        }
+        else if (type == SpriteType.PATH) {
+            return AtlasSprite.PATH;
+        }
+        else if (type == SpriteType.ENTRY_POINT) {
+            return isActive() ? AtlasSprite.ENTRY_POINT : AtlasSprite.ENTRY_POINT_INACTIVE;
+        }
+        else if (type == SpriteType.EXIT_POINT) {
+            return isActive() ? AtlasSprite.EXIT_POINT : AtlasSprite.EXIT_POINT_INACTIVE;
+        }
+
+        return null;
+    }
+
     /**
     * Method to get image offsets of different Sprites
     * @return Vector@ postion of Sprite
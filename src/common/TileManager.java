@@ -2,9 +2,11 @@ package common;
 
 import common.core.MouseEventType;
 import common.core.MouseState;
+import common.core.Rect;
 import common.core.Vector2;
+import common.render.IRenderer;
 import game.towerlogic.Tower;
-import javafx.scene.canvas.GraphicsContext;
+import map.MapGrid;
 
 /**
  * Holds the tiles of type Tile(2dim array) of sceneryTiles and tilesOverlay drawn on the canvas
@@ -35,23 +37,31 @@ public class TileManager implements ITileManager {
      */
     public TileManager(int rows, int columns, String[] mapData){
         createScenery(rows, columns);
+        loadOverlay(MapGrid.fromMapData(columns, rows, mapData));
+    }
 
-        for (int i = 1; i < mapData.length; i++) {
-            if (mapData[i] == null || mapData[i] == "") {
-                continue;
-            }
-
-            String[] parts = mapData[i].split(":");
-
-            int sIndex = parts[0].indexOf(",");
-            int x = Integer.parseInt(parts[0].substring(0, sIndex));
-            int y = Integer.parseInt(parts[0].substring(sIndex + 1, parts[0].length()));
-
-            SpriteType type = SpriteType.valueOf(parts[1]);
-            Vector2 position = new Vector2(Settings.TILE_WIDTH * x, Settings.TILE_HEIGHT * y);
-            Tile newTile = new Tile(type, Settings.TILE_WIDTH, Settings.TILE_HEIGHT, position);
+    /**
+     * Constructor from a parsed or binary map
+     * @param grid Tiles of the map
+     */
+    public TileManager(MapGrid grid){
+        createScenery(grid.getRows(), grid.getColumns());
+        loadOverlay(grid);
+    }
 
-            tilesOverlay[x][y] = newTile;
+    /**
+     * Places the overlay tiles of a map, the scenery cells are left alone
+     * @param grid Tiles of the map, of the size of this tile manager
+     */
+    public void loadOverlay(MapGrid grid) {
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++) {
+                SpriteType type = grid.getType(x, y);
+                if (type != SpriteType.SCENERY) {
+                    Vector2 position = new Vector2(Settings.TILE_WIDTH * x, Settings.TILE_HEIGHT * y);
+                    tilesOverlay[x][y] = new Tile(type, Settings.TILE_WIDTH, Settings.TILE_HEIGHT, position);
+                }
+            }
         }
 
         setHasAnyOverlayTile(true);
@@ -169,32 +179,129 @@ public class TileManager implements ITileManager {
 
     /**
      * method to draw a tile on map
-     * @param gc of type graphicContext
+     * @param renderer to draw on
      */
-    public void draw(GraphicsContext gc) {
-        for (int x = 0; x < columns; x++) {
-            for (int y = 0; y < rows; y++) {
+    public void draw(IRenderer renderer) {
+        drawTerrain(renderer);
+        drawTowers(renderer);
+    }
+
+    /**
+     * method to draw the scenery and the path tiles, without the towers
+     * @param renderer to draw on
+     */
+    public void drawTerrain(IRenderer renderer) {
+        drawTerrain(renderer, 0, 0, columns, rows);
+    }
+
+    /**
+     * method to draw the scenery and the path tiles inside an area, without the towers
+     * @param renderer to draw on
+     * @param area visible area of the map, in map coordinates
+     */
+    public void drawTerrain(IRenderer renderer, Rect area) {
+        drawTerrain(renderer, getFirstColumn(area), getFirstRow(area), getLastColumn(area), getLastRow(area));
+    }
+
+    /**
+     * method to draw the scenery and the path tiles of a range of tiles
+     * @param renderer to draw on
+     * @param fromColumn first column to draw
+     * @param fromRow first row to draw
+     * @param toColumn column after the last one to draw
+     * @param toRow row after the last one to draw
+     */
+    private void drawTerrain(IRenderer renderer, int fromColumn, int fromRow, int toColumn, int toRow) {
+        for (int x = fromColumn; x < toColumn; x++) {
+            for (int y = fromRow; y < toRow; y++) {
                 Tile tile = sceneryTiles[x][y];
-                tile.draw(gc);
+                tile.draw(renderer);
 
                 Tile tileOverlay = tilesOverlay[x][y];
-                if (tileOverlay != null) {
-                    tileOverlay.draw(gc);
+                if (tileOverlay != null &&
+                        !(tileOverlay instanceof Tower)) {
+                    tileOverlay.draw(renderer);
                 }
             }
         }
+    }
 
-        // towers
-        for (int x = 0; x < columns; x++) {
-            for (int y = 0; y < rows; y++) {
+    /**
+     * method to draw the towers placed on the map
+     * @param renderer to draw on
+     */
+    public void drawTowers(IRenderer renderer) {
+        drawTowers(renderer, 0, 0, columns, rows);
+    }
+
+    /**
+     * method to draw the towers placed inside an area of the map
+     * @param renderer to draw on
+     * @param area visible area of the map, in map coordinates
+     */
+    public void drawTowers(IRenderer renderer, Rect area) {
+        // the range square of a tower reaches past its tile, so towers just outside the area are drawn too
+        int reach = Tower.getLargestRange();
+        drawTowers(renderer,
+                Math.max(0, getFirstColumn(area) - reach), Math.max(0, getFirstRow(area) - reach),
+                Math.min(columns, getLastColumn(area) + reach), Math.min(rows, getLastRow(area) + reach));
+    }
+
+    /**
+     * method to draw the towers placed on a range of tiles
+     * @param renderer to draw on
+     * @param fromColumn first column to draw
+     * @param fromRow first row to draw
+     * @param toColumn column after the last one to draw
+     * @param toRow row after the last one to draw
+     */
+    private void drawTowers(IRenderer renderer, int fromColumn, int fromRow, int toColumn, int toRow) {
+        for (int x = fromColumn; x < toColumn; x++) {
+            for (int y = fromRow; y < toRow; y++) {
                 Tile tileOverlay = tilesOverlay[x][y];
                 if (tileOverlay != null &&
                         tileOverlay instanceof Tower) {
-                    ((Tower) tileOverlay).draw(gc);
+                    ((Tower) tileOverlay).draw(renderer);
                 }
             }
         }
     }
+
+    /**
+     * @param area area of the map, in map coordinates
+     * @return Returns the first column touching the area
+     */
+    public int getFirstColumn(Rect area) {
+        int column = (int) Math.floor(area.getPosition().getX() / Settings.TILE_WIDTH);
+        return Math.max(0, Math.min(column, columns));
+    }
+
+    /**
+     * @param area area of the map, in map coordinates
+     * @return Returns the column after the last one touching the area
+     */
+    public int getLastColumn(Rect area) {
+        int column = (int) Math.ceil((area.getPosition().getX() + area.getWidth()) / Settings.TILE_WIDTH);
+        return Math.max(0, Math.min(column, columns));
+    }
+
+    /**
+     * @param area area of the map, in map coordinates
+     * @return Returns the first row touching the area
+     */
+    public int getFirstRow(Rect area) {
+        int row = (int) Math.floor(area.getPosition().getY() / Settings.TILE_HEIGHT);
+        return Math.max(0, Math.min(row, rows));
+    }
+
+    /**
+     * @param area area of the map, in map coordinates
+     * @return Returns the row after the last one touching the area
+     */
+    public int getLastRow(Rect area) {
+        int row = (int) Math.ceil((area.getPosition().getY() + area.getHeight()) / Settings.TILE_HEIGHT);
+        return Math.max(0, Math.min(row, rows));
+    }
     /**
      * @return Returns tile overlay coordinates
      */
@@ -0,0 +1,172 @@
+package common.core;
+
+import common.render.IRenderer;
+
+/**
+ * View over a world that can be bigger than the screen. The camera keeps the top left corner of the
+ * visible area in world coordinates and a zoom factor, and maps the world into a viewport that starts
+ * at the top left corner of the canvas.
+ * @version $revision $
+ */
+public class Camera {
+    public static final double MAX_ZOOM = 2;
+
+    private final double viewportWidth;
+    private final double viewportHeight;
+    private final double worldWidth;
+    private final double worldHeight;
+    private final double minZoom;
+    private double x = 0;
+    private double y = 0;
+    private double zoom = 1;
+
+    /**
+     * Main constructor
+     *
+     * @param viewportWidth Width of the area of the canvas showing the world
+     * @param viewportHeight Height of the area of the canvas showing the world
+     * @param worldWidth Width of the whole world
+     * @param worldHeight Height of the whole world
+     */
+    public Camera(double viewportWidth, double viewportHeight, double worldWidth, double worldHeight) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+
+        // never zoom out further than the point where the world stops filling the viewport
+        double fitZoom = Math.max(viewportWidth / Math.max(worldWidth, 1), viewportHeight / Math.max(worldHeight, 1));
+        this.minZoom = Math.min(1, fitZoom);
+    }
+
+    /**
+     * Moves the camera, the result is kept inside the world
+     *
+     * @param dx Distance to move horizontally, in screen pixels
+     * @param dy Distance to move vertically, in screen pixels
+     * @return Returns true if the camera moved
+     */
+    public boolean pan(double dx, double dy) {
+        return moveTo(x + (dx / zoom), y + (dy / zoom));
+    }
+
+    /**
+     * Changes the zoom, keeping the world point under the given screen position in place
+     *
+     * @param factor Factor to multiply the current zoom with
+     * @param screenX Horizontal position of the zoom center on the screen
+     * @param screenY Vertical position of the zoom center on the screen
+     * @return Returns true if the zoom or the position changed
+     */
+    public boolean zoomAt(double factor, double screenX, double screenY) {
+        double newZoom = Math.max(minZoom, Math.min(MAX_ZOOM, zoom * factor));
+        if (newZoom == zoom) {
+            return false;
+        }
+
+        double worldX = x + (screenX / zoom);
+        double worldY = y + (screenY / zoom);
+        zoom = newZoom;
+
+        moveTo(worldX - (screenX / zoom), worldY - (screenY / zoom));
+        return true;
+    }
+
+    /**
+     * Moves the top left corner of the visible area, the result is kept inside the world
+     *
+     * @param newX World x coordinate of the top left corner
+     * @param newY World y coordinate of the top left corner
+     * @return Returns true if the camera moved
+     */
+    private boolean moveTo(double newX, double newY) {
+        newX = Math.max(0, Math.min(newX, worldWidth - (viewportWidth / zoom)));
+        newY = Math.max(0, Math.min(newY, worldHeight - (viewportHeight / zoom)));
+
+        if (newX == x && newY == y) {
+            return false;
+        }
+
+        x = newX;
+        y = newY;
+        return true;
+    }
+
+    /**
+     * Clips the renderer to the viewport and transforms it to draw in world coordinates.
+     * Every call has to be followed by {@link #end(IRenderer)}.
+     *
+     * @param renderer Renderer of the canvas
+     */
+    public void begin(IRenderer renderer) {
+        renderer.save();
+        renderer.clipRect(0, 0, viewportWidth, viewportHeight);
+        renderer.setTransform(zoom, 0, 0, zoom, -x * zoom, -y * zoom);
+    }
+
+    /**
+     * Restores the renderer to the state it had before {@link #begin(IRenderer)}
+     *
+     * @param renderer Renderer of the canvas
+     */
+    public void end(IRenderer renderer) {
+        renderer.restore();
+    }
+
+    /**
+     * Converts a position on the screen into a position in the world
+     *
+     * @param screenPosition Position on the screen
+     * @return Returns a new vector with the world position
+     */
+    public Vector2 screenToWorld(Vector2 screenPosition) {
+        return new Vector2(x + (screenPosition.getX() / zoom), y + (screenPosition.getY() / zoom));
+    }
+
+    /**
+     * Check whether a position on the screen lies inside the viewport
+     *
+     * @param screenPosition Position on the screen
+     * @return Returns true if the position shows the world
+     */
+    public boolean isInViewport(Vector2 screenPosition) {
+        return screenPosition.getX() >= 0 && screenPosition.getX() <= viewportWidth &&
+                screenPosition.getY() >= 0 && screenPosition.getY() <= viewportHeight;
+    }
+
+    /**
+     * Get the part of the world shown in the viewport
+     *
+     * @return Returns the visible area in world coordinates
+     */
+    public Rect getVisibleArea() {
+        return new Rect(new Vector2(x, y), viewportWidth / zoom, viewportHeight / zoom);
+    }
+
+    /**
+     * Get the width of the viewport
+     *
+     * @return Returns the width on the screen
+     */
+    public double getViewportWidth() {
+        return viewportWidth;
+    }
+
+    /**
+     * Get the height of the viewport
+     *
+     * @return Returns the height on the screen
+     */
+    public double getViewportHeight() {
+        return viewportHeight;
+    }
+
+    /**
+     * Get the current zoom
+     *
+     * @return Returns the zoom factor, 1 draws the world at its natural size
+     */
+    public double getZoom() {
+        return zoom;
+    }
+}
@@ -0,0 +1,12 @@
+package common.core;
+
+/**
+ * Layers of the game surface, ordered from the bottom-most to the top-most one.
+ */
+public enum CanvasLayer {
+    TERRAIN,
+    TOWERS,
+    CRITTERS,
+    HUD,
+    OVERLAY
+}
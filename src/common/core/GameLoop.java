@@ -1,17 +1,44 @@
 package common.core;
 
+import common.diagnostics.AllocationMeter;
+import common.diagnostics.FrameProfiler;
+import common.diagnostics.ProfilePhase;
+import common.diagnostics.TickEvent;
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.stage.Stage;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class controls the game by monitoring the game timer
- * holds a timer of type AnimationTimer, running state, lastTime and delta
+ * holds a timer of type AnimationTimer, running state, lastTime and delta.
+ * The timer stops while the game is idle or its window is hidden, and every frame is timed by a {@link FrameProfiler}.
  * @version $revision $
  */
 public abstract class GameLoop {
+    // wakes the idle loops up, on the application thread
+    private static final ScheduledExecutorService WAKE_UP = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-loop-wake-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private AnimationTimer timer;
+    private ScheduledFuture<?> wakeUp;
     private boolean running = false;
+    private boolean sleeping = false;
+    private boolean suspended = false;
+    private boolean redrawRequested = false;
     private long lastTime = 0;
     private double delta = 0;
+    protected final FrameProfiler profiler = new FrameProfiler();
+    private final AllocationMeter allocationMeter = new AllocationMeter();
 
     /**
      * This method starts the game and changes the running state to true
@@ -25,17 +52,62 @@ public abstract class GameLoop {
             timer = new AnimationTimer() {
                 @Override
                 public void handle(long now) {
-                    delta = ((double) now - (double) lastTime) / 1000000000.0; // second
-                    lastTime = now;
-
-                    update(delta);
-                    clear();
-                    draw();
+                    frame(now);
                 }
             };
         }
 
-        timer.start();
+        resume();
+    }
+
+    /**
+     * Runs the frame of the timer, then stops the timer if there is nothing left to animate
+     *
+     * @param now Time of the frame, in nanoseconds
+     */
+    protected void frame(long now) {
+        // the first frame after a start or a pause does not count the time spent waiting
+        delta = lastTime == 0 ? 0 : ((double) now - (double) lastTime) / 1000000000.0; // second
+        lastTime = now;
+        redrawRequested = false;
+
+        step(delta);
+
+        if (running && !redrawRequested && isIdle()) {
+            pause();
+            sleeping = true;
+            scheduleWakeUp();
+        }
+    }
+
+    /**
+     * Runs one frame: update, clear and draw. The timer calls it on every frame; it can also be called
+     * directly to run the game without a timer, for instance headless with a fixed delta.
+     *
+     * @param delta Time since the last frame, in seconds
+     */
+    public void step(double delta) {
+        TickEvent tickEvent = TickEvent.isRecorded() ? new TickEvent() : null;
+        if (tickEvent != null) {
+            tickEvent.begin();
+        }
+        long allocationStart = profiler.isEnabled() ? allocationMeter.start() : -1;
+        long frameStart = profiler.start();
+        long start = frameStart;
+        update(delta);
+        start = profiler.stop(ProfilePhase.UPDATE, start);
+        clear();
+        start = profiler.stop(ProfilePhase.CLEAR, start);
+        long drawAllocation = profiler.startAllocation();
+        draw();
+        profiler.stopAllocation(ProfilePhase.DRAW, drawAllocation);
+        profiler.stop(ProfilePhase.DRAW, start);
+        profiler.stop(ProfilePhase.FRAME, frameStart);
+        allocationMeter.stop(allocationStart);
+        if (tickEvent != null && tickEvent.shouldCommit()) {
+            tickEvent.delta = delta;
+            tickEvent.commit();
+        }
     }
 
     /**
@@ -43,7 +115,154 @@ public abstract class GameLoop {
      */
     public void stop() {
         timer.stop();
+        cancelWakeUp();
         running = false;
+        sleeping = false;
+    }
+
+    /**
+     * Ask for at least one more frame. Wakes the loop up if it is sleeping because of idleness.
+     */
+    public void requestRedraw() {
+        redrawRequested = true;
+
+        if (running && sleeping && !suspended) {
+            sleeping = false;
+            cancelWakeUp();
+            resume();
+        }
+    }
+
+    /**
+     * Suspend the loop while the stage is iconified or hidden, and bring it back when it shows again
+     *
+     * @param stage The stage showing the game
+     */
+    public void suspendWhenHidden(Stage stage) {
+        ChangeListener<Boolean> listener = new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                setSuspended(stage.isIconified() || !stage.isShowing());
+            }
+        };
+
+        stage.iconifiedProperty().addListener(listener);
+        stage.showingProperty().addListener(listener);
+        setSuspended(stage.isIconified() || !stage.isShowing());
+    }
+
+    /**
+     * Suspends or resumes the loop
+     *
+     * @param suspended true to stop receiving frames
+     */
+    public void setSuspended(boolean suspended) {
+        if (this.suspended == suspended) return;
+
+        this.suspended = suspended;
+
+        if (!running) return;
+
+        if (suspended) {
+            pause();
+            cancelWakeUp();
+        }
+        else {
+            sleeping = false;
+            resume();
+        }
+    }
+
+    /**
+     * Check whether the loop is waiting for a redraw request
+     *
+     * @return Returns true if the loop stopped because it was idle
+     */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Check whether the loop is suspended
+     *
+     * @return Returns true if the window is not visible
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Get the profiler timing the frames
+     *
+     * @return Returns the profiler
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Get the meter of the bytes allocated per frame
+     *
+     * @return Returns the meter
+     */
+    public AllocationMeter getAllocationMeter() {
+        return allocationMeter;
+    }
+
+    /**
+     * Stops receiving frames, the loop is still running
+     */
+    private void pause() {
+        timer.stop();
+    }
+
+    /**
+     * Asks for a frame once the idle frame interval has passed, if there is one
+     */
+    private void scheduleWakeUp() {
+        long interval = getIdleFrameInterval();
+        if (interval > 0) {
+            wakeUp = WAKE_UP.schedule(() -> Platform.runLater(this::requestRedraw), interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forgets the frame asked for by an idle loop
+     */
+    private void cancelWakeUp() {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+    }
+
+    /**
+     * Starts receiving frames again, unless the loop is suspended
+     */
+    private void resume() {
+        if (suspended) return;
+
+        lastTime = 0;
+        timer.start();
+    }
+
+    /**
+     * Check whether there is nothing to animate. An idle loop only draws when a redraw is requested.
+     *
+     * @return Returns true if the next frames would look the same as the last one
+     */
+    protected boolean isIdle() {
+        return false;
+    }
+
+    /**
+     * Get the time between two frames of an idle loop, for the work that goes on while nothing moves.
+     * It is asked each time the loop goes idle; the frames are not run while the loop is suspended.
+     *
+     * @return Returns the time in milliseconds, 0 to wait for a redraw request
+     */
+    protected long getIdleFrameInterval() {
+        return 0;
     }
 
     /**
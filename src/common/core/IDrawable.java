@@ -1,14 +1,14 @@
 package common.core;
 
-import javafx.scene.canvas.GraphicsContext;
+import common.render.IRenderer;
 
 /**
  * Interface for drawable
  */
 public interface IDrawable {
     /**
-     * draws itself using the {@link GraphicsContext}
-     * @param gc What will be used to draw
+     * draws itself using the {@link IRenderer}
+     * @param renderer What will be used to draw
      */
-    void draw(GraphicsContext gc);
+    void draw(IRenderer renderer);
 }
@@ -36,8 +36,8 @@ public class KeyHandler {
         scene.setOnKeyReleased(new EventHandler<KeyEvent>() {
             @Override
             public void handle(KeyEvent event) {
-                if (pressedKyes.containsKey(event)) {
-                    pressedKyes.remove(event);
+                if (pressedKyes.containsKey(event.getCode())) {
+                    pressedKyes.remove(event.getCode());
                 }
             }
         });
@@ -52,6 +52,14 @@ public class KeyHandler {
         return pressedKyes.containsKey(key);
     }
 
+    /**
+     * Checks if any key is pressed
+     * @return true if at least one key is held down
+     */
+    public boolean isAnyKeyPressed() {
+        return !pressedKyes.isEmpty();
+    }
+
     /**
      * Gets the pressed keys
      * @return the pressed keys
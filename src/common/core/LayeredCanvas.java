@@ -0,0 +1,188 @@
+package common.core;
+
+import common.render.FxRenderer;
+import common.render.IRenderer;
+import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Stack of canvases, one per {@link CanvasLayer}, each one with its own invalidation flag.
+ * Only the layers that were invalidated since the last frame are cleared and repainted.
+ * @version $revision $
+ */
+public class LayeredCanvas {
+    private final IRenderer[] renderers;
+    private final boolean[] dirtyLayers;
+    private final boolean[] retainedLayers;
+    private final boolean shared;
+    private final double width;
+    private final double height;
+
+    /**
+     * Creates one canvas per layer and adds them to the root, bottom layer first.
+     *
+     * @param root The {@link javafx.scene.Group} that will hold the canvases
+     * @param width Width of every layer
+     * @param height Height of every layer
+     */
+    public LayeredCanvas(Group root, double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.shared = false;
+
+        CanvasLayer[] layers = CanvasLayer.values();
+        renderers = new IRenderer[layers.length];
+        dirtyLayers = new boolean[layers.length];
+        retainedLayers = new boolean[layers.length];
+
+        for (CanvasLayer layer : layers) {
+            Canvas canvas = new Canvas(width, height);
+            root.getChildren().add(canvas);
+            renderers[layer.ordinal()] = new FxRenderer(canvas.getGraphicsContext2D());
+        }
+        invalidateAll();
+    }
+
+    /**
+     * Creates the layers on top of a single graphics context. Every layer shares the same surface,
+     * so invalidating one of them invalidates them all.
+     *
+     * @param gc The graphics context shared by all the layers
+     */
+    public LayeredCanvas(GraphicsContext gc) {
+        this(new FxRenderer(gc), gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+    }
+
+    /**
+     * Creates the layers on top of a single renderer, which does not need a screen.
+     * Every layer shares the same surface, so invalidating one of them invalidates them all.
+     *
+     * @param renderer The renderer shared by all the layers
+     * @param width Width of the surface
+     * @param height Height of the surface
+     */
+    public LayeredCanvas(IRenderer renderer, double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.shared = true;
+
+        CanvasLayer[] layers = CanvasLayer.values();
+        renderers = new IRenderer[layers.length];
+        dirtyLayers = new boolean[layers.length];
+        retainedLayers = new boolean[layers.length];
+
+        for (CanvasLayer layer : layers) {
+            renderers[layer.ordinal()] = renderer;
+        }
+        invalidateAll();
+    }
+
+    /**
+     * Gets the renderer of a layer
+     *
+     * @param layer Layer to draw on
+     * @return The renderer of the layer
+     */
+    public IRenderer getRenderer(CanvasLayer layer) {
+        return renderers[layer.ordinal()];
+    }
+
+    /**
+     * Marks a layer to be repainted on the next frame
+     *
+     * @param layer Layer that changed
+     */
+    public void invalidate(CanvasLayer layer) {
+        if (shared) {
+            invalidateAll();
+        }
+        else {
+            dirtyLayers[layer.ordinal()] = true;
+        }
+    }
+
+    /**
+     * Marks every layer to be repainted on the next frame
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < dirtyLayers.length; i++) {
+            dirtyLayers[i] = true;
+        }
+    }
+
+    /**
+     * Check whether a layer has to be repainted
+     *
+     * @param layer Layer to check
+     * @return Returns true if the layer changed since the last frame
+     */
+    public boolean isDirty(CanvasLayer layer) {
+        return dirtyLayers[layer.ordinal()];
+    }
+
+    /**
+     * Check whether all the layers share the same surface
+     *
+     * @return Returns true if there is a single canvas
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Marks a layer as retained. A retained layer is never cleared as a whole, its owner is
+     * responsible for clearing the regions it repaints. On a shared surface there is no way
+     * to keep it, so it is cleared along with the rest.
+     *
+     * @param layer Layer to retain
+     * @param retained New value
+     */
+    public void setRetained(CanvasLayer layer, boolean retained) {
+        retainedLayers[layer.ordinal()] = retained;
+    }
+
+    /**
+     * Clears the surface of every layer that has to be repainted
+     */
+    public void clearDirtyLayers() {
+        for (CanvasLayer layer : CanvasLayer.values()) {
+            if (!shared && retainedLayers[layer.ordinal()]) {
+                continue;
+            }
+            if (isDirty(layer)) {
+                getRenderer(layer).clearRect(0, 0, width, height);
+                if (shared) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks every layer as repainted
+     */
+    public void markAllClean() {
+        for (int i = 0; i < dirtyLayers.length; i++) {
+            dirtyLayers[i] = false;
+        }
+    }
+
+    /**
+     * Get the width of the layers
+     *
+     * @return Returns the width
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the layers
+     *
+     * @return Returns the height
+     */
+    public double getHeight() {
+        return height;
+    }
+}
@@ -42,6 +42,19 @@ public class Rect {
         return position;
     }
 
+    /**
+     * Check whether two rectangles overlap
+     *
+     * @param other The rectangle to check with
+     * @return Returns true if both rectangles overlap
+     */
+    public boolean intersects(Rect other) {
+        return (other.position.getX() < this.position.getX() + this.width &&
+                other.position.getY() < this.position.getY() + this.height &&
+                other.position.getX() + other.width > this.position.getX() &&
+                other.position.getY() + other.height > this.position.getY());
+    }
+
     /**
      * Printer friendly values of the rectangle
      * @return The printer friendly string
@@ -1,6 +1,7 @@
 package common.core;
 
-import javafx.scene.canvas.GraphicsContext;
+
+import common.render.IRenderer;
 
 import java.nio.ByteBuffer;
 import java.util.UUID;
@@ -200,9 +201,9 @@ public abstract class Sprite implements Cloneable{
     /**
      * Inherited method for drawing a Sprite in graphic context
      *
-     * @param gc represents the graphic context
+     * @param renderer represents the renderer
      */
-    public abstract void draw(GraphicsContext gc);
+    public abstract void draw(IRenderer renderer);
 
     /**
      * Inherited method for updating
@@ -0,0 +1,84 @@
+package common.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the bytes allocated by the current thread between a start and a stop,
+ * when the JVM supports it. Keeps the last measure and a moving average.
+ * @version $revision $
+ */
+public class AllocationMeter {
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private volatile long lastBytes = 0;
+    private volatile double averageBytes = 0;
+
+    /**
+     * Default constructor
+     */
+    public AllocationMeter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean supported = null;
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            supported = (com.sun.management.ThreadMXBean) bean;
+            if (!supported.isThreadAllocatedMemorySupported() || !supported.isThreadAllocatedMemoryEnabled()) {
+                supported = null;
+            }
+        }
+        this.threads = supported;
+    }
+
+    /**
+     * Check whether the JVM counts the bytes allocated by a thread
+     *
+     * @return Returns true if the meter works
+     */
+    public boolean isSupported() {
+        return threads != null;
+    }
+
+    /**
+     * Starts measuring
+     *
+     * @return Returns the bytes allocated so far by the current thread, -1 if not supported
+     */
+    public long start() {
+        return threads != null ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * Stops measuring and keeps the result
+     *
+     * @param start Value returned by {@link #start()}
+     * @return Returns the bytes allocated since the start, -1 if not supported
+     */
+    public long stop(long start) {
+        if (threads == null || start < 0) {
+            return -1;
+        }
+        long bytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+        lastBytes = bytes;
+        averageBytes += (bytes - averageBytes) * AVERAGE_WEIGHT;
+        return bytes;
+    }
+
+    /**
+     * Get the bytes allocated during the last measure
+     *
+     * @return Returns the number of bytes
+     */
+    public long getLastBytes() {
+        return lastBytes;
+    }
+
+    /**
+     * Get the moving average of the bytes allocated per measure
+     *
+     * @return Returns the average number of bytes
+     */
+    public double getAverageBytes() {
+        return averageBytes;
+    }
+}
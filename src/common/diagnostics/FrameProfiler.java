@@ -0,0 +1,277 @@
+package common.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times the phases of the game loop. Each phase keeps a rolling window made of a few
+ * histograms of one slot each; the statistics cover the slots of the last window.
+ * When disabled, timing a phase costs a single check and does not read the clock.
+ * <p>
+ * Usage: {@code long start = profiler.start(); ...; start = profiler.stop(ProfilePhase.UPDATE, start);}
+ * <p>
+ * The bytes allocated by a phase can be counted too, with {@link #startAllocation()} and
+ * {@link #stopAllocation(ProfilePhase, long)}. Counting is off by default.
+ * @version $revision $
+ */
+public class FrameProfiler {
+    public static final int DEFAULT_SLOTS = 5;
+    public static final long DEFAULT_SLOT_NANOS = 1000000000L;
+
+    private static final ProfilePhase[] PHASES = ProfilePhase.values();
+
+    private final int slots;
+    private final long slotNanos;
+    private final LatencyHistogram[][] histograms;
+    private final AtomicLongArray slotEpochs;
+    private final long[] lastNanos = new long[PHASES.length];
+    private volatile boolean enabled = true;
+
+    private final AllocationMeter allocationMeter = new AllocationMeter();
+    private final long[] allocatedBytes = new long[PHASES.length];
+    private final long[] allocationCounts = new long[PHASES.length];
+    private volatile boolean allocationTracking = false;
+
+    /**
+     * Default constructor, with a window of five seconds
+     */
+    public FrameProfiler() {
+        this(DEFAULT_SLOTS, DEFAULT_SLOT_NANOS);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param slots Number of slots in the window
+     * @param slotNanos Duration of a slot in nanoseconds
+     */
+    public FrameProfiler(int slots, long slotNanos) {
+        this.slots = slots;
+        this.slotNanos = slotNanos;
+        this.histograms = new LatencyHistogram[PHASES.length][slots];
+        this.slotEpochs = new AtomicLongArray(PHASES.length * slots);
+
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            for (int slot = 0; slot < slots; slot++) {
+                histograms[phase][slot] = new LatencyHistogram();
+                slotEpochs.set(phase * slots + slot, -1);
+            }
+        }
+    }
+
+    /**
+     * Starts timing
+     *
+     * @return Returns the start time to give to {@link #stop(ProfilePhase, long)}, 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since a start
+     *
+     * @param phase The timed phase
+     * @param start Time returned by {@link #start()} or by the previous stop
+     * @return Returns the current time, so the next phase can start from it, 0 when disabled
+     */
+    public long stop(ProfilePhase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (start != 0) {
+            record(phase, now - start, now);
+        }
+        return now;
+    }
+
+    /**
+     * Records a duration measured elsewhere, for phases spread over several calls
+     *
+     * @param phase The timed phase
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(ProfilePhase phase, long nanos) {
+        if (enabled) {
+            record(phase, nanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records a duration in the slot of the current time
+     *
+     * @param phase The timed phase
+     * @param nanos Duration in nanoseconds
+     * @param now Current time in nanoseconds
+     */
+    private void record(ProfilePhase phase, long nanos, long now) {
+        lastNanos[phase.ordinal()] = nanos;
+
+        long epoch = now / slotNanos;
+        int slot = (int) (epoch % slots);
+        int index = phase.ordinal() * slots + slot;
+
+        long slotEpoch = slotEpochs.get(index);
+        if (slotEpoch != epoch && slotEpochs.compareAndSet(index, slotEpoch, epoch)) {
+            histograms[phase.ordinal()][slot].reset();
+        }
+        histograms[phase.ordinal()][slot].record(nanos);
+    }
+
+    /**
+     * Starts counting the bytes allocated by the current thread
+     *
+     * @return Returns the value to give to {@link #stopAllocation(ProfilePhase, long)}, -1 when not counting
+     */
+    public long startAllocation() {
+        return allocationTracking ? allocationMeter.start() : -1;
+    }
+
+    /**
+     * Adds the bytes allocated by the current thread since a start to the total of a phase
+     *
+     * @param phase The measured phase
+     * @param start Value returned by {@link #startAllocation()}
+     */
+    public void stopAllocation(ProfilePhase phase, long start) {
+        if (start < 0) {
+            return;
+        }
+        allocatedBytes[phase.ordinal()] += allocationMeter.start() - start;
+        allocationCounts[phase.ordinal()]++;
+    }
+
+    /**
+     * Get the bytes allocated by a phase since the counting was turned on or reset
+     *
+     * @param phase The phase
+     * @return Returns the total number of bytes
+     */
+    public long getAllocatedBytes(ProfilePhase phase) {
+        return allocatedBytes[phase.ordinal()];
+    }
+
+    /**
+     * Get the number of times the allocations of a phase were counted
+     *
+     * @param phase The phase
+     * @return Returns the number of measures
+     */
+    public long getAllocationCount(ProfilePhase phase) {
+        return allocationCounts[phase.ordinal()];
+    }
+
+    /**
+     * Get the last duration recorded for a phase
+     *
+     * @param phase The phase
+     * @return Returns the duration in nanoseconds, 0 if nothing was recorded
+     */
+    public long getLast(ProfilePhase phase) {
+        return lastNanos[phase.ordinal()];
+    }
+
+    /**
+     * Merges the slots of the current window of a phase
+     *
+     * @param phase The phase
+     * @return Returns a new histogram with the durations of the window
+     */
+    public LatencyHistogram getWindow(ProfilePhase phase) {
+        return getWindow(phase, new LatencyHistogram());
+    }
+
+    /**
+     * Merges the slots of the current window of a phase into a histogram, so readers refreshing
+     * often reuse the same one instead of building a new one each time
+     *
+     * @param phase The phase
+     * @param window Histogram receiving the durations, its previous values are removed
+     * @return Returns the given histogram
+     */
+    public LatencyHistogram getWindow(ProfilePhase phase, LatencyHistogram window) {
+        window.reset();
+        long epoch = System.nanoTime() / slotNanos;
+
+        for (int slot = 0; slot < slots; slot++) {
+            long slotEpoch = slotEpochs.get(phase.ordinal() * slots + slot);
+            if (slotEpoch >= 0 && epoch - slotEpoch < slots) {
+                histograms[phase.ordinal()][slot].addTo(window);
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Removes every recorded duration
+     */
+    public void reset() {
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            for (int slot = 0; slot < slots; slot++) {
+                slotEpochs.set(phase * slots + slot, -1);
+                histograms[phase][slot].reset();
+            }
+            lastNanos[phase] = 0;
+            allocatedBytes[phase] = 0;
+            allocationCounts[phase] = 0;
+        }
+    }
+
+    /**
+     * Builds a line per phase with the number of samples, the median, the 99th percentile and the maximum
+     *
+     * @return Returns the report of the current window, durations in milliseconds
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        LatencyHistogram window = new LatencyHistogram();
+        for (ProfilePhase phase : PHASES) {
+            getWindow(phase, window);
+            if (window.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-14s n=%-6d p50=%7.3f p99=%7.3f max=%7.3f%n", phase,
+                    window.getCount(),
+                    window.getValueAtPercentile(50) / 1e6,
+                    window.getValueAtPercentile(99) / 1e6,
+                    window.getMax() / 1e6));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Check whether the phases are timed
+     *
+     * @return Returns true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the timing on or off
+     *
+     * @param enabled true to time the phases
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Check whether the allocations of the phases are counted
+     *
+     * @return Returns true if counting
+     */
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    /**
+     * Turns the counting of the allocations on or off. It stays off when the JVM cannot count them.
+     *
+     * @param allocationTracking true to count the bytes allocated by the phases
+     */
+    public void setAllocationTracking(boolean allocationTracking) {
+        this.allocationTracking = allocationTracking && allocationMeter.isSupported();
+    }
+}
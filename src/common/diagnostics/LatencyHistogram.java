@@ -0,0 +1,141 @@
+package common.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds with a bounded relative error.
+ * Values below 64 get a bucket each; above that every power of two is split in 32 buckets,
+ * so a value is off by at most about 3%. Recording is lock-free and can be read from another thread.
+ * @version $revision $
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a duration
+     *
+     * @param nanos Duration in nanoseconds, clamped to about 18 minutes
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Adds the values of this histogram to another one
+     *
+     * @param target The histogram receiving the values
+     */
+    public void addTo(LatencyHistogram target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                target.counts.addAndGet(i, count);
+            }
+        }
+        target.totalCount.addAndGet(totalCount.get());
+
+        long max = maxValue.get();
+        long targetMax = target.maxValue.get();
+        while (max > targetMax && !target.maxValue.compareAndSet(targetMax, max)) {
+            targetMax = target.maxValue.get();
+        }
+    }
+
+    /**
+     * Removes every value
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    /**
+     * Get the number of recorded values
+     *
+     * @return Returns the number of values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Get the largest recorded value, exactly
+     *
+     * @return Returns the maximum in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Get the value below which a percentage of the recorded values fall
+     *
+     * @param percentile Percentage between 0 and 100
+     * @return Returns the highest value of the bucket holding the percentile, in nanoseconds
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil((Math.min(100, Math.max(0, percentile)) / 100.0) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Finds the bucket of a value
+     *
+     * @param value Value between 0 and the maximum value
+     * @return Returns the index of the bucket
+     */
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int top = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift * SUB_BUCKET_COUNT) + (top - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Finds the highest value counted in a bucket
+     *
+     * @param index Index of the bucket
+     * @return Returns the highest value of the bucket
+     */
+    private static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long top = SUB_BUCKET_COUNT + ((index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT);
+        return ((top + 1) << shift) - 1;
+    }
+}
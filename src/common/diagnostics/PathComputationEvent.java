@@ -0,0 +1,29 @@
+package common.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the search of the critter path on a map
+ * @version $revision $
+ */
+@Name("towerdefense.PathComputation")
+@Label("Path Computation")
+@Category({"Tower Defense", "Map"})
+@Description("Search of the shortest path from the entry point to the exit point")
+public class PathComputationEvent extends Event {
+    @Label("Cells")
+    @Description("Number of cells of the map")
+    public int cells;
+
+    @Label("Paths")
+    @Description("Number of paths found")
+    public int paths;
+
+    @Label("Path Length")
+    @Description("Number of tiles of the chosen path")
+    public int pathLength;
+}
@@ -0,0 +1,16 @@
+package common.diagnostics;
+
+/**
+ * Parts of a frame timed by the {@link FrameProfiler}
+ * @version $revision $
+ */
+public enum ProfilePhase {
+    FRAME,
+    UPDATE,
+    CLEAR,
+    DRAW,
+    TOWER_SHOOTS,
+    TARGETING,
+    CRITTER_UPDATE,
+    ECONOMY
+}
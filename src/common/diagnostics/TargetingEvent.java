@@ -0,0 +1,48 @@
+package common.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the selection of the targets of a tower and the damage applied to them
+ * @version $revision $
+ */
+@Name("towerdefense.Targeting")
+@Label("Tower Targeting")
+@Category({"Tower Defense", "Towers"})
+@Description("A tower choosing its targets among the critters in range and damaging them")
+@StackTrace(false)
+public class TargetingEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TargetingEvent.class);
+
+    @Label("Tower")
+    public String tower;
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Candidates")
+    @Description("Critters within range")
+    public int candidates;
+
+    @Label("Targets")
+    @Description("Critters affected, including the splash damage")
+    public int targets;
+
+    @Label("Chosen Target")
+    public String chosenTarget;
+
+    /**
+     * Check whether a recording asks for these events, so that the shots allocate nothing when none does
+     *
+     * @return Returns true if the event is enabled in a running recording
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+}
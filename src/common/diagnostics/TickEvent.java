@@ -0,0 +1,35 @@
+package common.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one frame of the game loop
+ * @version $revision $
+ */
+@Name("towerdefense.Tick")
+@Label("Game Loop Tick")
+@Category({"Tower Defense", "Game Loop"})
+@Description("One frame of the game loop: update, clear and draw")
+@StackTrace(false)
+public class TickEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TickEvent.class);
+
+    @Label("Delta")
+    @Description("Time since the previous frame, in seconds")
+    public double delta;
+
+    /**
+     * Check whether a recording asks for these events, so that the frames allocate nothing when none does
+     *
+     * @return Returns true if the event is enabled in a running recording
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,29 @@
+package common.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering a wave, from the spawn of the critters to the end of the wave
+ * @version $revision $
+ */
+@Name("towerdefense.Wave")
+@Label("Wave")
+@Category({"Tower Defense", "Game"})
+@Description("A wave of critters, from its start to its end")
+@StackTrace(false)
+public class WaveEvent extends Event {
+    @Label("Level")
+    public int level;
+
+    @Label("Critters Spawned")
+    public int crittersSpawned;
+
+    @Label("Critters Passed")
+    @Description("Critters that reached the exit point")
+    public int crittersPassed;
+}
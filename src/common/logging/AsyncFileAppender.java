@@ -0,0 +1,339 @@
+package common.logging;
+
+import org.apache.log4j.DailyRollingFileAppender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Daily rolling file appender that writes from a background thread.
+ * The game thread only puts the events in a bounded lock-free queue, the writer thread
+ * takes them in batches, writes them through a large buffer and flushes once per batch.
+ * When the queue is full the event is dropped and counted, unless the appender is set to block.
+ * Configured in log4j.properties like the {@link DailyRollingFileAppender}, with the extra
+ * options QueueSize, BatchSize, Blocking, LocationInfo and CloseTimeout.
+ * @version $revision $
+ */
+public class AsyncFileAppender extends DailyRollingFileAppender {
+    private static final long IDLE_WAIT_NANOS = 50000000L;
+    private static final long FULL_WAIT_NANOS = 100000L;
+
+    private final ConcurrentLinkedQueue<LoggingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private long reportedDropped = 0;
+
+    private int queueSize = 4096;
+    private int batchSize = 256;
+    private boolean blocking = false;
+    private boolean locationInfo = false;
+    private long closeTimeout = 2000;
+
+    private volatile Thread writer;
+    private volatile boolean writerWaiting = false;
+    private volatile boolean stopping = false;
+    // guarded by the appender
+    private boolean writerFinished = false;
+    private boolean closeWhenFinished = false;
+
+    /**
+     * Default constructor. Writes go through a 64 KB buffer instead of flushing every event.
+     */
+    public AsyncFileAppender() {
+        setBufferedIO(true);
+        setBufferSize(64 * 1024);
+    }
+
+    /**
+     * Opens the file and starts the writer thread
+     */
+    @Override
+    public void activateOptions() {
+        super.activateOptions();
+
+        if (writer == null) {
+            stopping = false;
+            synchronized (this) {
+                writerFinished = false;
+                closeWhenFinished = false;
+            }
+            Thread thread = new Thread(this::writeLoop, "log-writer");
+            thread.setDaemon(true);
+            writer = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues the event. Unlike the base class this does not lock the appender,
+     * so the calling thread never waits for the file.
+     *
+     * @param event The event to log
+     */
+    @Override
+    public void doAppend(LoggingEvent event) {
+        if (closed || stopping || !isAsSevereAsThreshold(event.getLevel())) {
+            return;
+        }
+
+        Filter filter = getFirstFilter();
+        while (filter != null) {
+            int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                return;
+            }
+            if (decision == Filter.ACCEPT) {
+                break;
+            }
+            filter = filter.getNext();
+        }
+
+        enqueue(event);
+    }
+
+    /**
+     * Puts an event in the queue, or drops it if the queue is full
+     *
+     * @param event The event to log
+     */
+    private void enqueue(LoggingEvent event) {
+        // everything the event reads from the calling thread has to be captured now
+        event.getNDC();
+        event.getThreadName();
+        event.getMDCCopy();
+        event.getRenderedMessage();
+        if (locationInfo) {
+            event.getLocationInformation();
+        }
+
+        while (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            if (!blocking || stopping || writer == null) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+        }
+
+        queue.offer(event);
+
+        Thread thread = writer;
+        if (writerWaiting && thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Body of the writer thread. Writes the queued events in batches until the appender is closed.
+     */
+    private void writeLoop() {
+        while (true) {
+            int written = writeBatch();
+
+            if (written == 0) {
+                if (stopping && queue.isEmpty()) {
+                    break;
+                }
+                writerWaiting = true;
+                if (queue.isEmpty() && !stopping) {
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+                writerWaiting = false;
+            }
+        }
+        flushWriter();
+
+        synchronized (this) {
+            writerFinished = true;
+            if (closeWhenFinished) {
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * Writes up to one batch of events and flushes them
+     *
+     * @return Returns the number of events written
+     */
+    private int writeBatch() {
+        int written = 0;
+        LoggingEvent event;
+
+        while (written < batchSize && (event = queue.poll()) != null) {
+            queued.decrementAndGet();
+            if (checkEntryConditions()) {
+                subAppend(event);
+            }
+            written++;
+        }
+
+        long totalDropped = dropped.get();
+        if (totalDropped != reportedDropped && qw != null) {
+            qw.write("AsyncFileAppender dropped " + (totalDropped - reportedDropped) +
+                    " log records, the queue was full" + Layout.LINE_SEP);
+            reportedDropped = totalDropped;
+        }
+
+        if (written > 0) {
+            flushWriter();
+        }
+        return written;
+    }
+
+    /**
+     * Pushes the buffered text to the file
+     */
+    private void flushWriter() {
+        if (qw != null) {
+            qw.flush();
+        }
+    }
+
+    /**
+     * Writes the queued events and stops the writer thread, then closes the file.
+     * If the writer is not done within the close timeout the file is left to it: it is closed once
+     * the last queued event is written.
+     */
+    @Override
+    public void close() {
+        Thread thread = writer;
+        if (thread != null) {
+            stopping = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(closeTimeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+
+        synchronized (this) {
+            if (!writerFinished && (thread != null || closeWhenFinished)) {
+                if (!closeWhenFinished) {
+                    LogLog.warn("AsyncFileAppender still has " + queued.get() +
+                            " log records to write, the file is closed once they are written");
+                    closeWhenFinished = true;
+                }
+                return;
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * Get the longest wait of {@link #close()} for the queued events to be written
+     *
+     * @return Returns the time in milliseconds
+     */
+    public long getCloseTimeout() {
+        return closeTimeout;
+    }
+
+    /**
+     * Set the longest wait of {@link #close()} for the queued events to be written
+     *
+     * @param closeTimeout The time in milliseconds
+     */
+    public void setCloseTimeout(long closeTimeout) {
+        this.closeTimeout = Math.max(1, closeTimeout);
+    }
+
+    /**
+     * Get the number of events dropped because the queue was full
+     *
+     * @return Returns the number of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the number of events waiting to be written
+     *
+     * @return Returns the number of queued events
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Get the maximum number of events waiting to be written
+     *
+     * @return Returns the size of the queue
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Set the maximum number of events waiting to be written
+     *
+     * @param queueSize The size of the queue
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * Get the maximum number of events written before flushing
+     *
+     * @return Returns the size of a batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the maximum number of events written before flushing
+     *
+     * @param batchSize The size of a batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Check whether logging waits for room in a full queue instead of dropping the event
+     *
+     * @return Returns true if the appender blocks
+     */
+    public boolean getBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Set whether logging waits for room in a full queue instead of dropping the event
+     *
+     * @param blocking true to block, false to drop
+     */
+    public void setBlocking(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    /**
+     * Check whether the caller location is captured for the layout
+     *
+     * @return Returns true if the location is captured
+     */
+    public boolean getLocationInfo() {
+        return locationInfo;
+    }
+
+    /**
+     * Set whether the caller location is captured for the layout.
+     * It has to be captured on the calling thread, which walks the stack for every event.
+     *
+     * @param locationInfo true to capture it
+     */
+    public void setLocationInfo(boolean locationInfo) {
+        this.locationInfo = locationInfo;
+    }
+}
@@ -0,0 +1,157 @@
+package common.logging;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import java.util.function.Supplier;
+
+/**
+ * Logging facade for the game. It writes to the log4j logger of a class, so the level of every
+ * subsystem is set per package or class in log4j.properties.
+ * The messages passed as a {@link Supplier} are only built when the level is enabled,
+ * and hot paths can check the level first so that a disabled message costs a single branch.
+ * @version $revision $
+ */
+public final class GameLogger {
+    // log4j looks for this class in the stack trace to find the method that called it
+    private static final String FQCN = GameLogger.class.getName();
+
+    private final Logger logger;
+
+    /**
+     * Main constructor
+     *
+     * @param logger The log4j logger to write to
+     */
+    private GameLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Gets the logger of a class
+     *
+     * @param type The class that logs
+     * @return Returns a logger writing to the log4j category of the class
+     */
+    public static GameLogger getLogger(Class<?> type) {
+        return new GameLogger(Logger.getLogger(type));
+    }
+
+    /**
+     * Check whether a level is enabled for this logger
+     *
+     * @param level The level to check
+     * @return Returns true if messages of this level are written
+     */
+    public boolean isEnabledFor(Level level) {
+        return logger.isEnabledFor(level);
+    }
+
+    /**
+     * Check whether the debug level is enabled
+     *
+     * @return Returns true if debug messages are written
+     */
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    /**
+     * Check whether the info level is enabled
+     *
+     * @return Returns true if info messages are written
+     */
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    /**
+     * Writes a message
+     *
+     * @param level Level of the message
+     * @param message The message
+     */
+    public void log(Level level, String message) {
+        if (logger.isEnabledFor(level)) {
+            logger.log(FQCN, level, message, null);
+        }
+    }
+
+    /**
+     * Writes a message, built only if the level is enabled
+     *
+     * @param level Level of the message
+     * @param message Builds the message
+     */
+    public void log(Level level, Supplier<String> message) {
+        if (logger.isEnabledFor(level)) {
+            logger.log(FQCN, level, message.get(), null);
+        }
+    }
+
+    /**
+     * Writes a debug message
+     *
+     * @param message The message
+     */
+    public void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    /**
+     * Writes a debug message, built only if the level is enabled
+     *
+     * @param message Builds the message
+     */
+    public void debug(Supplier<String> message) {
+        log(Level.DEBUG, message);
+    }
+
+    /**
+     * Writes an info message
+     *
+     * @param message The message
+     */
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Writes an info message, built only if the level is enabled
+     *
+     * @param message Builds the message
+     */
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Writes a warning
+     *
+     * @param message The message
+     */
+    public void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    /**
+     * Writes an error
+     *
+     * @param message The message
+     */
+    public void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    /**
+     * Writes an error with its cause
+     *
+     * @param message The message
+     * @param cause The exception that caused the error
+     */
+    public void error(String message, Throwable cause) {
+        if (logger.isEnabledFor(Level.ERROR)) {
+            logger.log(FQCN, Level.ERROR, message, cause);
+        }
+    }
+}
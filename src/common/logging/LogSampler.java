@@ -0,0 +1,83 @@
+package common.logging;
+
+import org.apache.log4j.Level;
+
+/**
+ * Limits the messages of events that happen every tick.
+ * Only one occurrence out of a given number is let through, and the skipped occurrences are
+ * written as a single summary line at most once per period.
+ * When the level is disabled, sampling an occurrence is a single check.
+ * @version $revision $
+ */
+public class LogSampler {
+    private final GameLogger logger;
+    private final Level level;
+    private final String description;
+    private final int rate;
+    private final long periodNanos;
+
+    private long occurrences = 0;
+    private long skipped = 0;
+    private long periodStart;
+
+    /**
+     * Main constructor
+     *
+     * @param logger Logger to write the summary to
+     * @param level Level of the sampled messages
+     * @param description Name of the event, used in the summary
+     * @param rate One occurrence out of this number is let through
+     * @param periodMillis Minimum time between two summaries
+     */
+    public LogSampler(GameLogger logger, Level level, String description, int rate, long periodMillis) {
+        this.logger = logger;
+        this.level = level;
+        this.description = description;
+        this.rate = Math.max(1, rate);
+        this.periodNanos = periodMillis * 1000000L;
+        this.periodStart = System.nanoTime();
+    }
+
+    /**
+     * Counts an occurrence of the event
+     *
+     * @return Returns true if the caller should write the message of this occurrence
+     */
+    public boolean sample() {
+        if (!logger.isEnabledFor(level)) {
+            return false;
+        }
+
+        if (occurrences++ % rate == 0) {
+            return true;
+        }
+
+        skipped++;
+        long now = System.nanoTime();
+        if (now - periodStart >= periodNanos) {
+            logger.log(level, description + ": " + skipped + " more not logged in the last " +
+                    ((now - periodStart) / 1000000L) + " ms");
+            skipped = 0;
+            periodStart = now;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of occurrences counted while the level was enabled
+     *
+     * @return Returns the number of occurrences
+     */
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * Gets the number of occurrences skipped since the last summary
+     *
+     * @return Returns the number of skipped occurrences
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,63 @@
+package common.render;
+
+/**
+ * Immutable location of a sprite inside the {@link SpriteAtlas} image
+ */
+public final class AtlasRegion {
+    private final double x;
+    private final double y;
+    private final double width;
+    private final double height;
+
+    /**
+     * Default constructor
+     *
+     * @param x X position in the atlas
+     * @param y Y position in the atlas
+     * @param width Width of the sprite
+     * @param height Height of the sprite
+     */
+    public AtlasRegion(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return X position in the atlas
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y position in the atlas
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return Width of the sprite
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of the sprite
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Printer friendly values of the region
+     * @return The printer friendly string
+     */
+    @Override
+    public String toString() {
+        return "X: " + x + ", Y: " + y + ", W: " + width + ", H: " + height;
+    }
+}
@@ -0,0 +1,79 @@
+package common.render;
+
+/**
+ * Sprites packed into the {@link SpriteAtlas}. Each sprite knows which part of its source image
+ * has to be copied into the atlas; a negative size means the whole source image.
+ */
+public enum AtlasSprite {
+    SCENERY(0, 64, 32, 32),
+    PATH(0, 0, 32, 32),
+    ENTRY_POINT(64, 32, 32, 32),
+    ENTRY_POINT_INACTIVE(0, 96, 32, 32),
+    EXIT_POINT(64, 64, 32, 32),
+    EXIT_POINT_INACTIVE(32, 96, 32, 32),
+    TOWER_ARROW,
+    TOWER_FROST,
+    TOWER_SIEGE,
+    CRITTER,
+    NO_MONEY,
+    BUTTON_SELL,
+    BUTTON_UPGRADE,
+    BUTTON_LEFT_ARROW,
+    BUTTON_RIGHT_ARROW,
+    BUTTON_NEW_WAVE;
+
+    private final int sourceX;
+    private final int sourceY;
+    private final int sourceWidth;
+    private final int sourceHeight;
+
+    /**
+     * Sprite that uses its whole source image
+     */
+    AtlasSprite() {
+        this(0, 0, -1, -1);
+    }
+
+    /**
+     * Sprite that uses a part of its source image
+     *
+     * @param sourceX X position in the source image
+     * @param sourceY Y position in the source image
+     * @param sourceWidth Width of the sprite
+     * @param sourceHeight Height of the sprite
+     */
+    AtlasSprite(int sourceX, int sourceY, int sourceWidth, int sourceHeight) {
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+    }
+
+    /**
+     * @return X position of the sprite in its source image
+     */
+    public int getSourceX() {
+        return sourceX;
+    }
+
+    /**
+     * @return Y position of the sprite in its source image
+     */
+    public int getSourceY() {
+        return sourceY;
+    }
+
+    /**
+     * @return Width of the sprite in its source image, negative when the whole image is used
+     */
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+
+    /**
+     * @return Height of the sprite in its source image, negative when the whole image is used
+     */
+    public int getSourceHeight() {
+        return sourceHeight;
+    }
+}
@@ -0,0 +1,123 @@
+package common.render;
+
+import common.Settings;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Renderer drawing on a JavaFX canvas
+ * @version $revision $
+ */
+public class FxRenderer implements IRenderer {
+    private final GraphicsContext gc;
+    private final SpriteAtlas atlas;
+    private final Image atlasImage;
+
+    /**
+     * Creates a renderer drawing the sprites of the default atlas
+     *
+     * @param gc Graphics context of the canvas
+     */
+    public FxRenderer(GraphicsContext gc) {
+        this(gc, Settings.SPRITE_ATLAS);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param gc Graphics context of the canvas
+     * @param atlas Atlas holding the sprites
+     */
+    public FxRenderer(GraphicsContext gc, SpriteAtlas atlas) {
+        this.gc = gc;
+        this.atlas = atlas;
+        this.atlasImage = atlas.getImage();
+    }
+
+    /**
+     * Gets the graphics context of the canvas
+     *
+     * @return The graphics context
+     */
+    public GraphicsContext getGraphicsContext() {
+        return gc;
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y) {
+        AtlasRegion region = atlas.getRegion(sprite);
+        gc.drawImage(atlasImage, region.getX(), region.getY(), region.getWidth(), region.getHeight(),
+                x, y, region.getWidth(), region.getHeight());
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y, double width, double height) {
+        AtlasRegion region = atlas.getRegion(sprite);
+        gc.drawImage(atlasImage, region.getX(), region.getY(), region.getWidth(), region.getHeight(),
+                x, y, width, height);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+        gc.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+        gc.strokeRect(x, y, width, height);
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+        gc.clearRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        gc.fillText(text, x, y);
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+        gc.setFill(paint);
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+        gc.setStroke(paint);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        gc.setLineWidth(width);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        gc.setFont(font);
+    }
+
+    @Override
+    public void save() {
+        gc.save();
+    }
+
+    @Override
+    public void restore() {
+        gc.restore();
+    }
+
+    @Override
+    public void clipRect(double x, double y, double width, double height) {
+        gc.beginPath();
+        gc.rect(x, y, width, height);
+        gc.clip();
+    }
+
+    @Override
+    public void setTransform(double mxx, double myx, double mxy, double myy, double mxt, double myt) {
+        gc.setTransform(mxx, myx, mxy, myy, mxt, myt);
+    }
+}
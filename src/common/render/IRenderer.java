@@ -0,0 +1,123 @@
+package common.render;
+
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Drawing surface used by every drawable of the game.
+ * The calls mirror the subset of {@link javafx.scene.canvas.GraphicsContext} the game needs,
+ * with images always taken from the {@link SpriteAtlas}.
+ * @version $revision $
+ */
+public interface IRenderer {
+    /**
+     * Draws a sprite of the atlas with its own size
+     *
+     * @param sprite Sprite to draw
+     * @param x X position of the destination
+     * @param y Y position of the destination
+     */
+    void drawSprite(AtlasSprite sprite, double x, double y);
+
+    /**
+     * Draws a sprite of the atlas scaled to the given size
+     *
+     * @param sprite Sprite to draw
+     * @param x X position of the destination
+     * @param y Y position of the destination
+     * @param width Width of the destination
+     * @param height Height of the destination
+     */
+    void drawSprite(AtlasSprite sprite, double x, double y, double width, double height);
+
+    /**
+     * Fills a rectangle with the current fill paint
+     *
+     * @param x X position of the rectangle
+     * @param y Y position of the rectangle
+     * @param width Width of the rectangle
+     * @param height Height of the rectangle
+     */
+    void fillRect(double x, double y, double width, double height);
+
+    /**
+     * Strokes a rectangle with the current stroke paint
+     *
+     * @param x X position of the rectangle
+     * @param y Y position of the rectangle
+     * @param width Width of the rectangle
+     * @param height Height of the rectangle
+     */
+    void strokeRect(double x, double y, double width, double height);
+
+    /**
+     * Clears a rectangle to transparent
+     *
+     * @param x X position of the rectangle
+     * @param y Y position of the rectangle
+     * @param width Width of the rectangle
+     * @param height Height of the rectangle
+     */
+    void clearRect(double x, double y, double width, double height);
+
+    /**
+     * Fills a text with the current fill paint and font
+     *
+     * @param text Text to draw
+     * @param x X position of the baseline
+     * @param y Y position of the baseline
+     */
+    void fillText(String text, double x, double y);
+
+    /**
+     * @param paint Paint used by the next fill calls
+     */
+    void setFill(Paint paint);
+
+    /**
+     * @param paint Paint used by the next stroke calls
+     */
+    void setStroke(Paint paint);
+
+    /**
+     * @param width Width of the lines of the next stroke calls
+     */
+    void setLineWidth(double width);
+
+    /**
+     * @param font Font used by the next text calls
+     */
+    void setFont(Font font);
+
+    /**
+     * Saves the current state: paints, font, clip and transform
+     */
+    void save();
+
+    /**
+     * Restores the last saved state
+     */
+    void restore();
+
+    /**
+     * Restricts the next calls to a rectangle, until the state is restored
+     *
+     * @param x X position of the rectangle
+     * @param y Y position of the rectangle
+     * @param width Width of the rectangle
+     * @param height Height of the rectangle
+     */
+    void clipRect(double x, double y, double width, double height);
+
+    /**
+     * Replaces the current transform
+     *
+     * @param mxx The X coordinate scaling element
+     * @param myx The Y coordinate shearing element
+     * @param mxy The X coordinate shearing element
+     * @param myy The Y coordinate scaling element
+     * @param mxt The X coordinate translation element
+     * @param myt The Y coordinate translation element
+     */
+    void setTransform(double mxx, double myx, double mxy, double myy, double mxt, double myt);
+}
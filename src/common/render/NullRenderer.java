@@ -0,0 +1,66 @@
+package common.render;
+
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Renderer that ignores every call. Used to measure the cost of the game without any drawing.
+ * @version $revision $
+ */
+public class NullRenderer implements IRenderer {
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y) {
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y, double width, double height) {
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+    }
+
+    @Override
+    public void setFont(Font font) {
+    }
+
+    @Override
+    public void save() {
+    }
+
+    @Override
+    public void restore() {
+    }
+
+    @Override
+    public void clipRect(double x, double y, double width, double height) {
+    }
+
+    @Override
+    public void setTransform(double mxx, double myx, double mxy, double myy, double mxt, double myt) {
+    }
+}
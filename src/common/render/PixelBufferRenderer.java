@@ -0,0 +1,602 @@
+package common.render;
+
+import common.Settings;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Software renderer drawing into an ARGB frame buffer held in memory.
+ * Calls are queued and rasterized on {@link #flush()}, optionally in horizontal bands spread over
+ * the available cores, then {@link #present(GraphicsContext)} uploads the whole buffer to the canvas
+ * as a single image. Meant for layers with thousands of sprites, where one canvas command per
+ * sprite is the bottleneck.
+ *
+ * Only scale and translation are taken from the transform, sprites are scaled with the nearest pixel,
+ * and text is drawn by the canvas on top of the buffer when it is presented.
+ * @version $revision $
+ */
+public class PixelBufferRenderer implements IRenderer {
+    private static final int MIN_BAND_HEIGHT = 32;
+    private static final int MIN_PARALLEL_OPERATIONS = 256;
+
+    private static final int OP_CLEAR = 0;
+    private static final int OP_FILL = 1;
+    private static final int OP_SPRITE = 2;
+    private static final int INTS_PER_OP = 9;
+    private static final int DOUBLES_PER_OP = 4;
+    private static final int DOUBLES_PER_STATE = 11;
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private final SpriteAtlas atlas;
+    private final int[] atlasPixels;
+    private final int atlasWidth;
+    private WritableImage image;
+    private boolean parallel = true;
+
+    // queued operations: type, color or source x, source y, source width, source height, x0, y0, x1, y1
+    private int[] opInts = new int[INTS_PER_OP * 256];
+    // destination of the sprites before clipping: x, y, width, height
+    private double[] opDoubles = new double[DOUBLES_PER_OP * 256];
+    private int opCount = 0;
+    private final List<QueuedText> texts = new ArrayList<>();
+
+    // current state
+    private int fill = 0xff000000;
+    private int stroke = 0xff000000;
+    private Paint fillPaint = Color.BLACK;
+    private Font font = Font.getDefault();
+    private double lineWidth = 1;
+    private double scaleX = 1;
+    private double scaleY = 1;
+    private double translateX = 0;
+    private double translateY = 0;
+    private int clipX0;
+    private int clipY0;
+    private int clipX1;
+    private int clipY1;
+    private double[] savedStates = new double[DOUBLES_PER_STATE * 4];
+    private Object[] savedObjects = new Object[2 * 4];
+    private int savedCount = 0;
+
+    /**
+     * Creates a buffer drawing the sprites of the default atlas
+     *
+     * @param width Width of the buffer in pixels
+     * @param height Height of the buffer in pixels
+     */
+    public PixelBufferRenderer(int width, int height) {
+        this(width, height, Settings.SPRITE_ATLAS);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param width Width of the buffer in pixels
+     * @param height Height of the buffer in pixels
+     * @param atlas Atlas holding the sprites
+     */
+    public PixelBufferRenderer(int width, int height, SpriteAtlas atlas) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+        this.atlas = atlas;
+        this.atlasWidth = (int) atlas.getImage().getWidth();
+
+        // blending is done with premultiplied alpha, convert the atlas once
+        int[] source = atlas.getPixels();
+        this.atlasPixels = new int[source.length];
+        for (int i = 0; i < source.length; i++) {
+            atlasPixels[i] = premultiply(source[i]);
+        }
+
+        this.clipX0 = 0;
+        this.clipY0 = 0;
+        this.clipX1 = width;
+        this.clipY1 = height;
+    }
+
+    /**
+     * Chooses whether big frames are rasterized on several cores
+     *
+     * @param parallel true to split the buffer in bands
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return Width of the buffer in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of the buffer in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets a pixel of the buffer. Queued calls are only visible after {@link #flush()}.
+     *
+     * @param x X position of the pixel
+     * @param y Y position of the pixel
+     * @return The pixel in premultiplied ARGB format
+     */
+    public int getPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    /**
+     * Rasterizes every queued call into the buffer
+     */
+    public void flush() {
+        int bands = Math.min(Runtime.getRuntime().availableProcessors(), height / MIN_BAND_HEIGHT);
+
+        if (parallel && bands > 1 && opCount >= MIN_PARALLEL_OPERATIONS) {
+            IntStream.range(0, bands).parallel().forEach(band ->
+                    rasterize(band * height / bands, (band + 1) * height / bands));
+        }
+        else {
+            rasterize(0, height);
+        }
+        opCount = 0;
+    }
+
+    /**
+     * Rasterizes the queued calls and draws the whole buffer at the top left corner of the canvas,
+     * with the queued text on top of it
+     *
+     * @param gc Graphics context of the canvas
+     */
+    public void present(GraphicsContext gc) {
+        flush();
+
+        if (image == null) {
+            image = new WritableImage(width, height);
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height,
+                PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+        gc.drawImage(image, 0, 0);
+
+        for (QueuedText text : texts) {
+            gc.save();
+            gc.setTransform(text.scaleX, 0, 0, text.scaleY, text.translateX, text.translateY);
+            gc.setFont(text.font);
+            gc.setFill(text.paint);
+            gc.fillText(text.text, text.x, text.y);
+            gc.restore();
+        }
+        texts.clear();
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y) {
+        AtlasRegion region = atlas.getRegion(sprite);
+        drawSprite(sprite, x, y, region.getWidth(), region.getHeight());
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y, double width, double height) {
+        AtlasRegion region = atlas.getRegion(sprite);
+
+        double dx = x * scaleX + translateX;
+        double dy = y * scaleY + translateY;
+        double dw = width * scaleX;
+        double dh = height * scaleY;
+
+        int op = queue(OP_SPRITE, dx, dy, dx + dw, dy + dh);
+        if (op < 0) {
+            return;
+        }
+
+        int i = op * INTS_PER_OP;
+        opInts[i + 1] = (int) region.getX();
+        opInts[i + 2] = (int) region.getY();
+        opInts[i + 3] = (int) region.getWidth();
+        opInts[i + 4] = (int) region.getHeight();
+
+        int d = op * DOUBLES_PER_OP;
+        opDoubles[d] = dx;
+        opDoubles[d + 1] = dy;
+        opDoubles[d + 2] = dw;
+        opDoubles[d + 3] = dh;
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+        queueRect(OP_FILL, fill, x, y, width, height);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+        // four filled rectangles centered on the edges, like a canvas stroke
+        double half = lineWidth / 2;
+        queueRect(OP_FILL, stroke, x - half, y - half, width + lineWidth, lineWidth);
+        queueRect(OP_FILL, stroke, x - half, y + height - half, width + lineWidth, lineWidth);
+        queueRect(OP_FILL, stroke, x - half, y + half, lineWidth, height - lineWidth);
+        queueRect(OP_FILL, stroke, x + width - half, y + half, lineWidth, height - lineWidth);
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+        queueRect(OP_CLEAR, 0, x, y, width, height);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        texts.add(new QueuedText(text, x, y, font, fillPaint, scaleX, scaleY, translateX, translateY));
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+        fillPaint = paint;
+        fill = toPremultipliedArgb(paint);
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+        stroke = toPremultipliedArgb(paint);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        lineWidth = width;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        this.font = font;
+    }
+
+    @Override
+    public void save() {
+        if ((savedCount + 1) * DOUBLES_PER_STATE > savedStates.length) {
+            savedStates = Arrays.copyOf(savedStates, savedStates.length * 2);
+            savedObjects = Arrays.copyOf(savedObjects, savedObjects.length * 2);
+        }
+
+        int i = savedCount * DOUBLES_PER_STATE;
+        savedStates[i] = fill;
+        savedStates[i + 1] = stroke;
+        savedStates[i + 2] = lineWidth;
+        savedStates[i + 3] = scaleX;
+        savedStates[i + 4] = scaleY;
+        savedStates[i + 5] = translateX;
+        savedStates[i + 6] = translateY;
+        savedStates[i + 7] = clipX0;
+        savedStates[i + 8] = clipY0;
+        savedStates[i + 9] = clipX1;
+        savedStates[i + 10] = clipY1;
+        savedObjects[savedCount * 2] = fillPaint;
+        savedObjects[savedCount * 2 + 1] = font;
+        savedCount++;
+    }
+
+    @Override
+    public void restore() {
+        if (savedCount == 0) {
+            return;
+        }
+        savedCount--;
+
+        int i = savedCount * DOUBLES_PER_STATE;
+        fill = (int) savedStates[i];
+        stroke = (int) savedStates[i + 1];
+        lineWidth = savedStates[i + 2];
+        scaleX = savedStates[i + 3];
+        scaleY = savedStates[i + 4];
+        translateX = savedStates[i + 5];
+        translateY = savedStates[i + 6];
+        clipX0 = (int) savedStates[i + 7];
+        clipY0 = (int) savedStates[i + 8];
+        clipX1 = (int) savedStates[i + 9];
+        clipY1 = (int) savedStates[i + 10];
+        fillPaint = (Paint) savedObjects[savedCount * 2];
+        font = (Font) savedObjects[savedCount * 2 + 1];
+    }
+
+    @Override
+    public void clipRect(double x, double y, double width, double height) {
+        double x0 = x * scaleX + translateX;
+        double y0 = y * scaleY + translateY;
+        double x1 = x0 + width * scaleX;
+        double y1 = y0 + height * scaleY;
+
+        clipX0 = Math.max(clipX0, toPixel(Math.min(x0, x1)));
+        clipY0 = Math.max(clipY0, toPixel(Math.min(y0, y1)));
+        clipX1 = Math.min(clipX1, toPixel(Math.max(x0, x1)));
+        clipY1 = Math.min(clipY1, toPixel(Math.max(y0, y1)));
+    }
+
+    @Override
+    public void setTransform(double mxx, double myx, double mxy, double myy, double mxt, double myt) {
+        scaleX = mxx;
+        scaleY = myy;
+        translateX = mxt;
+        translateY = myt;
+    }
+
+    /**
+     * Transforms and queues a rectangle
+     *
+     * @param type Kind of operation
+     * @param color Color of the operation, premultiplied
+     * @param x X position of the rectangle
+     * @param y Y position of the rectangle
+     * @param width Width of the rectangle
+     * @param height Height of the rectangle
+     */
+    private void queueRect(int type, int color, double x, double y, double width, double height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        double x0 = x * scaleX + translateX;
+        double y0 = y * scaleY + translateY;
+        double x1 = x0 + width * scaleX;
+        double y1 = y0 + height * scaleY;
+
+        int op = queue(type, Math.min(x0, x1), Math.min(y0, y1), Math.max(x0, x1), Math.max(y0, y1));
+        if (op >= 0) {
+            opInts[op * INTS_PER_OP + 1] = color;
+        }
+    }
+
+    /**
+     * Queues an operation covering the pixels whose center is inside a rectangle of the buffer
+     *
+     * @param type Kind of operation
+     * @param x0 Left side, in pixels
+     * @param y0 Top side, in pixels
+     * @param x1 Right side, in pixels
+     * @param y1 Bottom side, in pixels
+     * @return Returns the index of the operation, or -1 if it does not cover any visible pixel
+     */
+    private int queue(int type, double x0, double y0, double x1, double y1) {
+        int px0 = Math.max(clipX0, toPixel(x0));
+        int py0 = Math.max(clipY0, toPixel(y0));
+        int px1 = Math.min(clipX1, toPixel(x1));
+        int py1 = Math.min(clipY1, toPixel(y1));
+
+        if (px0 >= px1 || py0 >= py1) {
+            return -1;
+        }
+
+        if ((opCount + 1) * INTS_PER_OP > opInts.length) {
+            opInts = Arrays.copyOf(opInts, opInts.length * 2);
+            opDoubles = Arrays.copyOf(opDoubles, opDoubles.length * 2);
+        }
+
+        int i = opCount * INTS_PER_OP;
+        opInts[i] = type;
+        opInts[i + 5] = px0;
+        opInts[i + 6] = py0;
+        opInts[i + 7] = px1;
+        opInts[i + 8] = py1;
+
+        return opCount++;
+    }
+
+    /**
+     * Rasterizes every queued operation inside a band of rows
+     *
+     * @param bandY0 First row of the band
+     * @param bandY1 Row after the last one of the band
+     */
+    private void rasterize(int bandY0, int bandY1) {
+        for (int op = 0; op < opCount; op++) {
+            int i = op * INTS_PER_OP;
+            int y0 = Math.max(opInts[i + 6], bandY0);
+            int y1 = Math.min(opInts[i + 8], bandY1);
+            if (y0 >= y1) {
+                continue;
+            }
+
+            int x0 = opInts[i + 5];
+            int x1 = opInts[i + 7];
+
+            switch (opInts[i]) {
+                case OP_CLEAR:
+                    for (int y = y0; y < y1; y++) {
+                        Arrays.fill(pixels, y * width + x0, y * width + x1, 0);
+                    }
+                    break;
+                case OP_FILL:
+                    fill(opInts[i + 1], x0, y0, x1, y1);
+                    break;
+                case OP_SPRITE:
+                    blit(op, x0, y0, x1, y1);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Fills a rectangle of pixels with a color
+     *
+     * @param color Color, premultiplied
+     * @param x0 First column
+     * @param y0 First row
+     * @param x1 Column after the last one
+     * @param y1 Row after the last one
+     */
+    private void fill(int color, int x0, int y0, int x1, int y1) {
+        int alpha = color >>> 24;
+        if (alpha == 0) {
+            return;
+        }
+
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            if (alpha == 255) {
+                Arrays.fill(pixels, row + x0, row + x1, color);
+            }
+            else {
+                for (int x = x0; x < x1; x++) {
+                    pixels[row + x] = blend(color, pixels[row + x]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a queued sprite into a rectangle of pixels
+     *
+     * @param op Index of the operation
+     * @param x0 First column
+     * @param y0 First row
+     * @param x1 Column after the last one
+     * @param y1 Row after the last one
+     */
+    private void blit(int op, int x0, int y0, int x1, int y1) {
+        int i = op * INTS_PER_OP;
+        int srcX = opInts[i + 1];
+        int srcY = opInts[i + 2];
+        int srcWidth = opInts[i + 3];
+        int srcHeight = opInts[i + 4];
+
+        int d = op * DOUBLES_PER_OP;
+        double destX = opDoubles[d];
+        double destY = opDoubles[d + 1];
+        double stepX = srcWidth / opDoubles[d + 2];
+        double stepY = srcHeight / opDoubles[d + 3];
+
+        for (int y = y0; y < y1; y++) {
+            int sy = srcY + Math.min(srcHeight - 1, (int) ((y + 0.5 - destY) * stepY));
+            int srcRow = sy * atlasWidth;
+            int row = y * width;
+
+            for (int x = x0; x < x1; x++) {
+                int sx = srcX + Math.min(srcWidth - 1, (int) ((x + 0.5 - destX) * stepX));
+                int src = atlasPixels[srcRow + sx];
+                int alpha = src >>> 24;
+
+                if (alpha == 255) {
+                    pixels[row + x] = src;
+                }
+                else if (alpha != 0) {
+                    pixels[row + x] = blend(src, pixels[row + x]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a coordinate of the buffer into the index of the first pixel whose center is after it
+     *
+     * @param coordinate Coordinate in pixels
+     * @return Returns the pixel index
+     */
+    private static int toPixel(double coordinate) {
+        return (int) Math.ceil(coordinate - 0.5);
+    }
+
+    /**
+     * Draws a premultiplied color over another one
+     *
+     * @param src Color on top
+     * @param dst Color below
+     * @return Returns the resulting color
+     */
+    private static int blend(int src, int dst) {
+        int inverse = 255 - (src >>> 24);
+        int a = (src >>> 24) + multiply(dst >>> 24, inverse);
+        int r = ((src >> 16) & 0xff) + multiply((dst >> 16) & 0xff, inverse);
+        int g = ((src >> 8) & 0xff) + multiply((dst >> 8) & 0xff, inverse);
+        int b = (src & 0xff) + multiply(dst & 0xff, inverse);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Multiplies two values in the range 0 to 255, rounding the result
+     *
+     * @param value First value
+     * @param factor Second value
+     * @return Returns value * factor / 255
+     */
+    private static int multiply(int value, int factor) {
+        int t = value * factor + 128;
+        return (t + (t >> 8)) >> 8;
+    }
+
+    /**
+     * Converts an ARGB color into premultiplied ARGB
+     *
+     * @param argb Color to convert
+     * @return Returns the premultiplied color
+     */
+    private static int premultiply(int argb) {
+        int alpha = argb >>> 24;
+        if (alpha == 255) {
+            return argb;
+        }
+        if (alpha == 0) {
+            return 0;
+        }
+        return (alpha << 24) |
+                (multiply((argb >> 16) & 0xff, alpha) << 16) |
+                (multiply((argb >> 8) & 0xff, alpha) << 8) |
+                multiply(argb & 0xff, alpha);
+    }
+
+    /**
+     * Converts a paint into premultiplied ARGB. Only plain colors are supported, anything else is black.
+     *
+     * @param paint Paint to convert
+     * @return Returns the premultiplied color
+     */
+    private static int toPremultipliedArgb(Paint paint) {
+        if (!(paint instanceof Color)) {
+            return 0xff000000;
+        }
+
+        Color color = (Color) paint;
+        int argb = ((int) Math.round(color.getOpacity() * 255) << 24) |
+                ((int) Math.round(color.getRed() * 255) << 16) |
+                ((int) Math.round(color.getGreen() * 255) << 8) |
+                (int) Math.round(color.getBlue() * 255);
+        return premultiply(argb);
+    }
+
+    /**
+     * Text waiting to be drawn on the canvas when the buffer is presented
+     */
+    private static class QueuedText {
+        private final String text;
+        private final double x;
+        private final double y;
+        private final Font font;
+        private final Paint paint;
+        private final double scaleX;
+        private final double scaleY;
+        private final double translateX;
+        private final double translateY;
+
+        QueuedText(String text, double x, double y, Font font, Paint paint,
+                   double scaleX, double scaleY, double translateX, double translateY) {
+            this.text = text;
+            this.x = x;
+            this.y = y;
+            this.font = font;
+            this.paint = paint;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.translateX = translateX;
+            this.translateY = translateY;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package common.render;
+
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Renderer that counts every call, and optionally records it, before passing it on to another renderer.
+ * Used to benchmark the draw pipeline without a screen: number of calls per kind,
+ * state changes and state changes that set the value already in use.
+ * @version $revision $
+ */
+public class RecordingRenderer implements IRenderer {
+    private final IRenderer target;
+    private final boolean recordCommands;
+    private final List<RenderCommand> commands = new ArrayList<>();
+    private final int[] counts = new int[RenderCommandType.values().length];
+    private int stateChanges = 0;
+    private int redundantStateChanges = 0;
+
+    // current state, saved and restored along with the target
+    private Paint fill;
+    private Paint stroke;
+    private Font font;
+    private double lineWidth = 1;
+    private final Deque<Object[]> savedStates = new ArrayDeque<>();
+
+    /**
+     * Creates a renderer that records every call and draws nothing
+     */
+    public RecordingRenderer() {
+        this(new NullRenderer(), true);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param target Renderer that receives the calls
+     * @param recordCommands true to keep a copy of every call, false to only count them
+     */
+    public RecordingRenderer(IRenderer target, boolean recordCommands) {
+        this.target = target;
+        this.recordCommands = recordCommands;
+    }
+
+    /**
+     * Forgets every call counted so far. The current state is kept.
+     */
+    public void reset() {
+        commands.clear();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        stateChanges = 0;
+        redundantStateChanges = 0;
+    }
+
+    /**
+     * @return The recorded calls, empty if the renderer only counts
+     */
+    public List<RenderCommand> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * @param type Kind of call
+     * @return Number of calls of that kind
+     */
+    public int getCount(RenderCommandType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * @return Number of calls of every kind
+     */
+    public int getTotalCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return Number of calls that changed a paint, the font or the line width
+     */
+    public int getStateChangeCount() {
+        return stateChanges;
+    }
+
+    /**
+     * @return Number of state changes that set the value already in use
+     */
+    public int getRedundantStateChangeCount() {
+        return redundantStateChanges;
+    }
+
+    /**
+     * Counts a call
+     *
+     * @param type Kind of call
+     * @return Returns true if the call has to be recorded too
+     */
+    private boolean count(RenderCommandType type) {
+        counts[type.ordinal()]++;
+        return recordCommands;
+    }
+
+    /**
+     * Counts a state change
+     *
+     * @param redundant true if the new value is the one already in use
+     */
+    private void countStateChange(boolean redundant) {
+        stateChanges++;
+        if (redundant) {
+            redundantStateChanges++;
+        }
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y) {
+        if (count(RenderCommandType.DRAW_SPRITE)) {
+            commands.add(new RenderCommand(RenderCommandType.DRAW_SPRITE, sprite, x, y));
+        }
+        target.drawSprite(sprite, x, y);
+    }
+
+    @Override
+    public void drawSprite(AtlasSprite sprite, double x, double y, double width, double height) {
+        if (count(RenderCommandType.DRAW_SPRITE)) {
+            commands.add(new RenderCommand(RenderCommandType.DRAW_SPRITE, sprite, x, y, width, height));
+        }
+        target.drawSprite(sprite, x, y, width, height);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height) {
+        if (count(RenderCommandType.FILL_RECT)) {
+            commands.add(new RenderCommand(RenderCommandType.FILL_RECT, null, x, y, width, height));
+        }
+        target.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double width, double height) {
+        if (count(RenderCommandType.STROKE_RECT)) {
+            commands.add(new RenderCommand(RenderCommandType.STROKE_RECT, null, x, y, width, height));
+        }
+        target.strokeRect(x, y, width, height);
+    }
+
+    @Override
+    public void clearRect(double x, double y, double width, double height) {
+        if (count(RenderCommandType.CLEAR_RECT)) {
+            commands.add(new RenderCommand(RenderCommandType.CLEAR_RECT, null, x, y, width, height));
+        }
+        target.clearRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        if (count(RenderCommandType.FILL_TEXT)) {
+            commands.add(new RenderCommand(RenderCommandType.FILL_TEXT, text, x, y));
+        }
+        target.fillText(text, x, y);
+    }
+
+    @Override
+    public void setFill(Paint paint) {
+        if (count(RenderCommandType.SET_FILL)) {
+            commands.add(new RenderCommand(RenderCommandType.SET_FILL, paint));
+        }
+        countStateChange(Objects.equals(fill, paint));
+        fill = paint;
+        target.setFill(paint);
+    }
+
+    @Override
+    public void setStroke(Paint paint) {
+        if (count(RenderCommandType.SET_STROKE)) {
+            commands.add(new RenderCommand(RenderCommandType.SET_STROKE, paint));
+        }
+        countStateChange(Objects.equals(stroke, paint));
+        stroke = paint;
+        target.setStroke(paint);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        if (count(RenderCommandType.SET_LINE_WIDTH)) {
+            commands.add(new RenderCommand(RenderCommandType.SET_LINE_WIDTH, null, width));
+        }
+        countStateChange(lineWidth == width);
+        lineWidth = width;
+        target.setLineWidth(width);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (count(RenderCommandType.SET_FONT)) {
+            commands.add(new RenderCommand(RenderCommandType.SET_FONT, font));
+        }
+        countStateChange(Objects.equals(this.font, font));
+        this.font = font;
+        target.setFont(font);
+    }
+
+    @Override
+    public void save() {
+        if (count(RenderCommandType.SAVE)) {
+            commands.add(new RenderCommand(RenderCommandType.SAVE, null));
+        }
+        savedStates.push(new Object[] { fill, stroke, font, lineWidth });
+        target.save();
+    }
+
+    @Override
+    public void restore() {
+        if (count(RenderCommandType.RESTORE)) {
+            commands.add(new RenderCommand(RenderCommandType.RESTORE, null));
+        }
+        Object[] state = savedStates.poll();
+        if (state != null) {
+            fill = (Paint) state[0];
+            stroke = (Paint) state[1];
+            font = (Font) state[2];
+            lineWidth = (Double) state[3];
+        }
+        target.restore();
+    }
+
+    @Override
+    public void clipRect(double x, double y, double width, double height) {
+        if (count(RenderCommandType.CLIP_RECT)) {
+            commands.add(new RenderCommand(RenderCommandType.CLIP_RECT, null, x, y, width, height));
+        }
+        target.clipRect(x, y, width, height);
+    }
+
+    @Override
+    public void setTransform(double mxx, double myx, double mxy, double myy, double mxt, double myt) {
+        if (count(RenderCommandType.SET_TRANSFORM)) {
+            commands.add(new RenderCommand(RenderCommandType.SET_TRANSFORM, null, mxx, myx, mxy, myy, mxt, myt));
+        }
+        target.setTransform(mxx, myx, mxy, myy, mxt, myt);
+    }
+}
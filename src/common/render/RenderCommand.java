@@ -0,0 +1,63 @@
+package common.render;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of one call made to a {@link RecordingRenderer}
+ */
+public final class RenderCommand {
+    private final RenderCommandType type;
+    private final Object value;
+    private final double[] arguments;
+
+    /**
+     * Default constructor
+     *
+     * @param type Kind of call
+     * @param value Sprite, text, paint or font passed to the call, null if there is none
+     * @param arguments Numeric arguments of the call
+     */
+    public RenderCommand(RenderCommandType type, Object value, double... arguments) {
+        this.type = type;
+        this.value = value;
+        this.arguments = arguments;
+    }
+
+    /**
+     * @return Kind of call
+     */
+    public RenderCommandType getType() {
+        return type;
+    }
+
+    /**
+     * @return Sprite, text, paint or font passed to the call, null if there is none
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @param index Position of the argument
+     * @return Numeric argument of the call
+     */
+    public double getArgument(int index) {
+        return arguments[index];
+    }
+
+    /**
+     * @return Number of numeric arguments
+     */
+    public int getArgumentCount() {
+        return arguments.length;
+    }
+
+    /**
+     * Printer friendly values of the command
+     * @return The printer friendly string
+     */
+    @Override
+    public String toString() {
+        return type + (value != null ? " " + value : "") + " " + Arrays.toString(arguments);
+    }
+}
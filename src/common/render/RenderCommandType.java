@@ -0,0 +1,29 @@
+package common.render;
+
+/**
+ * Kind of the calls made to a {@link IRenderer}
+ */
+public enum RenderCommandType {
+    DRAW_SPRITE,
+    FILL_RECT,
+    STROKE_RECT,
+    CLEAR_RECT,
+    FILL_TEXT,
+    SET_FILL,
+    SET_STROKE,
+    SET_LINE_WIDTH,
+    SET_FONT,
+    SAVE,
+    RESTORE,
+    CLIP_RECT,
+    SET_TRANSFORM;
+
+    /**
+     * Check whether the call changes the state of the renderer instead of drawing
+     *
+     * @return Returns true for paints, font and line width
+     */
+    public boolean isStateChange() {
+        return this == SET_FILL || this == SET_STROKE || this == SET_LINE_WIDTH || this == SET_FONT;
+    }
+}
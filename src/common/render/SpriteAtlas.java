@@ -0,0 +1,161 @@
+package common.render;
+
+import common.Settings;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.apache.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Single image holding every {@link AtlasSprite}, packed once at startup.
+ * Every sprite gets a precomputed {@link AtlasRegion}, so drawing is always the same
+ * drawImage(atlas, source, destination) call, whatever the sprite is. See {@link FxRenderer}.
+ * @version $revision $
+ */
+public class SpriteAtlas {
+    private static final int PADDING = 1;
+    private static final int MIN_WIDTH = 256;
+    private static final Logger LOGGER = Logger.getLogger(SpriteAtlas.class);
+
+    private final Image image;
+    private final int[] pixels;
+    private final AtlasRegion[] regions;
+
+    /**
+     * Default constructor
+     *
+     * @param image Packed image
+     * @param pixels Pixels of the packed image, in ARGB format
+     * @param regions Region of every sprite, indexed by ordinal
+     */
+    private SpriteAtlas(Image image, int[] pixels, AtlasRegion[] regions) {
+        this.image = image;
+        this.pixels = pixels;
+        this.regions = regions;
+    }
+
+    /**
+     * Packs every {@link AtlasSprite} into a new atlas, placing them in shelves sorted by height
+     *
+     * @return Returns the atlas
+     */
+    public static SpriteAtlas build() {
+        AtlasSprite[] sprites = AtlasSprite.values();
+        int[] widths = new int[sprites.length];
+        int[] heights = new int[sprites.length];
+
+        int atlasWidth = MIN_WIDTH;
+        for (AtlasSprite sprite : sprites) {
+            Image source = sourceImageOf(sprite);
+            int i = sprite.ordinal();
+            widths[i] = sprite.getSourceWidth() < 0 ? (int) source.getWidth() : sprite.getSourceWidth();
+            heights[i] = sprite.getSourceHeight() < 0 ? (int) source.getHeight() : sprite.getSourceHeight();
+            atlasWidth = Math.max(atlasWidth, widths[i] + 2 * PADDING);
+        }
+
+        AtlasSprite[] byHeight = Arrays.copyOf(sprites, sprites.length);
+        Arrays.sort(byHeight, Comparator.comparingInt((AtlasSprite s) -> heights[s.ordinal()]).reversed());
+
+        // shelf packing
+        int[] xs = new int[sprites.length];
+        int[] ys = new int[sprites.length];
+        int x = PADDING;
+        int y = PADDING;
+        int shelfHeight = 0;
+        for (AtlasSprite sprite : byHeight) {
+            int i = sprite.ordinal();
+            if (x + widths[i] + PADDING > atlasWidth) {
+                x = PADDING;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            xs[i] = x;
+            ys[i] = y;
+            x += widths[i] + PADDING;
+            shelfHeight = Math.max(shelfHeight, heights[i]);
+        }
+        int atlasHeight = y + shelfHeight + PADDING;
+
+        int[] pixels = new int[atlasWidth * atlasHeight];
+        AtlasRegion[] regions = new AtlasRegion[sprites.length];
+        for (AtlasSprite sprite : sprites) {
+            int i = sprite.ordinal();
+            sourceImageOf(sprite).getPixelReader().getPixels(sprite.getSourceX(), sprite.getSourceY(),
+                    widths[i], heights[i], PixelFormat.getIntArgbInstance(),
+                    pixels, ys[i] * atlasWidth + xs[i], atlasWidth);
+            regions[i] = new AtlasRegion(xs[i], ys[i], widths[i], heights[i]);
+        }
+
+        WritableImage image = new WritableImage(atlasWidth, atlasHeight);
+        image.getPixelWriter().setPixels(0, 0, atlasWidth, atlasHeight,
+                PixelFormat.getIntArgbInstance(), pixels, 0, atlasWidth);
+
+        LOGGER.info("Packed " + sprites.length + " sprites into a " + atlasWidth + "x" + atlasHeight + " atlas");
+        return new SpriteAtlas(image, pixels, regions);
+    }
+
+    /**
+     * Method that translates from AtlasSprite to its source Image
+     *
+     * @param sprite Sprite to translate
+     * @return Image the sprite is copied from
+     */
+    private static Image sourceImageOf(AtlasSprite sprite) {
+        switch (sprite) {
+            case TOWER_ARROW:
+                return Settings.TOWERARROW_TILE_IMAGE;
+            case TOWER_FROST:
+                return Settings.TOWERFROST_TILE_IMAGE;
+            case TOWER_SIEGE:
+                return Settings.TOWERSIEGE_TILE_IMAGE;
+            case CRITTER:
+                return Settings.CRITTER_TILE_IMAGE_1;
+            case NO_MONEY:
+                return Settings.NOMONEY_TILE_IMAGE;
+            case BUTTON_SELL:
+                return Settings.SELLBUTTON_TILE_IMAGE;
+            case BUTTON_UPGRADE:
+                return Settings.UPGRADEBUTTON_TILE_IMAGE;
+            case BUTTON_LEFT_ARROW:
+                return Settings.LEFTBUTTON_TILE_IMAGE;
+            case BUTTON_RIGHT_ARROW:
+                return Settings.RIGHTBUTTON_TILE_IMAGE;
+            case BUTTON_NEW_WAVE:
+                return Settings.NEWWAVEBUTTON_TILE_IMAGE;
+            default:
+                return Settings.BACKGROUND_TILE_IMAGE;
+        }
+    }
+
+    /**
+     * Gets the packed image
+     *
+     * @return The atlas image
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the pixels of the packed image, row after row, in ARGB format.
+     * The array is shared and must not be modified.
+     *
+     * @return The atlas pixels
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Gets the region of a sprite inside the atlas
+     *
+     * @param sprite Sprite to look for
+     * @return The precomputed region
+     */
+    public AtlasRegion getRegion(AtlasSprite sprite) {
+        return regions[sprite.ordinal()];
+    }
+}
@@ -3,7 +3,8 @@ package game;
 import common.Settings;
 import common.core.ImageSprite;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 import javafx.scene.image.Image;
 import org.apache.log4j.Logger;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
@@ -13,6 +14,7 @@ import sun.reflect.generics.reflectiveObjects.NotImplementedException;
  */
 public class Button extends ImageSprite {
     public ButtonType buttonType;
+    private AtlasSprite atlasSprite;
     private boolean isEnabled;
     private static final Logger LOGGER = Logger.getLogger(Button.class);
 
@@ -26,6 +28,7 @@ public class Button extends ImageSprite {
     public Button(ButtonType buttonType, Vector2 position) {
         this(imageFrom(buttonType), position);
         this.buttonType = buttonType;
+        this.atlasSprite = atlasSpriteFrom(buttonType);
     }
 
 
@@ -72,15 +75,38 @@ public class Button extends ImageSprite {
         return buttonImage;
     }
 
+    /**
+     * Method that translates from ButtonType to its sprite in the atlas
+     *
+     * @param buttonType Button type to be converted
+     * @return The sprite of the button
+     */
+    private static AtlasSprite atlasSpriteFrom(ButtonType buttonType) {
+        switch (buttonType) {
+            case SELL:
+                return AtlasSprite.BUTTON_SELL;
+            case UPGRADE:
+                return AtlasSprite.BUTTON_UPGRADE;
+            case LEFTARROW:
+                return AtlasSprite.BUTTON_LEFT_ARROW;
+            case RIGHTARROW:
+                return AtlasSprite.BUTTON_RIGHT_ARROW;
+            case NEWWAVE:
+                return AtlasSprite.BUTTON_NEW_WAVE;
+            default:
+                throw new NotImplementedException();
+        }
+    }
+
     /**
      * Method to draw button on side bar
      *
-     * @param gc The {@link javafx.scene.canvas.GraphicsContext} to use. All graphics will be placed here
+     * @param renderer The {@link common.render.IRenderer} to use. All graphics will be placed here
      */
     @Override
-    public void draw(GraphicsContext gc) {
+    public void draw(IRenderer renderer) {
         if(isEnabled())
-        gc.drawImage(this.getImage(), getPosition().getX(), getPosition().getY());
+        renderer.drawSprite(atlasSprite, getPosition().getX(), getPosition().getY());
     }
     /**
     * {@inheritDoc}
@@ -4,9 +4,12 @@ import common.Settings;
 import common.SpriteType;
 import common.Tile;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.AtlasSprite;
+import common.logging.GameLogger;
+import common.logging.LogSampler;
+import common.render.IRenderer;
 import javafx.scene.image.Image;
-import org.apache.log4j.Logger;
+import org.apache.log4j.Level;
 
 /**
  * Class that represents a critter in the game.
@@ -23,7 +26,9 @@ public class Critter extends Tile {
 
     private Tile nextPathTile;
     private CritterHealthBar healthBar;
-    private static final Logger LOGGER = Logger.getLogger(Critter.class);
+    private static final GameLogger LOGGER = GameLogger.getLogger(Critter.class);
+    private static final LogSampler HEALTH_SAMPLER =
+            new LogSampler(LOGGER, Level.INFO, "critter health changes", 100, 1000);
 
     /**
      * Default Constructor
@@ -33,7 +38,9 @@ public class Critter extends Tile {
      */
     public Critter(Vector2 position, CritterType critterType) {
         super(imageFrom(critterType), position);
-        LOGGER.info(getUniqueId() + ": Instantiating");
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info(getUniqueId() + ": Instantiating");
+        }
         this.critterType = critterType;
         healthBar = new CritterHealthBar(position, healthPoints,this);
     }
@@ -71,12 +78,20 @@ public class Critter extends Tile {
     /**
      * Method that translates from CritterType to Image
      *
-     * @param gc The {@link javafx.scene.canvas.GraphicsContext} to use. All graphics will be placed here
+     * @param renderer The {@link common.render.IRenderer} to use. All graphics will be placed here
+     */
+    @Override
+    public void draw(IRenderer renderer) {
+        renderer.drawSprite(AtlasSprite.CRITTER, getPosition().getX(), getPosition().getY());
+        healthBar.draw(renderer);
+    }
+
+    /**
+     * {@inheritDoc}
      */
     @Override
-    public void draw(GraphicsContext gc) {
-        gc.drawImage(this.getImage(), getPosition().getX(), getPosition().getY());
-        healthBar.draw(gc);
+    public AtlasSprite getAtlasSprite() {
+        return AtlasSprite.CRITTER;
     }
 
     /**
@@ -88,6 +103,15 @@ public class Critter extends Tile {
         return healthPoints;
     }
 
+    /**
+     * returns the health points the critter was spawned with
+     *
+     * @return maximum healthPoints
+     */
+    public float getMaxHealthPoints() {
+        return (float) healthBar.getMaxHealthPoints();
+    }
+
     /**
      * Sets the value of the current Health Points
      *
@@ -95,7 +119,9 @@ public class Critter extends Tile {
      */
     public void setHealthPoints(float healthPoints) {
         if (this.healthPoints != healthPoints) {
-            LOGGER.info(getUniqueId() + ": reducing hp from " + this.healthPoints + " to " + healthPoints);
+            if (HEALTH_SAMPLER.sample()) {
+                LOGGER.info(getUniqueId() + ": reducing hp from " + this.healthPoints + " to " + healthPoints);
+            }
             this.healthPoints = healthPoints;
             this.healthBar.updateHealthPoints(healthPoints);
         }
@@ -166,11 +192,13 @@ public class Critter extends Tile {
      * @param damagePerSecondDuration the new value for the damage per second
      */
     public void setDamagePerSecondDuration(float damagePerSecondDuration) {
-        if(damagePerSecondDuration > 0){
-            LOGGER.info(getUniqueId() + ": initiating damage per second for: " + damagePerSecondDuration);
-        }
-        else{
-            LOGGER.info(getUniqueId() + ": finished damaging per second");
+        if (LOGGER.isInfoEnabled()) {
+            if(damagePerSecondDuration > 0){
+                LOGGER.info(getUniqueId() + ": initiating damage per second for: " + damagePerSecondDuration);
+            }
+            else{
+                LOGGER.info(getUniqueId() + ": finished damaging per second");
+            }
         }
         this.damagePerSecondDuration = damagePerSecondDuration;
     }
@@ -188,10 +216,12 @@ public class Critter extends Tile {
      * @param frozenDuration the new value
      */
     public void setFrozenDuration(float frozenDuration) {
-        if (frozenDuration == 0 && this.frozenDuration > 0) {
-            LOGGER.info(getUniqueId() + " is not frozen anymore");
-        } else if(frozenDuration >= 0 && this.frozenDuration == 0) {
-            LOGGER.info(getUniqueId() + " is frozen for " + frozenDuration);
+        if (LOGGER.isInfoEnabled()) {
+            if (frozenDuration == 0 && this.frozenDuration > 0) {
+                LOGGER.info(getUniqueId() + " is not frozen anymore");
+            } else if(frozenDuration >= 0 && this.frozenDuration == 0) {
+                LOGGER.info(getUniqueId() + " is frozen for " + frozenDuration);
+            }
         }
         this.frozenDuration = frozenDuration;
     }
@@ -1,25 +1,28 @@
 package game;
 
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.IRenderer;
+import common.logging.GameLogger;
 import javafx.scene.paint.Color;
-import org.apache.log4j.Logger;
 
 /**
- * Health bar for a critter
+ * Health bar for a critter.
+ * The color of the bar is looked up in a table built once, at draw time.
  */
 public class CritterHealthBar {
-    private final double width = 28;
-    private final double height = 5;
+    private static final int COLOR_TABLE_RESOLUTION = 256;
+    private static final Color[] COLOR_TABLE = createColorTable();
+
+    private static final double WIDTH = 28;
+    private static final double HEIGHT = 5;
 
     private Vector2 position;
     private double maxHealthPoints;
     private double healthPoints;
 
-    private Color healthColor;
     private final Critter critterToObserve;
 
-    private static final Logger LOGGER = Logger.getLogger(CritterHealthBar.class);
+    private static final GameLogger LOGGER = GameLogger.getLogger(CritterHealthBar.class);
     /**
      * Default constructor
      *
@@ -27,59 +30,97 @@ public class CritterHealthBar {
      * @param healthPoints Health point of the critter
      */
     public CritterHealthBar(Vector2 position, float healthPoints, Critter critterToObserve) {
-        LOGGER.info("Instantiating. Critter to Observe: " + critterToObserve.getUniqueId());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Instantiating. Critter to Observe: " + critterToObserve.getUniqueId());
+        }
         this.critterToObserve = critterToObserve;
         this.position = position;
         this.maxHealthPoints = healthPoints;
         this.healthPoints = healthPoints;
-
-        this.healthColor = getBlendedColor();
     }
 
     /**
      * Draw the health bar into the canvas
      *
-     * @param gc Graphics context of the canvas
+     * @param renderer Renderer to draw on
+     */
+    public void draw(IRenderer renderer) {
+        draw(renderer, position.getX(), position.getY(), healthPoints / maxHealthPoints);
+    }
+
+    /**
+     * Draw a health bar above a critter sprite. Also used for the bar of a group of critters.
+     *
+     * @param renderer Renderer to draw on
+     * @param x Horizontal position of the critter sprite
+     * @param y Vertical position of the critter sprite
+     * @param fraction Health left, between 0 and 1
      */
-    public void draw(GraphicsContext gc) {
-        double x = position.getX() + ((32 - width) / 2);
-        double y = position.getY() - 10;
+    public static void draw(IRenderer renderer, double x, double y, double fraction) {
+        double barX = x + ((32 - WIDTH) / 2);
+        double barY = y - 10;
 
-        gc.setStroke(Color.GREEN);
-        gc.strokeRect(x, y, width, height);
+        renderer.setStroke(Color.GREEN);
+        renderer.strokeRect(barX, barY, WIDTH, HEIGHT);
 
-        double w = (healthPoints * width) / maxHealthPoints;
+        renderer.setFill(lookupColor(fraction));
+        renderer.fillRect(barX, barY, fraction * WIDTH, HEIGHT);
+    }
 
-        gc.setFill(healthColor);
-        gc.fillRect(x, y, w, height);
+    /**
+     * Get the health points the bar starts with
+     *
+     * @return Returns the maximum health points
+     */
+    public double getMaxHealthPoints() {
+        return maxHealthPoints;
     }
 
+    /**
+     * Updates the health points shown by the bar. The color is resolved when the bar is drawn.
+     *
+     * @param value New health points of the critter
+     */
     public void updateHealthPoints(double value) {
-        if (this.healthPoints != value) {
-            this.healthPoints = value;
-            this.healthColor = getBlendedColor();
-        }
+        this.healthPoints = value;
     }
 
     /**
      * Get the blended color from red to green
      *
+     * @param value Value range between 0 to 1
      * @return Returns the color
      */
-    private Color getBlendedColor() {
-        double value = healthPoints / maxHealthPoints;
-        return getBlendedColor(value);
+    public Color getBlendedColor(double value) {
+        return lookupColor(value);
     }
 
     /**
-     * Get the blended color from red to green
+     * Looks the blended color up in the table
      *
      * @param value Value range between 0 to 1
      * @return Returns the color
      */
-    public Color getBlendedColor(double value) {
-        java.awt.Color color = new java.awt.Color(
-                java.awt.Color.HSBtoRGB((float)value/3f, 1f, 1f));
-        return Color.rgb(color.getRed(), color.getGreen(), color.getBlue());
+    private static Color lookupColor(double value) {
+        if (!(value > 0)) {
+            return COLOR_TABLE[0];
+        }
+        if (value >= 1) {
+            return COLOR_TABLE[COLOR_TABLE_RESOLUTION];
+        }
+        return COLOR_TABLE[(int) Math.round(value * COLOR_TABLE_RESOLUTION)];
+    }
+
+    /**
+     * Builds the table of colors blended from red (hue 0) to green (hue 120)
+     *
+     * @return The table, indexed by the health fraction times the resolution
+     */
+    private static Color[] createColorTable() {
+        Color[] table = new Color[COLOR_TABLE_RESOLUTION + 1];
+        for (int i = 0; i <= COLOR_TABLE_RESOLUTION; i++) {
+            table[i] = Color.hsb(120.0 * i / COLOR_TABLE_RESOLUTION, 1, 1);
+        }
+        return table;
     }
 }
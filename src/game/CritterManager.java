@@ -4,14 +4,24 @@ import common.Settings;
 import common.Tile;
 import common.core.Rect;
 import common.core.Vector2;
+import common.diagnostics.WaveEvent;
+import common.logging.GameLogger;
+import common.logging.LogSampler;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 import game.pathlogic.PathFinder;
 import game.towerlogic.Tower;
-import javafx.scene.canvas.GraphicsContext;
-import org.apache.log4j.Logger;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import org.apache.log4j.Level;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Manager class for the critters.
@@ -26,7 +36,23 @@ public class CritterManager {
     int maxCrittersPassed = 10;
 
     private int rewards = 0;
-    private static final Logger LOGGER = Logger.getLogger(GameManager.class);
+    private WaveEvent waveEvent;
+    private long spatialQueryCount = 0;
+    private Random random = new Random();
+
+    // spatial hash of the critters, one bucket per tile, rebuilt after every move
+    private ArrayList<Critter>[] buckets;
+    private int[] usedBuckets = new int[64];
+    private int usedBucketCount = 0;
+    // critters waiting to enter, close enough to the map to stick into it; never part of a group
+    private final ArrayList<Critter> borderCritters = new ArrayList<>();
+
+    private static final Font BADGE_FONT = Font.font(Settings.FONT_NAME, FontWeight.BOLD, 10);
+    private static final Color BADGE_COLOR = Color.rgb(0, 0, 0, 0.7);
+
+    private static final GameLogger LOGGER = GameLogger.getLogger(CritterManager.class);
+    private static final LogSampler SLOWED_SAMPLER =
+            new LogSampler(LOGGER, Level.INFO, "slowed critter moves", 100, 1000);
 
 
     /**
@@ -40,10 +66,22 @@ public class CritterManager {
 
         this.rows = pathFinder.rows;
         this.columns = pathFinder.columns;
+        this.buckets = createBuckets(rows * columns);
 
         exitPointTile = pathList.getLast();
     }
 
+    /**
+     * Creates the empty array of buckets
+     *
+     * @param size Number of buckets
+     * @return Returns the array of buckets
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Critter>[] createBuckets(int size) {
+        return new ArrayList[size];
+    }
+
     /**
      * Set critter list
      *
@@ -51,6 +89,34 @@ public class CritterManager {
      */
     public void setCritterList(ArrayList<Critter> critterList) {
         critters = critterList;
+        rebuildBuckets();
+    }
+
+    /**
+     * Get the critters alive in the current wave, in the order they are updated
+     *
+     * @return Returns a read only view of the critters
+     */
+    public List<Critter> getCritterList() {
+        return Collections.unmodifiableList(critters);
+    }
+
+    /**
+     * Get the number of critters alive in the current wave
+     *
+     * @return Returns the number of critters
+     */
+    public int getCritterCount() {
+        return critters.size();
+    }
+
+    /**
+     * Get the number of range and splash queries run since the manager was created
+     *
+     * @return Returns the number of queries
+     */
+    public long getSpatialQueryCount() {
+        return spatialQueryCount;
     }
 
     /**
@@ -59,6 +125,7 @@ public class CritterManager {
      * @return Returns the list of Critters
      */
     public ArrayList<Critter> getShootableCritters(Tower tower) {
+        spatialQueryCount++;
         ArrayList<Critter> results = new ArrayList<>();
 
         for (Critter critter : critters) {
@@ -75,6 +142,7 @@ public class CritterManager {
      * @return Returns the list of critters.
      */
     public ArrayList<Critter> getCritterNeighbours(Tower tower, ArrayList<Critter> critters, Critter selCritter) {
+        spatialQueryCount++;
         ArrayList<Critter> results = new ArrayList<>();
 
         // calculate critter's center position
@@ -115,16 +183,63 @@ public class CritterManager {
      * Method for starting the wave
      */
     public void startWave() {
+        startWave(nextWaveSize());
+    }
+
+    /**
+     * Starts a wave of a given size
+     *
+     * @param critterCount Number of critters to spawn
+     */
+    public void startWave(int critterCount) {
         LOGGER.debug("starting the wave");
         critters.clear();
         crittersPassed = 0;
 
+        LOGGER.info(critterCount + " number of critters spawned");
+        waveEvent = new WaveEvent();
+        waveEvent.begin();
+        waveEvent.crittersSpawned = critterCount;
+        spawnCritters(critterCount);
+        rebuildBuckets();
+    }
+
+    /**
+     * Picks the number of critters of the next wave
+     *
+     * @return Returns a number between 30 and 50
+     */
+    public int nextWaveSize() {
         int min = 30;
         int max = 50;
-        int randomNum = ThreadLocalRandom.current().nextInt((max - min) + 1) + min;
+        return random.nextInt((max - min) + 1) + min;
+    }
 
-        LOGGER.info(randomNum + " number of critters spawned");
-        spawnCritters(randomNum);
+    /**
+     * Sets the source of randomness of the waves, a seeded one makes the waves reproducible
+     *
+     * @param random Source of randomness
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Method for ending the wave, reports it to the Flight Recorder
+     *
+     * @param level Level of the wave
+     */
+    public void endWave(int level) {
+        if (waveEvent == null) {
+            return;
+        }
+        waveEvent.end();
+        if (waveEvent.shouldCommit()) {
+            waveEvent.level = level;
+            waveEvent.crittersPassed = crittersPassed;
+            waveEvent.commit();
+        }
+        waveEvent = null;
     }
 
     /**
@@ -218,21 +333,184 @@ public class CritterManager {
 
         // update the currency
         GameManager.getInstance().sideBar.addAvailableGold(getRewards());
+
+        rebuildBuckets();
+    }
+
+    /**
+     * Puts every critter in the bucket of the tile holding its top left corner.
+     * Critters outside the grid, the spawns queued behind the entry point, are kept out of the buckets
+     * so they are not counted in the group of a border tile; those within a tile of the map are drawn
+     * on their own.
+     */
+    private void rebuildBuckets() {
+        for (int i = 0; i < usedBucketCount; i++) {
+            buckets[usedBuckets[i]].clear();
+        }
+        usedBucketCount = 0;
+        borderCritters.clear();
+
+        if (buckets.length == 0) {
+            return;
+        }
+
+        for (Critter critter : critters) {
+            Vector2 position = critter.getPosition();
+            int column = (int) Math.floor(position.getX() / Settings.TILE_WIDTH);
+            int row = (int) Math.floor(position.getY() / Settings.TILE_HEIGHT);
+            if (column < 0 || column >= columns || row < 0 || row >= rows) {
+                if (column >= -1 && column <= columns && row >= -1 && row <= rows) {
+                    borderCritters.add(critter);
+                }
+                continue;
+            }
+            int index = column * rows + row;
+
+            ArrayList<Critter> bucket = buckets[index];
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets[index] = bucket;
+            }
+            if (bucket.isEmpty()) {
+                if (usedBucketCount == usedBuckets.length) {
+                    usedBuckets = Arrays.copyOf(usedBuckets, usedBucketCount * 2);
+                }
+                usedBuckets[usedBucketCount++] = index;
+            }
+            bucket.add(critter);
+        }
+    }
+
+    /**
+     * Keeps an index inside the grid
+     *
+     * @param index Index to check
+     * @param count Number of tiles in that direction
+     * @return Returns the closest valid index
+     */
+    private static int clamp(int index, int count) {
+        return Math.max(0, Math.min(index, count - 1));
     }
 
 
     /**
      * Method for drawing Critter to canvas
      */
-    public void draw(GraphicsContext gc) {
+    public void draw(IRenderer renderer) {
         for (Critter critter : critters) {
             Vector2 position = critter.position;
             double x = position.getX() > 0 ? Math.ceil(position.getX() / Settings.TILE_WIDTH) : 0;
             double y = position.getY() > 0 ? Math.ceil(position.getY() / Settings.TILE_HEIGHT) : 0;
 
             if (x <= columns && y < rows)
-                critter.draw(gc);
+                critter.draw(renderer);
+        }
+    }
+
+    /**
+     * Method for drawing the critters inside an area to canvas.
+     * Only the buckets of the tiles touching the area are visited.
+     *
+     * @param renderer Renderer to draw on
+     * @param area Visible area of the map, in map coordinates
+     */
+    public void draw(IRenderer renderer, Rect area) {
+        draw(renderer, area, 1);
+    }
+
+    /**
+     * Method for drawing the critters inside an area to canvas.
+     * When zoomed out, or when there are too many critters, the crowded tiles are drawn
+     * as a single critter with a count badge and the health bar of the whole group.
+     *
+     * @param renderer Renderer to draw on
+     * @param area Visible area of the map, in map coordinates
+     * @param zoom Zoom of the camera
+     */
+    public void draw(IRenderer renderer, Rect area, double zoom) {
+        if (buckets.length == 0) {
+            return;
+        }
+
+        // critters stick out of their tile to the right and bottom, and the
+        // health bar is drawn above them, so look one tile further on each side
+        int fromColumn = clamp((int) Math.floor(area.getPosition().getX() / Settings.TILE_WIDTH) - 1, columns);
+        int toColumn = clamp((int) Math.ceil((area.getPosition().getX() + area.getWidth()) / Settings.TILE_WIDTH), columns);
+        int fromRow = clamp((int) Math.floor(area.getPosition().getY() / Settings.TILE_HEIGHT) - 1, rows);
+        int toRow = clamp((int) Math.ceil((area.getPosition().getY() + area.getHeight()) / Settings.TILE_HEIGHT) + 1, rows);
+
+        boolean levelOfDetail = isLevelOfDetail(zoom);
+
+        for (int column = fromColumn; column <= toColumn; column++) {
+            for (int row = fromRow; row <= toRow; row++) {
+                ArrayList<Critter> bucket = buckets[column * rows + row];
+                if (bucket == null) {
+                    continue;
+                }
+                if (levelOfDetail && bucket.size() >= Settings.LOD_MIN_BUCKET_SIZE) {
+                    drawGroup(renderer, bucket);
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++) {
+                    bucket.get(i).draw(renderer);
+                }
+            }
+        }
+
+        for (int i = 0; i < borderCritters.size(); i++) {
+            Critter critter = borderCritters.get(i);
+            if (critter.collidesWith(area)) {
+                critter.draw(renderer);
+            }
+        }
+    }
+
+    /**
+     * Check whether the crowded tiles are drawn as groups
+     *
+     * @param zoom Zoom of the camera
+     * @return Returns true if the critters are zoomed out or too many to draw one by one
+     */
+    public boolean isLevelOfDetail(double zoom) {
+        return zoom <= Settings.LOD_MAX_ZOOM || critters.size() >= Settings.LOD_CRITTER_THRESHOLD;
+    }
+
+    /**
+     * Draws the critters of a tile as one critter at their average position,
+     * with the health bar of the whole group and a badge with their number
+     *
+     * @param renderer Renderer to draw on
+     * @param bucket Critters of the tile
+     */
+    private void drawGroup(IRenderer renderer, ArrayList<Critter> bucket) {
+        double x = 0;
+        double y = 0;
+        double healthPoints = 0;
+        double maxHealthPoints = 0;
+
+        for (int i = 0; i < bucket.size(); i++) {
+            Critter critter = bucket.get(i);
+            x += critter.getPosition().getX();
+            y += critter.getPosition().getY();
+            healthPoints += Math.max(0, critter.getHealthPoints());
+            maxHealthPoints += critter.getMaxHealthPoints();
         }
+        x /= bucket.size();
+        y /= bucket.size();
+
+        renderer.drawSprite(AtlasSprite.CRITTER, x, y);
+        CritterHealthBar.draw(renderer, x, y, maxHealthPoints > 0 ? healthPoints / maxHealthPoints : 0);
+
+        String count = String.valueOf(bucket.size());
+        double badgeWidth = 4 + (6 * count.length());
+        double badgeX = x + Settings.TILE_WIDTH - badgeWidth;
+        double badgeY = y + Settings.TILE_HEIGHT - 12;
+
+        renderer.setFill(BADGE_COLOR);
+        renderer.fillRect(badgeX, badgeY, badgeWidth, 12);
+        renderer.setFill(Color.WHITE);
+        renderer.setFont(BADGE_FONT);
+        renderer.fillText(count, badgeX + 2, badgeY + 10);
     }
 
     /**
@@ -242,7 +520,7 @@ public class CritterManager {
      * @param delta represents how much Critter is to be moved
      */
     private void moveCritter(Critter critter, double delta, double percentage) {
-        if(percentage != 1){
+        if(percentage != 1 && SLOWED_SAMPLER.sample()){
             LOGGER.info("modifying movement of Critter: " + critter.getUniqueId() + "by " + (percentage * 100) + "%");
         }
         Tile nextTile = getNextTile(critter);
@@ -5,13 +5,22 @@ import common.Settings;
 import common.Tile;
 import common.TileManager;
 import common.core.*;
+import common.diagnostics.ProfilePhase;
+import common.render.FxRenderer;
+import common.render.IRenderer;
+import common.render.PixelBufferRenderer;
+import game.gamestate.AutoSaver;
 import game.gamestate.GameState;
 import game.gamestate.TowerState;
+import game.management.GameMetrics;
 import game.pathlogic.PathFinder;
 import game.towerlogic.Tower;
 import javafx.scene.Group;
-import javafx.scene.canvas.Canvas;
+import javafx.event.EventHandler;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
@@ -31,19 +40,34 @@ public class GameManager extends GameLoop implements Observer {
     public CritterManager critterManager;
 
     private static GameManager instance;
-    private GraphicsContext gc;
-    private double width;
-    private double height;
+    private LayeredCanvas canvas;
+    private Camera camera;
+    private PixelBufferRenderer critterPixelBuffer;
+    private KeyHandler keyHandler;
+    private final PerformanceOverlay performanceOverlay = new PerformanceOverlay(new Vector2(Settings.DEFAULT_MARGIN, Settings.DEFAULT_MARGIN));
     private Vector2 mousePosition = Vector2.getZero();
     private boolean isWaveStarted = false;
     private boolean isGameEnd = false;
     private int level = 1;
+
+    private boolean paused = false;
+    private double simulationSpeed = 1;
+    private double pendingTicks = 0;
+    private long tickCount = 0;
+    private long rateStart = 0;
+    private int framesSinceRateStart = 0;
+    private int ticksSinceRateStart = 0;
+    private double framesPerSecond = 0;
+    private double ticksPerSecond = 0;
+    private AutoSaver autoSaver;
+
     private static final Logger LOGGER = Logger.getLogger(GameManager.class);
 
     /**
      * Main constructor for GameManager
      */
     private GameManager() {
+        GameMetrics.register(this);
     }
 
     /**
@@ -66,30 +90,65 @@ public class GameManager extends GameLoop implements Observer {
      * @param mapData Saved content for the map
      */
     public void initialize(Group root, int rows, int columns, String[] mapData) {
+        initialize(root, new TileManager(rows, columns, mapData));
+    }
+
+    /**
+     * Initialize the game manager with a loaded map
+     *
+     * @param root The {@link javafx.scene.Group} to use.
+     * @param tileManager The tiles of the map
+     */
+    public void initialize(Group root, TileManager tileManager) {
         LOGGER.debug("Initializing Game Manager");
+        int rows = tileManager.getRows();
+        int columns = tileManager.getColumns();
 
-        this.width = (Settings.TILE_WIDTH * columns) + Settings.SIDEBAR_WIDTH;
-        this.height = Settings.TILE_HEIGHT * rows;
+        // maps bigger than the screen are shown through a scrollable viewport
+        double mapWidth = Settings.TILE_WIDTH * columns;
+        double mapHeight = Settings.TILE_HEIGHT * rows;
+        double viewportWidth = Math.min(mapWidth, Settings.MAX_VIEWPORT_WIDTH);
+        double viewportHeight = Math.min(mapHeight, Settings.MAX_VIEWPORT_HEIGHT);
 
-        Canvas canvas = new Canvas(width, height);
-        root.getChildren().add(canvas);
+        this.canvas = new LayeredCanvas(root, viewportWidth + Settings.SIDEBAR_WIDTH, viewportHeight);
+        this.canvas.setRetained(CanvasLayer.HUD, true);
+        this.camera = new Camera(viewportWidth, viewportHeight, mapWidth, mapHeight);
+        this.critterPixelBuffer = null;
 
-        this.tileManager = new TileManager(rows, columns, mapData);
+        this.tileManager = tileManager;
         this.critterManager = new CritterManager(new PathFinder(tileManager.getTilesOverlay(), rows, columns));
 
-        this.gc = canvas.getGraphicsContext2D();
-
         this.mouseHandler = new MouseHandler(root.getScene());
         this.mouseHandler.addObserver(this);
 
-        sideBar = new SideBar(gc.getCanvas().getWidth() - tileManager.getWidth(),
-                gc.getCanvas().getHeight(), tileManager.getWidth(), 0);
+        this.keyHandler = new KeyHandler(root.getScene());
+        root.getScene().addEventHandler(KeyEvent.KEY_PRESSED, new EventHandler<KeyEvent>() {
+            @Override
+            public void handle(KeyEvent event) {
+                if (event.getCode() == Settings.PERFORMANCE_OVERLAY_KEY) {
+                    togglePerformanceOverlay();
+                }
+                requestRedraw();
+            }
+        });
+        root.getScene().addEventHandler(ScrollEvent.SCROLL, new EventHandler<ScrollEvent>() {
+            @Override
+            public void handle(ScrollEvent event) {
+                zoomCamera(event);
+                requestRedraw();
+            }
+        });
+
+        sideBar = new SideBar(canvas.getWidth() - camera.getViewportWidth(),
+                canvas.getHeight(), camera.getViewportWidth(), 0);
         sideBar.setAvailableGold(Settings.STARTING_CURRENCY);
         refreshCanBuyTowers();
 
         isGameEnd = false;
         isWaveStarted = false;
         level = 1;
+        paused = false;
+        pendingTicks = 0;
     }
 
     /**
@@ -100,38 +159,71 @@ public class GameManager extends GameLoop implements Observer {
      * @param tileManager The tile manager gets the tile properties
      */
     public void initialize(GraphicsContext gc, IMouseHandler mouseHandler, TileManager tileManager) {
-        this.gc = gc;
-        this.width = gc.getCanvas().getWidth();
-        this.height = gc.getCanvas().getHeight();
+        initialize(new LayeredCanvas(gc), mouseHandler, tileManager);
+    }
+
+    /**
+     * Initialize the game manager on any surface, overloaded method.
+     * With a {@link common.render.NullRenderer} or a {@link common.render.RecordingRenderer} the game runs without a screen.
+     *
+     * @param canvas The layers to draw on
+     * @param mouseHandler represents the mouse handle to user input
+     * @param tileManager The tile manager gets the tile properties
+     */
+    public void initialize(LayeredCanvas canvas, IMouseHandler mouseHandler, TileManager tileManager) {
+        this.canvas = canvas;
+        this.critterPixelBuffer = null;
 
         this.mouseHandler = mouseHandler;
         this.mouseHandler.addObserver(this);
 
         this.tileManager = tileManager;
 
-        sideBar = new SideBar(gc.getCanvas().getWidth() - tileManager.getWidth(),
-                gc.getCanvas().getHeight(), tileManager.getWidth(), 0);
+        this.camera = new Camera(Math.min(tileManager.getWidth(), canvas.getWidth()),
+                Math.min(tileManager.getHeight(), canvas.getHeight()),
+                tileManager.getWidth(), tileManager.getHeight());
+        this.keyHandler = null;
+
+        sideBar = new SideBar(canvas.getWidth() - camera.getViewportWidth(),
+                canvas.getHeight(), camera.getViewportWidth(), 0);
         sideBar.setAvailableGold(Settings.STARTING_CURRENCY);
         refreshCanBuyTowers();
 
         isGameEnd = false;
         isWaveStarted = false;
         level = 1;
+        paused = false;
+        pendingTicks = 0;
     }
 
     /**
      * Start a new wave
      */
     public void startWave() {
+        startWave(critterManager.nextWaveSize());
+    }
+
+    /**
+     * Start a new wave of a given size
+     *
+     * @param critterCount Number of critters to spawn
+     */
+    public void startWave(int critterCount) {
         if (isGameEnd) {
             sideBar.setAvailableGold(Settings.STARTING_CURRENCY);
             refreshCanBuyTowers();
             isGameEnd = false;
             tileManager.clearTowers();
+            canvas.invalidate(CanvasLayer.TOWERS);
         }
 
         isWaveStarted = true;
-        critterManager.startWave();
+        critterManager.startWave(critterCount);
+        performanceOverlay.markWaveStart();
+        canvas.invalidate(CanvasLayer.CRITTERS);
+        canvas.invalidate(CanvasLayer.OVERLAY);
+        sideBar.invalidate(SideBarRegion.NEW_WAVE);
+        requestRedraw();
 
         LOGGER.info("Starting new wave");
     }
@@ -139,12 +231,49 @@ public class GameManager extends GameLoop implements Observer {
      * End the current wave
      */
     public void endWave() {
+        if (critterManager != null) {
+            critterManager.endWave(level);
+        }
         isWaveStarted = false;
         this.level++;
+        canvas.invalidate(CanvasLayer.CRITTERS);
+        saveChanges();
+
+        // one more frame to bring the new wave button back
+        requestRedraw();
         LOGGER.info("Finished wave");
         LOGGER.info("Level upgraded to: " + level);
     }
 
+    /**
+     * Set the saver taking snapshots of the game while it runs
+     *
+     * @param autoSaver The saver, null to stop saving
+     */
+    public void setAutoSaver(AutoSaver autoSaver) {
+        this.autoSaver = autoSaver;
+    }
+
+    /**
+     * Get the saver taking snapshots of the game while it runs
+     *
+     * @return Returns the saver, null if there is none
+     */
+    public AutoSaver getAutoSaver() {
+        return autoSaver;
+    }
+
+    /**
+     * Hands a snapshot to the saver right after a change of the player. Between two waves the loop
+     * sleeps, so the periodic snapshots of {@link #update(double)} would miss the towers bought, sold
+     * or upgraded until the next wave.
+     */
+    private void saveChanges() {
+        if (autoSaver != null) {
+            autoSaver.save(getSaveGameState());
+        }
+    }
+
     /**
      * Get the current game level
      *
@@ -160,6 +289,8 @@ public class GameManager extends GameLoop implements Observer {
     public void endGame() {
         endWave();
         isGameEnd = true;
+        canvas.invalidate(CanvasLayer.OVERLAY);
+        sideBar.invalidate(SideBarRegion.NEW_WAVE);
         LOGGER.info("Game Ended");
     }
 
@@ -176,15 +307,262 @@ public class GameManager extends GameLoop implements Observer {
     */
     @Override
     protected void update(double delta) {
+        panCamera(delta);
+        measureRates();
+
+        if (performanceOverlay.update(this, System.nanoTime())) {
+            canvas.invalidate(CanvasLayer.OVERLAY);
+        }
+
+        // between two ticks, so the snapshot is consistent; the worker of the saver does the writing
+        if (autoSaver != null && autoSaver.isDue(System.nanoTime())) {
+            autoSaver.save(getSaveGameState());
+        }
+
         if (isGameEnded()) return;
 
-        sideBar.getNewWaveButton().setEnabled(!isWaveStarted);
+        if (sideBar.getNewWaveButton().isEnabled() == isWaveStarted) {
+            sideBar.getNewWaveButton().setEnabled(!isWaveStarted);
+            sideBar.invalidate(SideBarRegion.NEW_WAVE);
+        }
+
+        if (paused) return;
+
+        // the simulation runs a whole number of ticks per frame, the rest is kept for the next frames
+        pendingTicks += simulationSpeed;
+        while (pendingTicks >= 1 && !isGameEnded()) {
+            pendingTicks -= 1;
+            tick(delta);
+        }
+    }
+
+    /**
+     * Runs one step of the simulation: the towers shoot and the critters move
+     *
+     * @param delta represents the time difference
+     */
+    private void tick(double delta) {
+        tickCount++;
+        ticksSinceRateStart++;
+
+        long start = profiler.start();
+        long allocation = profiler.startAllocation();
         towerShoots(delta);
+        profiler.stopAllocation(ProfilePhase.TOWER_SHOOTS, allocation);
+        profiler.stop(ProfilePhase.TOWER_SHOOTS, start);
 
         if (isWaveStarted) {
+            start = profiler.start();
+            allocation = profiler.startAllocation();
             critterManager.update(delta);
+            profiler.stopAllocation(ProfilePhase.CRITTER_UPDATE, allocation);
+            profiler.stop(ProfilePhase.CRITTER_UPDATE, start);
+
+            // critters move on every tick of a wave
+            canvas.invalidate(CanvasLayer.CRITTERS);
+        }
+    }
+    /**
+     * The game only animates while a wave is running or the camera is moving. While it is idle no frame
+     * runs, so the saves of the game are made right where the player changes it rather than in an update.
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isIdle() {
+        if (isWaveStarted && !isGameEnd && !paused) return false;
+
+        return keyHandler == null || !keyHandler.isAnyKeyPressed();
+    }
+
+    /**
+     * An idle game still wakes up now and then while the performance overlay is shown, to refresh it.
+     * {@inheritDoc}
+     */
+    @Override
+    protected long getIdleFrameInterval() {
+        return performanceOverlay.isVisible() ? PerformanceOverlay.REFRESH_MILLIS : 0;
+    }
+
+    /**
+     * Counts the frames and the simulation ticks, and turns them into rates once per second
+     */
+    private void measureRates() {
+        long now = System.nanoTime();
+        if (rateStart == 0) {
+            rateStart = now;
+        }
+        framesSinceRateStart++;
+
+        long elapsed = now - rateStart;
+        if (elapsed >= 1000000000L) {
+            framesPerSecond = framesSinceRateStart * 1e9 / elapsed;
+            ticksPerSecond = ticksSinceRateStart * 1e9 / elapsed;
+            framesSinceRateStart = 0;
+            ticksSinceRateStart = 0;
+            rateStart = now;
         }
     }
+
+    /**
+     * Shows or hides the performance overlay
+     */
+    public void togglePerformanceOverlay() {
+        performanceOverlay.toggle();
+        canvas.invalidate(CanvasLayer.OVERLAY);
+        requestRedraw();
+    }
+
+    /**
+     * Get the performance overlay
+     *
+     * @return Returns the overlay
+     */
+    public PerformanceOverlay getPerformanceOverlay() {
+        return performanceOverlay;
+    }
+
+    /**
+     * Stops the simulation. The camera and the side bar keep working.
+     */
+    public void pauseGame() {
+        if (paused) return;
+
+        paused = true;
+        LOGGER.info("Game paused");
+    }
+
+    /**
+     * Runs the simulation again after a pause
+     */
+    public void resumeGame() {
+        if (!paused) return;
+
+        paused = false;
+        pendingTicks = 0;
+        requestRedraw();
+        LOGGER.info("Game resumed");
+    }
+
+    /**
+     * Check whether the simulation is paused
+     *
+     * @return Returns true if paused
+     */
+    public boolean isGamePaused() {
+        return paused;
+    }
+
+    /**
+     * Get the number of simulation ticks run per frame
+     *
+     * @return Returns the speed, 1 is the normal speed
+     */
+    public double getSimulationSpeed() {
+        return simulationSpeed;
+    }
+
+    /**
+     * Set the number of simulation ticks run per frame. Fractions run a tick every few frames.
+     *
+     * @param simulationSpeed The speed, between 0 excluded and {@link Settings#MAX_SIMULATION_SPEED}
+     */
+    public void setSimulationSpeed(double simulationSpeed) {
+        if (!(simulationSpeed > 0)) {
+            throw new IllegalArgumentException("Simulation speed must be positive: " + simulationSpeed);
+        }
+        this.simulationSpeed = Math.min(simulationSpeed, Settings.MAX_SIMULATION_SPEED);
+        LOGGER.info("Simulation speed set to " + this.simulationSpeed);
+    }
+
+    /**
+     * Get the number of simulation ticks run since the game manager was created
+     *
+     * @return Returns the number of ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Get the number of frames drawn during the last second
+     *
+     * @return Returns the frames per second
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    /**
+     * Get the number of simulation ticks run during the last second
+     *
+     * @return Returns the ticks per second
+     */
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Check whether a wave is running
+     *
+     * @return Returns true if critters are on the map
+     */
+    public boolean isWaveStarted() {
+        return isWaveStarted;
+    }
+
+    /**
+     * Moves the camera while the arrow keys are pressed
+     *
+     * @param delta represents the time difference
+     */
+    private void panCamera(double delta) {
+        if (keyHandler == null) return;
+
+        double dx = 0;
+        double dy = 0;
+        if (keyHandler.isKeyPressed(KeyCode.LEFT)) dx -= 1;
+        if (keyHandler.isKeyPressed(KeyCode.RIGHT)) dx += 1;
+        if (keyHandler.isKeyPressed(KeyCode.UP)) dy -= 1;
+        if (keyHandler.isKeyPressed(KeyCode.DOWN)) dy += 1;
+
+        if ((dx != 0 || dy != 0) &&
+                camera.pan(dx * Settings.CAMERA_PAN_SPEED * delta, dy * Settings.CAMERA_PAN_SPEED * delta)) {
+            invalidateMap();
+        }
+    }
+
+    /**
+     * Zooms the camera in or out around the mouse position
+     *
+     * @param event The scroll event
+     */
+    private void zoomCamera(ScrollEvent event) {
+        if (event.getDeltaY() == 0 || !camera.isInViewport(new Vector2(event.getX(), event.getY()))) return;
+
+        double factor = event.getDeltaY() > 0 ? Settings.CAMERA_ZOOM_STEP : 1 / Settings.CAMERA_ZOOM_STEP;
+        if (camera.zoomAt(factor, event.getX(), event.getY())) {
+            invalidateMap();
+        }
+    }
+
+    /**
+     * Marks every layer drawn through the camera to be repainted
+     */
+    private void invalidateMap() {
+        canvas.invalidate(CanvasLayer.TERRAIN);
+        canvas.invalidate(CanvasLayer.TOWERS);
+        canvas.invalidate(CanvasLayer.CRITTERS);
+    }
+
+    /**
+     * Get the camera showing the map
+     *
+     * @return Returns the camera
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
     /**
     * Overridden Gameloop clear method to clear contents
     * {@inheritDoc}
@@ -192,7 +570,7 @@ public class GameManager extends GameLoop implements Observer {
     @Override
     protected void clear() {
         mouseHandler.clearMouseState();
-        gc.clearRect(0, 0, width, height);
+        canvas.clearDirtyLayers();
     }
     /**
     * Overridden Gameloop draw method to draw Map and SideBar after each GameLoop iteration
@@ -200,30 +578,95 @@ public class GameManager extends GameLoop implements Observer {
     */
     @Override
     protected void draw() {
-        tileManager.draw(gc);
-        critterManager.draw(gc);
+        // only the part of the map inside the viewport is drawn
+        Rect visibleArea = camera.getVisibleArea();
+
+        if (canvas.isDirty(CanvasLayer.TERRAIN)) {
+            IRenderer renderer = canvas.getRenderer(CanvasLayer.TERRAIN);
+            camera.begin(renderer);
+            tileManager.drawTerrain(renderer, visibleArea);
+            camera.end(renderer);
+        }
+
+        if (canvas.isDirty(CanvasLayer.TOWERS)) {
+            IRenderer renderer = canvas.getRenderer(CanvasLayer.TOWERS);
+            camera.begin(renderer);
+            tileManager.drawTowers(renderer, visibleArea);
+            camera.end(renderer);
+        }
+
+        if (canvas.isDirty(CanvasLayer.CRITTERS) && critterManager != null) {
+            IRenderer renderer = canvas.getRenderer(CanvasLayer.CRITTERS);
+            if (renderer instanceof FxRenderer &&
+                    critterManager.getCritterCount() >= Settings.PIXEL_BUFFER_CRITTER_THRESHOLD) {
+                drawCrittersToPixelBuffer((FxRenderer) renderer, visibleArea);
+            }
+            else {
+                camera.begin(renderer);
+                critterManager.draw(renderer, visibleArea, camera.getZoom());
+                camera.end(renderer);
+            }
+        }
+
+        // the side bar repaints its own dirty regions, unless the shared surface was wiped
+        if (canvas.isShared() && canvas.isDirty(CanvasLayer.HUD)) {
+            sideBar.invalidateAll();
+        }
+        sideBar.draw(canvas.getRenderer(CanvasLayer.HUD));
+
+        if (canvas.isDirty(CanvasLayer.OVERLAY)) {
+            drawOverlay(canvas.getRenderer(CanvasLayer.OVERLAY));
+        }
+
+        canvas.markAllClean();
+    }
+
+    /**
+     * Draws the critters into a frame buffer in memory and uploads it to the canvas as a single image.
+     * Used for swarms, where one canvas command per critter costs more than the drawing itself.
+     *
+     * @param renderer The renderer of the critters layer
+     * @param visibleArea The part of the map inside the viewport
+     */
+    private void drawCrittersToPixelBuffer(FxRenderer renderer, Rect visibleArea) {
+        if (critterPixelBuffer == null) {
+            critterPixelBuffer = new PixelBufferRenderer((int) Math.ceil(camera.getViewportWidth()),
+                    (int) Math.ceil(camera.getViewportHeight()));
+        }
 
-        sideBar.draw(gc);
+        critterPixelBuffer.clearRect(0, 0, critterPixelBuffer.getWidth(), critterPixelBuffer.getHeight());
+        camera.begin(critterPixelBuffer);
+        critterManager.draw(critterPixelBuffer, visibleArea, camera.getZoom());
+        camera.end(critterPixelBuffer);
+        critterPixelBuffer.present(renderer.getGraphicsContext());
+    }
 
+    /**
+     * Draws the dragged tower and the game over message
+     *
+     * @param renderer The renderer of the overlay layer
+     */
+    private void drawOverlay(IRenderer renderer) {
         MouseState mouseState = mouseHandler.getMouseState();
 
         if (mouseState.getSelectedSprite() != null) {
             Tile tile = mouseState.getSelectedSprite(Tile.class);
             if (tile.isDraggable()) {
-                Helper.drawMouseIconTile(gc, tile, this.mousePosition);
+                Helper.drawMouseIconTile(renderer, tile, this.mousePosition);
             }
         }
 
+        performanceOverlay.draw(renderer);
+
         if (isGameEnd) {
             Font font = Font.font(Settings.FONT_NAME, FontWeight.BOLD, 60);
-            gc.setFont(font);
+            renderer.setFont(font);
 
             //DrawShopTitle
-            Vector2 textPosition = new Vector2((tileManager.getWidth() / 2) - 200,
-                    (tileManager.getHeight() / 2) - 30);
-            Helper.drawText(gc, "GAME OVER", textPosition, Color.RED);
+            Vector2 textPosition = new Vector2((camera.getViewportWidth() / 2) - 200,
+                    (camera.getViewportHeight() / 2) - 30);
+            Helper.drawText(renderer, "GAME OVER", textPosition, Color.RED);
         }
-        sideBar.getInspectionPanel().drawTowerLogText(sideBar.getInspectionPanel().getSelectedTower());
     }
 
     /**
@@ -234,9 +677,12 @@ public class GameManager extends GameLoop implements Observer {
      */
     @Override
     public void update(Observable o, Object arg) {
+        requestRedraw();
+
         if (isGameEnded()) return;
 
         MouseState mouseState = (MouseState) arg;
+        canvas.invalidate(CanvasLayer.OVERLAY);
 
         if (mouseState.getEventType() == MouseEventType.RIGHT_CLICK) {
             LOGGER.info("Detected right click");
@@ -248,7 +694,7 @@ public class GameManager extends GameLoop implements Observer {
         }
 
         //Mouse clicked on the side panel
-        if (mouseState.getPosition().getX() > tileManager.getWidth() && !isWaveStarted) {
+        if (mouseState.getPosition().getX() > camera.getViewportWidth() && !isWaveStarted) {
             if (mouseState.getEventType() == MouseEventType.LEFT_CLICK) {
                 LOGGER.info("Detected " + mouseState.getEventType() + " on side panel");
                 Tower inspectionPanelTower = sideBar.getInspectionPanel().getSelectedTower();
@@ -270,8 +716,10 @@ public class GameManager extends GameLoop implements Observer {
                         int x = (int) tilePosForSelectedTower.getX();
                         int y = (int) tilePosForSelectedTower.getY();
                         tileManager.getTilesOverlay()[x][y] = null;
+                        canvas.invalidate(CanvasLayer.TOWERS);
                         mouseState.setSelectedSprite(null);
                         sideBar.getInspectionPanel().setSelectedTower(null);
+                        saveChanges();
                     } else if (sideBar.getInspectionPanel().getUpgradeButton().isEnabled() &&
                             sideBar.getInspectionPanel().getUpgradeButton().collidesWith(mouseState.getPosition())) {
                         // if detected upgrade tower and updatebutton is clicked
@@ -279,10 +727,12 @@ public class GameManager extends GameLoop implements Observer {
                         if (sideBar.getAvailableGold() >= inspectionPanelTower.getCost()) {
                             LOGGER.info("Upgrading tower");
                             inspectionPanelTower.AddLevel(1);
+                            canvas.invalidate(CanvasLayer.TOWERS);
                             LOGGER.info("Updating available gold");
                             sideBar.addAvailableGold(-inspectionPanelTower.getCost());
                             LOGGER.info("Refreshing available towers for buying");
                             refreshCanBuyTowers();
+                            saveChanges();
                         }
                         else{
                             LOGGER.info("Not enough currency to buy tower");
@@ -295,11 +745,13 @@ public class GameManager extends GameLoop implements Observer {
                         //collision detected
                         LOGGER.info("Detected click on Left Arrow button");
                         inspectionPanelTower.setAttackStrategyEnum(inspectionPanelTower.getAttackStrategyEnum().next());
+                        saveChanges();
                     }
                     else if (sideBar.getInspectionPanel().getRightArrowButton().isEnabled() &&
                             sideBar.getInspectionPanel().getRightArrowButton().collidesWith(mouseState.getPosition())){
                         LOGGER.info("Detected click on Right Arrow button");
                         inspectionPanelTower.setAttackStrategyEnum(inspectionPanelTower.getAttackStrategyEnum().previous());
+                        saveChanges();
                     }
                 }
 
@@ -356,9 +808,16 @@ public class GameManager extends GameLoop implements Observer {
     * @param mouseState The mouse handler to user input
     */
     private void tileManagerUpdate(MouseState mouseState) {
+        if (!camera.isInViewport(mouseState.getPosition())) {
+            return;
+        }
+
+        // the mouse is on the screen, the tiles are in the map
+        Vector2 mousePos = camera.screenToWorld(mouseState.getPosition());
+
         if (mouseState.getEventType() == MouseEventType.LEFT_CLICK) {
             if (mouseState.getSelectedSprite() != null) {
-                Vector2 pos = tileManager.getTilePosition(mouseState.getPosition());
+                Vector2 pos = tileManager.getTilePosition(mousePos);
                 int x = (int) pos.getX() - 1;
                 int y = (int) pos.getY() - 1;
 
@@ -378,17 +837,17 @@ public class GameManager extends GameLoop implements Observer {
                 newTower.setDraggable(false);
 
                 tileManager.getTilesOverlay()[x][y] = newTower;
+                canvas.invalidate(CanvasLayer.TOWERS);
 
                 sideBar.setAvailableGold(sideBar.getAvailableGold() - selectedTile.getCost());
                 refreshCanBuyTowers();
                 mouseState.clearSelectedSprite();
+                saveChanges();
 
                 LOGGER.debug("Placed a new tower at position: " + position.toString());
             }
         }
 
-        Vector2 mousePos = mouseState.getPosition();
-
         if (mousePos.getX() <= tileManager.getWidth() ||
                 mousePos.getY() <= tileManager.getHeight()) {
 
@@ -421,7 +880,11 @@ public class GameManager extends GameLoop implements Observer {
     */
     public void refreshCanBuyTowers() {
         for (Tower tower : sideBar.getTowersAvailable()) {
-            tower.setCanBuy(tower.getCost() <= sideBar.getAvailableGold());
+            boolean canBuy = tower.getCost() <= sideBar.getAvailableGold();
+            if (tower.isCanBuy() != canBuy) {
+                tower.setCanBuy(canBuy);
+                sideBar.invalidate(SideBarRegion.SHOP);
+            }
         }
     }
 
@@ -431,7 +894,10 @@ public class GameManager extends GameLoop implements Observer {
      * @param delta represents the changes in time
      */
     private void towerShoots(double delta) {
+        long targeting = 0;
         for (Tower leTower : getTowersInScene()) {
+            // the query of the critters in range and the choice of the targets by the strategy
+            long start = profiler.start();
             ArrayList<Critter> possibleTargets = critterManager.getShootableCritters(leTower);
 
             if (leTower.isTimeToFire(delta) && possibleTargets.size() > 0) {
@@ -439,13 +905,20 @@ public class GameManager extends GameLoop implements Observer {
             } else if (possibleTargets.size() == 0) {
                 leTower.clearRateOfFire();
             }
+            if (start != 0) {
+                targeting += System.nanoTime() - start;
+            }
         }
+        profiler.record(ProfilePhase.TARGETING, targeting);
+
+        long start = profiler.start();
         int rewards = critterManager.getRewards();
         if (rewards > 0) {
             LOGGER.info("Collecting rewards");
             sideBar.addAvailableGold(rewards);
         }
         refreshCanBuyTowers();
+        profiler.stop(ProfilePhase.ECONOMY, start);
     }
 
     /**
@@ -467,6 +940,23 @@ public class GameManager extends GameLoop implements Observer {
         return towersInScene;
     }
 
+    /**
+     * Counts the towers placed on the map
+     *
+     * @return Returns the number of towers in the scene
+     */
+    public int getTowerCount() {
+        int count = 0;
+        for (Tile[] tileArray : tileManager.getTilesOverlay()) {
+            for (Tile tile : tileArray) {
+                if (tile instanceof Tower) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Get the game state to serialize
      *
@@ -523,5 +1013,7 @@ public class GameManager extends GameLoop implements Observer {
 
             tileManager.getTilesOverlay()[ts.posX][ts.posY] = tower;
         }
+        canvas.invalidate(CanvasLayer.TOWERS);
+        requestRedraw();
     }
 }
@@ -1,25 +1,29 @@
 package game;
 
 import common.Settings;
+import common.core.Rect;
 import common.core.Vector2;
+import common.logging.GameLogger;
+import common.render.IRenderer;
 import game.towerlogic.Tower;
-import javafx.scene.canvas.GraphicsContext;
+import game.towerlogic.TowerLog;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
 /**
  * Represents the inspection panel that shows the stats of the tower and
- * the sell button is the tower is sellable
+ * the sell button is the tower is sellable.
+ * The panel only rebuilds and repaints its content when the selected tower or its revision changes.
  * @version $revision $
  */
 public class InspectionPanel {
+    private static final float LINES_SEPARATION = 17;
+    private static final float LOG_SEPARATION = 11;
+    private static final double TITLE_FONT_SIZE = 20;
 
     private final double width;
     private final double height;
@@ -30,9 +34,22 @@ public class InspectionPanel {
     private Button upgradeButton;
     private Button leftArrowButton;
     private Button rightArrowButton;
-    private Queue<String> logQueue;
+    private final List<String> logLines = new ArrayList<>();
+    private final Font titleFont;
+    private final Font parametersFont;
+    private final Font logFont;
+    private final Rect bounds;
 
-    private static final Logger LOGGER = Logger.getLogger(InspectionPanel.class);
+    private String towerTitle;
+    private String strategyText;
+    private final List<String> statLines = new ArrayList<>();
+    private double logsYPosition;
+
+    private Tower drawnTower;
+    private int drawnRevision;
+    private boolean forceRedraw = true;
+
+    private static final GameLogger LOGGER = GameLogger.getLogger(InspectionPanel.class);
 
     /**
      * Default constructor
@@ -53,7 +70,12 @@ public class InspectionPanel {
         upgradeButton = new Button(ButtonType.UPGRADE, upgradePosition);
         leftArrowButton = new Button(ButtonType.LEFTARROW, new Vector2());
         rightArrowButton = new Button(ButtonType.RIGHTARROW, new Vector2());
-        logQueue = new LinkedList<>();
+
+        titleFont = Font.font(Settings.FONT_NAME, FontWeight.BOLD, TITLE_FONT_SIZE);
+        parametersFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, 16);
+        logFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, 10);
+        bounds = new Rect(new Vector2(leftOffset, topOffset - TITLE_FONT_SIZE),
+                width, height - topOffset + TITLE_FONT_SIZE);
     }
 
     /**
@@ -72,141 +94,164 @@ public class InspectionPanel {
      */
     public void setSelectedTower(Tower selectedTower) {
         if (selectedTower != this.selectedTower) {
-            String nullStr = "null";
-            LOGGER.info("Selected tower changed from "
-                    + (this.selectedTower == null ? nullStr : this.selectedTower.getUniqueId())
-                    + " to "
-                    + (selectedTower == null ? nullStr : selectedTower.getUniqueId()));
+            if (LOGGER.isInfoEnabled()) {
+                String nullStr = "null";
+                LOGGER.info("Selected tower changed from "
+                        + (this.selectedTower == null ? nullStr : this.selectedTower.getUniqueId())
+                        + " to "
+                        + (selectedTower == null ? nullStr : selectedTower.getUniqueId()));
+            }
             this.selectedTower = selectedTower;
-            drawTowerLogText(selectedTower);
         }
     }
 
     /**
-     * Draws the logging appearing in the inspection panel
+     * Formats the logging appearing in the inspection panel.
+     * Only the log of the tower being shown is ever turned into text.
       * @param selectedTower tower to refresh console with
      */
     public void drawTowerLogText(Tower selectedTower) {
         if (selectedTower != null) {
-            Queue<String> localLogs = selectedTower.getLocalLogs();
             clearLog();
-            for (int i = 0; i < localLogs.size(); i++) {
-                String current = localLogs.remove();
-                addLog(current);
-                localLogs.add(current);
+            TowerLog log = selectedTower.getLocalLog();
+            for (int i = 0; i < log.size(); i++) {
+                addLog(log.getLine(i));
             }
         }
     }
 
     /**
-     * Draws the inspection panel
+     * Check whether the panel has to be repainted, because the selected tower or its state changed
      *
-     * @param gc target to draw on
+     * @return Returns true if the panel changed since it was last drawn
      */
-    public void draw(GraphicsContext gc) {
-        if (getSelectedTower() != null) {
-            Font titleFont = Font.font(Settings.FONT_NAME, FontWeight.BOLD, 20);
-            Font parametersFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, 16);
-            Font logFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, 10);
-
-            float titleSeparation = 24;
-            float linesSeparation = 17;
-            float logSeparation = 11;
-
-            gc.setFont(titleFont);
-            String towerTitle = getSelectedTower().getTowerType().name() + " TOWER";
-            Vector2 titlePosition = new Vector2(leftOffset,
-                    topOffset);
-            drawText(gc, towerTitle, titlePosition, Color.BLACK);
-
-            //Setup stat lines
-            List<String> statLines = new ArrayList<String>();
-            gc.setFont(parametersFont);
-            statLines.add("Level: " + getSelectedTower().getLevel());
-            statLines.add("Rate of Fire: " + getSelectedTower().getRateOfFire());
-            statLines.add("Range: " + getSelectedTower().getRange());
-            statLines.add("Damage: " + getSelectedTower().getDamage());
-            statLines.add("Special Effect: " + getSelectedTower().getAttackEffect().toString());
-            if (!selectedTower.isActive()) {
-                //If tower is not active, we can buy it
-                statLines.add("Cost: " + getSelectedTower().getCost());
-            } else {
-                statLines.add("Upgrade Cost: " + getSelectedTower().getCost());
-                statLines.add("Sell Refund: " + getSelectedTower().getRefund());
+    public boolean isDirty() {
+        return forceRedraw || selectedTower != drawnTower ||
+                (selectedTower != null && selectedTower.getRevision() != drawnRevision);
+    }
 
-            }
+    /**
+     * Forces the panel to be repainted on the next draw
+     */
+    public void invalidate() {
+        forceRedraw = true;
+    }
+
+    /**
+     * Gets the area covered by the panel
+     *
+     * @return The bounds of the panel
+     */
+    public Rect getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Draws the inspection panel. The area of the panel is expected to be cleared already.
+     *
+     * @param renderer target to draw on
+     */
+    public void draw(IRenderer renderer) {
+        if (isDirty()) {
+            refresh();
+        }
+
+        if (getSelectedTower() != null) {
+            renderer.setFont(titleFont);
+            drawText(renderer, towerTitle, leftOffset, topOffset, Color.BLACK);
 
             //draw each line
+            renderer.setFont(parametersFont);
             for (int i = 0; i < statLines.size(); i++) {
-                drawText(gc, statLines.get(i),
-                        new Vector2(titlePosition.getX(), titlePosition.getY() + (i + 1) * linesSeparation),
-                        Color.BLACK);
+                drawText(renderer, statLines.get(i), leftOffset, topOffset + (i + 1) * LINES_SEPARATION, Color.BLACK);
             }
 
-            //Defining current Y position for the following lines
-            double currentYPosition = titlePosition.getY() + linesSeparation + (statLines.size() * linesSeparation);
-
-            //Drawing left arrow for strategySwapping
-            getLeftArrowButton().setEnabled(selectedTower.isActive());
-            Vector2 newLeftArrowButtonPosition = new Vector2(titlePosition.getX(), currentYPosition);
-            getLeftArrowButton().setPosition(newLeftArrowButtonPosition);
-            getLeftArrowButton().draw(gc);
-
-            //Drawing the strategy flavour text
-            if (getSelectedTower().isActive()) {
-                String strategyText = getSelectedTower().getAttackStrategyEnum().toString();
-                drawText(gc, strategyText,
-                        new Vector2(titlePosition.getX() + getLeftArrowButton().getWidth() + 2,
-                                currentYPosition + linesSeparation),
-                        Color.BLACK);
+            getLeftArrowButton().draw(renderer);
+            if (strategyText != null) {
+                drawText(renderer, strategyText, leftOffset + getLeftArrowButton().getWidth() + 2,
+                        getLeftArrowButton().getPosition().getY() + LINES_SEPARATION, Color.BLACK);
             }
+            getRightArrowButton().draw(renderer);
+            getSellButton().draw(renderer);
+            getUpgradeButton().draw(renderer);
 
-            //Drawing right arrow for strategySwapping
-            getRightArrowButton().setEnabled(selectedTower.isActive());
-            Vector2 newRightArrowButtonPosition =
-                    new Vector2(
-                            titlePosition.getX() + getLeftArrowButton().getWidth() + 2 + 192 + 2,
-                            currentYPosition);
-            getRightArrowButton().setPosition(newRightArrowButtonPosition);
-            getRightArrowButton().draw(gc);
-
-            currentYPosition += getRightArrowButton().getWidth() + 2;
-
-            getSellButton().setEnabled(selectedTower.isActive());
-            Vector2 newSellButtonPosition = new Vector2(titlePosition.getX(), currentYPosition);
-            getSellButton().setPosition(newSellButtonPosition);
-            getSellButton().draw(gc);
-            getUpgradeButton().setEnabled(selectedTower.isActive());
-            Vector2 newUpgradeButton = new Vector2(titlePosition.getX() + getSellButton().getWidth() + 2, currentYPosition);
-            getUpgradeButton().setPosition(newUpgradeButton);
-            getUpgradeButton().draw(gc);
-            
             //DrawLogs
-            currentYPosition += getUpgradeButton().getHeight() + 2 + logSeparation;
-
-            gc.setFont(logFont);
-            for (int i = 0; i< logQueue.size(); i++){
-                String toDraw = logQueue.remove();
-                drawText(gc,toDraw, new Vector2(titlePosition.getX() ,currentYPosition + i* logSeparation), Color.BLACK);
-                logQueue.add(toDraw);
+            renderer.setFont(logFont);
+            for (int i = 0; i < logLines.size(); i++) {
+                drawText(renderer, logLines.get(i), leftOffset, logsYPosition + i * LOG_SEPARATION, Color.BLACK);
             }
-            
+        }
+    }
 
+    /**
+     * Rebuilds the texts and positions the buttons for the selected tower
+     */
+    private void refresh() {
+        drawnTower = selectedTower;
+        forceRedraw = false;
+        if (selectedTower == null) {
+            return;
         }
+        drawnRevision = selectedTower.getRevision();
+
+        towerTitle = getSelectedTower().getTowerType().name() + " TOWER";
+
+        //Setup stat lines
+        statLines.clear();
+        statLines.add("Level: " + getSelectedTower().getLevel());
+        statLines.add("Rate of Fire: " + getSelectedTower().getRateOfFire());
+        statLines.add("Range: " + getSelectedTower().getRange());
+        statLines.add("Damage: " + getSelectedTower().getDamage());
+        statLines.add("Special Effect: " + getSelectedTower().getAttackEffect().toString());
+        if (!selectedTower.isActive()) {
+            //If tower is not active, we can buy it
+            statLines.add("Cost: " + getSelectedTower().getCost());
+        } else {
+            statLines.add("Upgrade Cost: " + getSelectedTower().getCost());
+            statLines.add("Sell Refund: " + getSelectedTower().getRefund());
+
+        }
+
+        //Defining current Y position for the following lines
+        double currentYPosition = getCurrentYPosition(topOffset, LINES_SEPARATION, statLines.size());
+
+        //Positioning left arrow for strategySwapping
+        getLeftArrowButton().setEnabled(selectedTower.isActive());
+        getLeftArrowButton().getPosition().setXY(leftOffset, currentYPosition);
+
+        //Strategy flavour text
+        strategyText = getSelectedTower().isActive() ?
+                getSelectedTower().getAttackStrategyEnum().toString() : null;
+
+        //Positioning right arrow for strategySwapping
+        getRightArrowButton().setEnabled(selectedTower.isActive());
+        getRightArrowButton().getPosition().setXY(
+                leftOffset + getLeftArrowButton().getWidth() + 2 + 192 + 2, currentYPosition);
+
+        currentYPosition += getRightArrowButton().getWidth() + 2;
+
+        getSellButton().setEnabled(selectedTower.isActive());
+        getSellButton().getPosition().setXY(leftOffset, currentYPosition);
+        getUpgradeButton().setEnabled(selectedTower.isActive());
+        getUpgradeButton().getPosition().setXY(leftOffset + getSellButton().getWidth() + 2, currentYPosition);
 
+        //Logs
+        logsYPosition = currentYPosition + getUpgradeButton().getHeight() + 2 + LOG_SEPARATION;
+        drawTowerLogText(selectedTower);
     }
 
     /**
      * Method to draw text in Inspection panel
      *
-     * @param gc       Graphics context to draw on
-     * @param text     Text to be drawn
-     * @param position Position at which text will be drawn
-     * @param color    Color of text
+     * @param renderer    Renderer to draw on
+     * @param text  Text to be drawn
+     * @param x     X position at which text will be drawn
+     * @param y     Y position at which text will be drawn
+     * @param color Color of text
      */
-    private void drawText(GraphicsContext gc, String text, Vector2 position, Color color) {
-        gc.setFill(color);
-        gc.fillText(text, position.getX(), position.getY());
+    private void drawText(IRenderer renderer, String text, double x, double y, Color color) {
+        renderer.setFill(color);
+        renderer.fillText(text, x, y);
     }
 
     /**
@@ -286,10 +331,10 @@ public class InspectionPanel {
      * @param newLog New log line
      */
     public void addLog(String newLog){
-        if(logQueue.size() > Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL){
-            logQueue.remove();
+        if(logLines.size() > Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL){
+            logLines.remove(0);
         }
-        logQueue.add(newLog);
+        logLines.add(newLog);
     }
 
     /**
@@ -297,7 +342,7 @@ public class InspectionPanel {
      */
     public void clearLog(){
 
-        logQueue.clear();
+        logLines.clear();
     }
 
     public double getCurrentYPosition(double tilePositionYComponent, double linesSeparation, double statLines)
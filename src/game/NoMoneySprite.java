@@ -3,7 +3,8 @@ package game;
 import common.Settings;
 import common.core.ImageSprite;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 
 /**
  * Class related to Sprite for
@@ -22,12 +23,12 @@ public class NoMoneySprite extends ImageSprite {
 
     /**
      * Drawing the sprite
-     * @param gc {@link GraphicsContext} to draw on
+     * @param renderer {@link IRenderer} to draw on
      * {@inheritDoc}
      */
     @Override
-    public void draw(GraphicsContext gc) {
-        gc.drawImage(this.getImage(), position.getX(), position.getY());
+    public void draw(IRenderer renderer) {
+        renderer.drawSprite(AtlasSprite.NO_MONEY, position.getX(), position.getY());
     }
 
         /**
@@ -0,0 +1,170 @@
+package game;
+
+import common.Settings;
+import common.core.Vector2;
+import common.diagnostics.FrameProfiler;
+import common.diagnostics.LatencyHistogram;
+import common.diagnostics.ProfilePhase;
+import common.render.IRenderer;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Panel showing the performance of the game over the map: frame and tick rates, phase timings,
+ * counts and memory. The texts are rebuilt a few times per second, not every frame.
+ * @version $revision $
+ */
+public class PerformanceOverlay {
+    public static final long REFRESH_MILLIS = 250;
+    private static final long REFRESH_NANOS = REFRESH_MILLIS * 1000000L;
+    private static final double LINE_HEIGHT = 14;
+    private static final double WIDTH = 250;
+    private static final double PADDING = 6;
+
+    private final Vector2 position;
+    private final Font font;
+    private final List<String> lines = new ArrayList<>();
+    // durations of the profiling window, refilled for every phase line
+    private final LatencyHistogram window = new LatencyHistogram();
+    private boolean visible = false;
+
+    private long lastRefresh = 0;
+    private long lastTickCount = 0;
+    private long lastQueryCount = 0;
+    private long waveStartGcCount = 0;
+
+    /**
+     * Default constructor
+     *
+     * @param position Top left corner of the panel on the screen
+     */
+    public PerformanceOverlay(Vector2 position) {
+        this.position = position;
+        this.font = Font.font(Settings.FONT_NAME, FontWeight.BOLD, 12);
+    }
+
+    /**
+     * Shows or hides the panel
+     */
+    public void toggle() {
+        visible = !visible;
+        lastRefresh = 0;
+    }
+
+    /**
+     * Check whether the panel is shown
+     *
+     * @return Returns true if visible
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Remembers the number of garbage collections at the start of a wave
+     */
+    public void markWaveStart() {
+        waveStartGcCount = getGcCount();
+    }
+
+    /**
+     * Rebuilds the texts if they are older than the refresh period
+     *
+     * @param gameManager The game to show
+     * @param now Current time in nanoseconds
+     * @return Returns true if the texts changed and the panel has to be repainted
+     */
+    public boolean update(GameManager gameManager, long now) {
+        if (!visible || (lastRefresh != 0 && now - lastRefresh < REFRESH_NANOS)) {
+            return false;
+        }
+        lastRefresh = now;
+
+        FrameProfiler profiler = gameManager.getProfiler();
+        CritterManager critterManager = gameManager.critterManager;
+
+        long ticks = gameManager.getTickCount() - lastTickCount;
+        lastTickCount = gameManager.getTickCount();
+        long queryCount = critterManager == null ? 0 : critterManager.getSpatialQueryCount();
+        long queries = queryCount - lastQueryCount;
+        lastQueryCount = queryCount;
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        lines.clear();
+        lines.add(String.format("FPS %5.1f   TPS %5.1f   x%.2f%s", gameManager.getFramesPerSecond(),
+                gameManager.getTicksPerSecond(), gameManager.getSimulationSpeed(),
+                gameManager.isGamePaused() ? " PAUSED" : ""));
+        lines.add(phaseLine("update", profiler, ProfilePhase.UPDATE));
+        lines.add(phaseLine("draw", profiler, ProfilePhase.DRAW));
+        lines.add(phaseLine("frame", profiler, ProfilePhase.FRAME));
+        lines.add(String.format("critters %d   towers %d",
+                critterManager == null ? 0 : critterManager.getCritterCount(),
+                gameManager.tileManager == null ? 0 : gameManager.getTowerCount()));
+        lines.add(String.format("queries/tick %.1f", ticks > 0 ? (double) queries / ticks : 0.0));
+        lines.add(String.format("heap %d MB   GC %d", heapUsed / (1024 * 1024), getGcCount() - waveStartGcCount));
+        return true;
+    }
+
+    /**
+     * Draws the panel. The texts are the ones of the last {@link #update(GameManager, long)}.
+     *
+     * @param renderer Renderer to draw on
+     */
+    public void draw(IRenderer renderer) {
+        if (!visible) {
+            return;
+        }
+
+        renderer.setFill(Color.rgb(0, 0, 0, 0.6));
+        renderer.fillRect(position.getX(), position.getY(), WIDTH, lines.size() * LINE_HEIGHT + 2 * PADDING);
+
+        renderer.setFont(font);
+        renderer.setFill(Color.LIME);
+        for (int i = 0; i < lines.size(); i++) {
+            renderer.fillText(lines.get(i), position.getX() + PADDING, position.getY() + PADDING + (i + 1) * LINE_HEIGHT - 3);
+        }
+    }
+
+    /**
+     * Get the lines shown by the panel
+     *
+     * @return Returns the texts of the last update
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Builds the line of a timed phase
+     *
+     * @param name Name shown for the phase
+     * @param profiler Profiler timing the phase
+     * @param phase The phase
+     * @return Returns the last and the 99th percentile durations in milliseconds
+     */
+    private String phaseLine(String name, FrameProfiler profiler, ProfilePhase phase) {
+        return String.format("%-6s %6.2f ms   p99 %6.2f ms", name, profiler.getLast(phase) / 1e6,
+                profiler.getWindow(phase, window).getValueAtPercentile(99) / 1e6);
+    }
+
+    /**
+     * Counts the garbage collections of every collector since the start of the JVM
+     *
+     * @return Returns the number of collections
+     */
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+}
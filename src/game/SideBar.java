@@ -2,19 +2,23 @@ package game;
 
 import common.Settings;
 import common.core.MouseState;
+import common.core.Rect;
 import common.core.Vector2;
+import common.render.IRenderer;
 import game.towerlogic.Tower;
 import game.towerlogic.TowerType;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
 
 /**
- * Represents the side panel that holds the towers and the inspection panel
+ * Represents the side panel that holds the towers and the inspection panel.
+ * The panel is split in {@link SideBarRegion}s that are marked dirty when their content changes,
+ * only the dirty regions are cleared and repainted.
  * @version $revision $
  */
 public class SideBar {
@@ -32,6 +36,13 @@ public class SideBar {
     private int availableGold;
     private Button newWaveButton;
 
+    private final Font titleFont;
+    private final Font currencyFont;
+    private final Vector2 shopTitlePosition;
+    private final Vector2 currencyPosition;
+    private final Map<SideBarRegion, Rect> regionBounds = new EnumMap<>(SideBarRegion.class);
+    private final EnumSet<SideBarRegion> dirtyRegions = EnumSet.allOf(SideBarRegion.class);
+    private String currencyLine;
 
     public Tower selectedTowerForInspection;
 
@@ -78,6 +89,22 @@ public class SideBar {
         Vector2 newWavePosition = new Vector2(leftOffset + 2,
                 topOffset + defaultMargin + shopTitleWidth + defaultMargin + towerWidth + defaultMargin + 2 *Settings.FONTSIZE_LINE + 30);
         newWaveButton = new Button(ButtonType.NEWWAVE, newWavePosition);
+
+        titleFont = Font.font(Settings.FONT_NAME, FontWeight.BOLD, shopTitleWidth - 5);
+        currencyFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, Settings.FONTSIZE_LINE);
+        shopTitlePosition = new Vector2(leftOffset + defaultMargin,
+                topOffset + defaultMargin + shopTitleWidth);
+        currencyPosition = new Vector2(leftOffset + defaultMargin,
+                topOffset + defaultMargin + shopTitleWidth + defaultMargin + towerWidth + defaultMargin + Settings.FONTSIZE_LINE + 30);
+
+        double shopBottom = generateBuyableTowerPosition(1).getY() + towerWidth;
+        regionBounds.put(SideBarRegion.SHOP, new Rect(new Vector2(leftOffset, topOffset),
+                width, shopBottom - topOffset));
+        regionBounds.put(SideBarRegion.GOLD, new Rect(new Vector2(leftOffset, currencyPosition.getY() - Settings.FONTSIZE_LINE),
+                width, Settings.FONTSIZE_LINE + 5));
+        regionBounds.put(SideBarRegion.NEW_WAVE, new Rect(new Vector2(newWavePosition.getX(), newWavePosition.getY()),
+                newWaveButton.getWidth(), newWaveButton.getHeight()));
+        regionBounds.put(SideBarRegion.INSPECTION, inspectionPanel.getBounds());
     }
 
     /**
@@ -93,56 +120,110 @@ public class SideBar {
     }
 
     /**
-     * Draws the sidebar in the scene
+     * Marks a region to be repainted. Regions overlapping it are repainted as well,
+     * since clearing the region wipes part of them.
      *
-     * @param gc the context to draw on
+     * @param region the region that changed
      */
-    public void draw(GraphicsContext gc) {
+    public void invalidate(SideBarRegion region) {
+        if (dirtyRegions.contains(region)) {
+            return;
+        }
+        dirtyRegions.add(region);
 
-        Font font = Font.font(Settings.FONT_NAME, FontWeight.BOLD, shopTitleWidth - 5);
-        gc.setFont(font);
+        Rect bounds = regionBounds.get(region);
+        for (SideBarRegion other : SideBarRegion.values()) {
+            if (!dirtyRegions.contains(other) && bounds.intersects(regionBounds.get(other))) {
+                invalidate(other);
+            }
+        }
+    }
 
-        //DrawShopTitle
-        String shopTitle = "**SHOP**";
-        Vector2 textPosition = new Vector2(leftOffset + defaultMargin,
-                topOffset + defaultMargin + shopTitleWidth);
-        drawText(gc, shopTitle, textPosition, Color.BLACK);
+    /**
+     * Marks the whole side bar to be repainted
+     */
+    public void invalidateAll() {
+        dirtyRegions.addAll(regionBounds.keySet());
+        inspectionPanel.invalidate();
+    }
 
-        //Draw ShopTowers
-        for (Tower tower :
-                towersAvailable) {
-            tower.draw(gc);
-        }
+    /**
+     * Check whether a region has to be repainted
+     *
+     * @param region the region to check
+     * @return Returns true if the region changed since it was last drawn
+     */
+    public boolean isDirty(SideBarRegion region) {
+        return dirtyRegions.contains(region) ||
+                (region == SideBarRegion.INSPECTION && inspectionPanel.isDirty());
+    }
 
-        //Draw availableGold
-        Font currencyFont = Font.font(Settings.FONT_NAME, FontWeight.NORMAL, Settings.FONTSIZE_LINE);
-        gc.setFont(currencyFont);
-        Vector2 currencyPosition = new Vector2(leftOffset + defaultMargin,
-                topOffset + defaultMargin + shopTitleWidth + defaultMargin + towerWidth + defaultMargin + Settings.FONTSIZE_LINE + 30);
-        String currencyLine = "Available: $" + getAvailableGold();
-        drawText(gc, currencyLine, currencyPosition, Color.BLACK);
+    /**
+     * Draws the dirty regions of the sidebar in the scene. Nothing is drawn when no region changed.
+     *
+     * @param renderer the renderer to draw on
+     */
+    public void draw(IRenderer renderer) {
+        if (inspectionPanel.isDirty()) {
+            invalidate(SideBarRegion.INSPECTION);
+        }
+        if (dirtyRegions.isEmpty()) {
+            return;
+        }
 
-        //Draw NewWaveButton
-        if (!GameManager.getInstance().isGameEnded()) {
-            newWaveButton.draw(gc);
+        for (SideBarRegion region : dirtyRegions) {
+            Rect bounds = regionBounds.get(region);
+            renderer.clearRect(bounds.getPosition().getX(), bounds.getPosition().getY(),
+                    bounds.getWidth(), bounds.getHeight());
         }
 
-        //Draw inspectionPanel
-        inspectionPanel.draw(gc);
+        for (SideBarRegion region : dirtyRegions) {
+            switch (region) {
+                case SHOP:
+                    //DrawShopTitle
+                    renderer.setFont(titleFont);
+                    drawText(renderer, "**SHOP**", shopTitlePosition, Color.BLACK);
 
+                    //Draw ShopTowers
+                    for (Tower tower :
+                            towersAvailable) {
+                        tower.draw(renderer);
+                    }
+                    break;
+                case GOLD:
+                    //Draw availableGold
+                    if (currencyLine == null) {
+                        currencyLine = "Available: $" + getAvailableGold();
+                    }
+                    renderer.setFont(currencyFont);
+                    drawText(renderer, currencyLine, currencyPosition, Color.BLACK);
+                    break;
+                case NEW_WAVE:
+                    //Draw NewWaveButton
+                    if (!GameManager.getInstance().isGameEnded()) {
+                        newWaveButton.draw(renderer);
+                    }
+                    break;
+                case INSPECTION:
+                    //Draw inspectionPanel
+                    inspectionPanel.draw(renderer);
+                    break;
+            }
+        }
+        dirtyRegions.clear();
     }
 
     /**
      * Draws text in the graphic contexts
      *
-     * @param gc target to draw on
+     * @param renderer target to draw on
      * @param text text to be drawn
      * @param position position of the text
      * @param color color of the text
      */
-    private void drawText(GraphicsContext gc, String text, Vector2 position, Color color) {
-        gc.setFill(color);
-        gc.fillText(text, position.getX(), position.getY());
+    private void drawText(IRenderer renderer, String text, Vector2 position, Color color) {
+        renderer.setFill(color);
+        renderer.fillText(text, position.getX(), position.getY());
     }
 
     /**
@@ -169,7 +250,11 @@ public class SideBar {
      * @param availableGold
      */
     public void setAvailableGold(int availableGold) {
-        this.availableGold = availableGold;
+        if (this.availableGold != availableGold) {
+            this.availableGold = availableGold;
+            currencyLine = null;
+            invalidate(SideBarRegion.GOLD);
+        }
     }
 
     /**
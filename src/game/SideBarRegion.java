@@ -0,0 +1,11 @@
+package game;
+
+/**
+ * Regions of the side bar that are repainted independently
+ */
+public enum SideBarRegion {
+    SHOP,
+    GOLD,
+    NEW_WAVE,
+    INSPECTION
+}
@@ -4,19 +4,17 @@ import common.Settings;
 import common.Tile;
 import common.core.Rect;
 import common.core.Vector2;
+import common.diagnostics.TargetingEvent;
+import common.logging.GameLogger;
+import common.render.AtlasSprite;
+import common.render.IRenderer;
 import game.Critter;
 import game.CritterManager;
 import game.NoMoneySprite;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import org.apache.log4j.Logger;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
-import java.text.DateFormat;
-import java.text.FieldPosition;
-import java.text.ParsePosition;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 /**
@@ -42,14 +40,15 @@ public class Tower extends Tile {
     private boolean canBuy;
     private AttackStrategyFactory strategyFactory;
     private final int instanceCounter;
+    private int revision;
 
     private static int globalInstanceCounter = 1;
-    private Queue<String> logsInTower = new LinkedList<>();
-    private DateFormat dateFormatForLocalLog = new SimpleDateFormat("yy-MM-dd HH:mm:SSS");
+    // the tower always kept one line less than the inspection panel holds
+    private final TowerLog localLog = new TowerLog(Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL - 1);
 
     private IAttackStrategy attackStrategy;
     private AttackEffect attackEffect;
-    private static final Logger LOGGER = Logger.getLogger(Tower.class);
+    private static final GameLogger LOGGER = GameLogger.getLogger(Tower.class);
 
     /**
      * Default constructor
@@ -59,7 +58,7 @@ public class Tower extends Tile {
      */
     public Tower(TowerType towerType, Vector2 position) {
         this(imageFrom(towerType), position);
-        saveInfoLog("Initializing");
+        log(TowerLogEvent.INITIALIZING);
         this.towerType = towerType;
         isActive = false;
         setInitialValues();
@@ -72,14 +71,14 @@ public class Tower extends Tile {
      * Sets the initial values for tower types
      */
     private void setInitialValues() {
-        saveInfoLog("Setting initial values");
+        log(TowerLogEvent.SETTING_INITIAL_VALUES);
         switch (towerType) {
             case FROST:
                 setBaseCost(200);
                 setBaseCostMultiplier(100);
                 setDamage(10);
                 setDamageMultiplier(7);
-                setRange(2);
+                setRange(getBaseRange(TowerType.FROST));
                 setRangeMultiplier(0);
                 setRateOfFire(1);
                 setRateOfFireMultiplier(0);
@@ -92,7 +91,7 @@ public class Tower extends Tile {
                 setBaseCostMultiplier(200);
                 setDamage(35);
                 setDamageMultiplier(10);
-                setRange(3);
+                setRange(getBaseRange(TowerType.SIEGE));
                 setRangeMultiplier(0);
                 setRateOfFire(1);
                 setRateOfFireMultiplier(0);
@@ -105,7 +104,7 @@ public class Tower extends Tile {
                 setBaseCostMultiplier(50);
                 setDamage(25);
                 setDamageMultiplier(5);
-                setRange(4);
+                setRange(getBaseRange(TowerType.ARROW));
                 setRangeMultiplier(0);
                 setRateOfFire(0.3);
                 setRateOfFireMultiplier(0);
@@ -156,25 +155,44 @@ public class Tower extends Tile {
     /**
      * Method that translates from TowerType to Image
      *
-     * @param gc The {@link javafx.scene.canvas.GraphicsContext} to use. All graphics will be placed here
+     * @param renderer The {@link common.render.IRenderer} to use. All graphics will be placed here
      *           {@inheritDoc}
      */
     @Override
-    public void draw(GraphicsContext gc) {
-        gc.drawImage(this.getImage(), getPosition().getX(), getPosition().getY());
+    public void draw(IRenderer renderer) {
+        renderer.drawSprite(getAtlasSprite(), getPosition().getX(), getPosition().getY());
         if (!isActive() && !isCanBuy()) {
-            noMoneySprite.draw(gc);
+            noMoneySprite.draw(renderer);
         }
 
         if (isActive()) {
             Rect rect = getRangeRect();
 
-            gc.setStroke(Color.RED);
-            gc.strokeRect(rect.getPosition().getX(), rect.getPosition().getY(),
+            renderer.setStroke(Color.RED);
+            renderer.strokeRect(rect.getPosition().getX(), rect.getPosition().getY(),
                     rect.getWidth(), rect.getHeight());
         }
     }
 
+    /**
+     * Method that translates from TowerType to its sprite in the atlas
+     *
+     * @return The sprite of the tower
+     */
+    @Override
+    public AtlasSprite getAtlasSprite() {
+        switch (towerType) {
+            case ARROW:
+                return AtlasSprite.TOWER_ARROW;
+            case FROST:
+                return AtlasSprite.TOWER_FROST;
+            case SIEGE:
+                return AtlasSprite.TOWER_SIEGE;
+            default:
+                throw new NotImplementedException();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -230,6 +248,38 @@ public class Tower extends Tile {
         return rangeResult;
     }
 
+    /**
+     * Gets the range of a new tower of a type
+     *
+     * @param towerType type of the tower
+     * @return range in tiles
+     */
+    public static int getBaseRange(TowerType towerType) {
+        switch (towerType) {
+            case FROST:
+                return 2;
+            case SIEGE:
+                return 3;
+            case ARROW:
+                return 4;
+            default:
+                throw new NotImplementedException();
+        }
+    }
+
+    /**
+     * Gets the largest range of any tower, the ranges do not grow with the levels
+     *
+     * @return range in tiles
+     */
+    public static int getLargestRange() {
+        int largest = 0;
+        for (TowerType towerType : TowerType.values()) {
+            largest = Math.max(largest, getBaseRange(towerType));
+        }
+        return largest;
+    }
+
     /**
      * Gets the rectangle of current range of the tower depending on the level
      *
@@ -268,7 +318,7 @@ public class Tower extends Tile {
      */
     public void setLevel(int level) {
         if (level != this.level) {
-            saveInfoLog("Setting new level: " + level);
+            log(TowerLogEvent.LEVEL_CHANGED, level);
             this.level = level;
         }
     }
@@ -279,7 +329,7 @@ public class Tower extends Tile {
      * @param levelsToAdd how many levels to add to the current level
      */
     public void AddLevel(int levelsToAdd) {
-        saveInfoLog("Adding " + levelsToAdd + " levels");
+        log(TowerLogEvent.LEVELS_ADDED, levelsToAdd);
         this.level++;
     }
 
@@ -344,6 +394,7 @@ public class Tower extends Tile {
      */
     public void setDamage(double damage) {
         this.damage = damage;
+        revision++;
     }
 
     /**
@@ -353,6 +404,7 @@ public class Tower extends Tile {
      */
     public void setActive(boolean active) {
         isActive = active;
+        revision++;
     }
 
     /**
@@ -391,9 +443,12 @@ public class Tower extends Tile {
     public void setCanBuy(boolean canBuy) {
         if (this.canBuy != canBuy && !isActive()) {
 
-            saveInfoLog("canBuy changed to: " + canBuy);
+            log(TowerLogEvent.CAN_BUY_CHANGED, canBuy ? 1 : 0);
         }
 
+        if (this.canBuy != canBuy) {
+            revision++;
+        }
         this.canBuy = canBuy;
     }
 
@@ -419,7 +474,7 @@ public class Tower extends Tile {
      */
     public void setAttackStrategyEnum(AttackStrategyEnum strategy) {
         attackStrategy = strategyFactory.getAttackStrategy(strategy, this);
-        saveInfoLog("Strategy changed to " + strategy.toString());
+        log(TowerLogEvent.STRATEGY_CHANGED, strategy.ordinal());
     }
 
     /**
@@ -444,12 +499,20 @@ public class Tower extends Tile {
         Boolean ret = currentRateOfFireCount <= 0;
         if (ret)
         {
-            saveInfoLog("Ready to Fire");
+            log(TowerLogEvent.READY_TO_FIRE);
             clearRateOfFire();
         }
         return ret;
     }
 
+    /**
+     * Gets the time left before the tower can fire again
+     * @return The time in seconds, 0 or less when ready
+     */
+    public double getFireCooldown() {
+        return currentRateOfFireCount;
+    }
+
     /**
      * Clears the flag for isTimeToFire method
      */
@@ -472,7 +535,7 @@ public class Tower extends Tile {
      */
     public List<Critter> doDamage(CritterManager critterManager){
         ArrayList<Critter> possibleTargets = critterManager.getShootableCritters(this);
-        saveInfoLog("Found " + possibleTargets.size() + " critters within range");
+        log(TowerLogEvent.CRITTERS_IN_RANGE, possibleTargets.size());
         return doDamage(critterManager, possibleTargets);
     }
 
@@ -483,14 +546,19 @@ public class Tower extends Tile {
      * @return list of affected critters
      */
     public List<Critter> doDamage(CritterManager critterManager, ArrayList<Critter> possibleTargets) {
+        TargetingEvent event = TargetingEvent.isRecorded() ? new TargetingEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         List<Critter> ret = new ArrayList<>();
         List<Critter> targets = attackStrategy.doDamage(possibleTargets);
-        saveInfoLog("Found " + targets.size() + " within range");
+        log(TowerLogEvent.TARGETS_IN_RANGE, targets.size());
         ret.addAll(targets);
         if(getAttackEffect() == AttackEffect.SPLASH){
-            saveInfoLog("Appliying splash effect");
+            log(TowerLogEvent.SPLASH_APPLIED);
             List<Critter> splashEffectTargets = critterManager.getCritterNeighbours(this, possibleTargets, targets.get(0));
-            saveInfoLog("Found " + splashEffectTargets.size() + " within range");
+            log(TowerLogEvent.SPLASH_TARGETS_IN_RANGE, splashEffectTargets.size());
             ret.addAll(splashEffectTargets);
             for (Critter leCritter :
                     splashEffectTargets) {
@@ -503,17 +571,25 @@ public class Tower extends Tile {
                     targets) {
                 if (getAttackEffect() == AttackEffect.BURN) {
                     float damagePerSecond = (float) (getDamage() / (getRateOfFire() * 2));
-                    saveInfoLog("Applying burn effect of " + damagePerSecond + " for " + getRateOfFire() + " seconds");
+                    log(TowerLogEvent.BURN_APPLIED, damagePerSecond, getRateOfFire());
                     target.setDamagePerSecond(damagePerSecond);
                     target.setDamagePerSecondDuration((float) getRateOfFire());
                 }
                 else if(getAttackEffect() == AttackEffect.FREEZE){
                     float frozenDuration = (float) (getRateOfFire()/2);
-                    saveInfoLog("Applying freeze effect of " + frozenDuration);
+                    log(TowerLogEvent.FREEZE_APPLIED, frozenDuration);
                     target.setFrozenDuration(frozenDuration);
                 }
             }
         }
+        if (event != null && event.shouldCommit()) {
+            event.tower = getUniqueId();
+            event.strategy = getAttackStrategyEnum().name();
+            event.candidates = possibleTargets.size();
+            event.targets = ret.size();
+            event.chosenTarget = targets.isEmpty() ? null : targets.get(0).getUniqueId();
+            event.commit();
+        }
         return ret;
     }
 
@@ -537,52 +613,51 @@ public class Tower extends Tile {
     }
 
     /**
-     * It logs an information message. It keeps track of the individual tower log and logging in the file
-     * @param message to be logged
+     * Logs an event without arguments
+     * @param event the event
      */
-    private void saveInfoLog(String message){
-        String toLog = getTowerHeaderLog() + message;
-        LOGGER.info(toLog);
-        saveToLocalLog("Info", message);
+    private void log(TowerLogEvent event) {
+        log(event, 0, 0);
     }
 
     /**
-     * It logs an error message. It keeps track of the individual tower log and logging in the file
-     * @param message to be logged
+     * Logs an event with one argument
+     * @param event the event
+     * @param argument argument of the event
      */
-    private void saveErrorLog(String message){
-        String toLog = getTowerHeaderLog() + message;
-        LOGGER.error(toLog);
-        saveToLocalLog("Error", message);
+    private void log(TowerLogEvent event, double argument) {
+        log(event, argument, 0);
     }
 
     /**
-     * It logs a warning message. It keeps track of the individual tower log and logging in the file
-     * @param message to be logged
+     * It logs an event. It keeps track of the individual tower log and logging in the file.
+     * The message is only built when the file logging is enabled.
+     * @param event the event
+     * @param first first argument of the event
+     * @param second second argument of the event
      */
-    private void saveWarningLog(String message){
-        String toLog = getTowerHeaderLog() + message;
-        LOGGER.error(toLog);
-        saveToLocalLog("Warning", message);
+    private void log(TowerLogEvent event, double first, double second) {
+        revision++;
+        localLog.add(event, first, second);
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info(getTowerHeaderLog() + event.format(first, second));
+        }
     }
 
     /**
-     * It adds the log priority and the message to the local log
-     * @param logPriority info, debug, error, others
-     * @param message message to log
+     * Gets the local log of the tower
+     * @return the last events, oldest first
      */
-    private void saveToLocalLog(String logPriority, String message) {
-        if (logsInTower != null) {
-            Date date = new Date();
-            logsInTower.add(dateFormatForLocalLog.format(date) + " " + logPriority + ": " + message);
-            if (logsInTower.size() >= Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL) {
-                logsInTower.remove();
-            }
-        }
+    public TowerLog getLocalLog() {
+        return localLog;
     }
 
-
-    public Queue<String> getLocalLogs() {
-        return logsInTower;
+    /**
+     * Gets a counter that changes every time something shown about the tower changes:
+     * its level, strategy, activation, availability or local log.
+     * @return the current revision
+     */
+    public int getRevision() {
+        return revision;
     }
 }
@@ -0,0 +1,166 @@
+package game.gamestate;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import common.Helper;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saves the game in the background. The game hands a snapshot of its {@link GameState} over from its own
+ * thread, between two ticks; the snapshot is turned into JSON and written by a worker thread, so a save
+ * never holds a frame up. A snapshot equal to the last one saved is not written again, and when the worker
+ * falls behind only the latest snapshot is written.
+ * <p>
+ * Files are replaced with {@link Helper#writeAtomically(Path, byte[])}, so a crash leaves either the
+ * previous save or the new one, never a torn file.
+ * @version $revision $
+ */
+public class AutoSaver {
+    private final Path file;
+    private final long intervalNanos;
+    private final ExecutorService worker;
+    private final AtomicReference<GameState> pending = new AtomicReference<>();
+    private final AtomicInteger writeCount = new AtomicInteger();
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    // only used by the thread of the game
+    private GameState lastSnapshot;
+    private long lastCheck = 0;
+    private volatile boolean writeFailed = false;
+
+    private static final Logger LOGGER = Logger.getLogger(AutoSaver.class);
+
+    /**
+     * Main constructor
+     *
+     * @param file File of the saved game
+     * @param intervalMillis Time between two snapshots, in milliseconds
+     * @param savedState State already in the file, null if there is none
+     */
+    public AutoSaver(Path file, long intervalMillis, GameState savedState) {
+        this.file = file;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.lastSnapshot = savedState;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            // a save in progress never keeps the game from exiting, the file is replaced whole or not at all
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check whether it is time for a snapshot; the first call starts the clock
+     *
+     * @param now Current time, in nanoseconds
+     * @return Returns true once per interval
+     */
+    public boolean isDue(long now) {
+        if (lastCheck == 0) {
+            lastCheck = now;
+            return false;
+        }
+        if (now - lastCheck < intervalNanos) {
+            return false;
+        }
+        lastCheck = now;
+        return true;
+    }
+
+    /**
+     * Hands a snapshot over to the worker, unless nothing changed since the last one
+     *
+     * @param snapshot State of the game, it must not be changed afterwards
+     * @return Returns true if the snapshot will be written
+     */
+    public boolean save(GameState snapshot) {
+        if (writeFailed) {
+            writeFailed = false;
+            lastSnapshot = null;
+        }
+
+        if (snapshot.towers.isEmpty() && snapshot.level <= 1) {
+            LOGGER.debug("Nothing to save");
+            return false;
+        }
+        if (snapshot.equals(lastSnapshot)) {
+            LOGGER.debug("Game state unchanged since the last save");
+            return false;
+        }
+
+        lastSnapshot = snapshot;
+        // a snapshot still waiting for the worker is replaced, the worker is already on its way
+        if (pending.getAndSet(snapshot) == null) {
+            worker.execute(this::writePending);
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of files written
+     *
+     * @return Returns the number of successful writes
+     */
+    public int getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     * Waits for the snapshots handed over so far to be written
+     *
+     * @param timeoutMillis Longest wait, in milliseconds
+     * @return Returns false if the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        try {
+            worker.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes what is pending and stops the worker
+     *
+     * @param timeoutMillis Longest wait for the last write, in milliseconds
+     * @return Returns false if the last write did not finish in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean close(long timeoutMillis) throws InterruptedException {
+        worker.shutdown();
+        return worker.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the latest snapshot, on the worker thread
+     */
+    private void writePending() {
+        GameState snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+
+        try {
+            Helper.writeAtomically(file, gson.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            writeCount.incrementAndGet();
+            LOGGER.info("Game state saved to " + file);
+        } catch (IOException e) {
+            // the next snapshot is written even if it equals this one
+            writeFailed = true;
+            LOGGER.error("Could not save game state ExceptionType: " + e.getClass().getName() + " Message:  " + e.getMessage());
+        }
+    }
+}
@@ -6,6 +6,7 @@ import game.towerlogic.Tower;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * State of the game
@@ -14,4 +15,26 @@ public class GameState implements Serializable {
     public List<TowerState> towers = new ArrayList<>();
     public int level;
     public int availableGold;
+
+    /**
+     * Two states are equal when they would be saved the same
+     *
+     * @param o The other state
+     * @return Returns true if the level, the gold and the towers are the same
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameState)) return false;
+
+        GameState other = (GameState) o;
+        return level == other.level &&
+                availableGold == other.availableGold &&
+                Objects.equals(towers, other.towers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(towers, level, availableGold);
+    }
 }
@@ -3,6 +3,7 @@ package game.gamestate;
 import game.towerlogic.AttackStrategyEnum;
 import game.towerlogic.TowerType;
 
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -15,4 +16,29 @@ public class TowerState {
     public TowerType towerType;
     public AttackStrategyEnum strategy;
     public int level;
+
+    /**
+     * Two states are equal when they would be saved the same
+     *
+     * @param o The other state
+     * @return Returns true if every field is the same
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TowerState)) return false;
+
+        TowerState other = (TowerState) o;
+        return posX == other.posX &&
+                posY == other.posY &&
+                level == other.level &&
+                Objects.equals(id, other.id) &&
+                towerType == other.towerType &&
+                strategy == other.strategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, posX, posY, towerType, strategy, level);
+    }
 }
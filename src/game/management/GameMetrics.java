@@ -0,0 +1,253 @@
+package game.management;
+
+import com.google.gson.GsonBuilder;
+import common.diagnostics.LatencyHistogram;
+import common.diagnostics.ProfilePhase;
+import common.logging.AsyncFileAppender;
+import game.GameManager;
+import javafx.application.Platform;
+import org.apache.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the {@link GameManager} through JMX.
+ * The attributes are read without synchronization and may be one frame old;
+ * the operations are run on the JavaFX thread.
+ * @version $revision $
+ */
+public class GameMetrics implements IGameMetrics {
+    public static final String OBJECT_NAME = "TowerDefense:type=GameMetrics";
+    private static final long GAME_THREAD_TIMEOUT_SECONDS = 5;
+
+    private final GameManager gameManager;
+    // frame times of the profiling window, refilled on every read
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+
+    private static final Logger LOGGER = Logger.getLogger(GameMetrics.class);
+
+    /**
+     * Main constructor
+     *
+     * @param gameManager The game to publish
+     */
+    public GameMetrics(GameManager gameManager) {
+        this.gameManager = gameManager;
+    }
+
+    /**
+     * Registers the metrics of a game in the platform MBean server, once
+     *
+     * @param gameManager The game to publish
+     */
+    public static void register(GameManager gameManager) {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new GameMetrics(gameManager), name);
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Could not register the game metrics: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int getCritterCount() {
+        return gameManager.critterManager == null ? 0 : gameManager.critterManager.getCritterCount();
+    }
+
+    @Override
+    public int getTowerCount() {
+        return gameManager.tileManager == null ? 0 : gameManager.getTowerCount();
+    }
+
+    @Override
+    public int getLevel() {
+        return gameManager.getLevel();
+    }
+
+    @Override
+    public boolean isWaveRunning() {
+        return gameManager.isWaveStarted();
+    }
+
+    @Override
+    public boolean isGameEnded() {
+        return gameManager.isGameEnded();
+    }
+
+    @Override
+    public int getGold() {
+        return gameManager.sideBar == null ? 0 : gameManager.sideBar.getAvailableGold();
+    }
+
+    @Override
+    public double getFramesPerSecond() {
+        return gameManager.getFramesPerSecond();
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return gameManager.getTicksPerSecond();
+    }
+
+    @Override
+    public long getTickCount() {
+        return gameManager.getTickCount();
+    }
+
+    @Override
+    public double getFrameTimeP50Millis() {
+        synchronized (frameTimes) {
+            return frameTimes().getValueAtPercentile(50) / 1e6;
+        }
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        synchronized (frameTimes) {
+            return frameTimes().getValueAtPercentile(99) / 1e6;
+        }
+    }
+
+    @Override
+    public double getFrameTimeMaxMillis() {
+        synchronized (frameTimes) {
+            return frameTimes().getMax() / 1e6;
+        }
+    }
+
+    @Override
+    public double getAllocatedBytesPerFrame() {
+        if (!gameManager.getAllocationMeter().isSupported() || !gameManager.getProfiler().isEnabled()) {
+            return -1;
+        }
+        return gameManager.getAllocationMeter().getAverageBytes();
+    }
+
+    @Override
+    public long getDroppedLogRecords() {
+        long dropped = 0;
+        Enumeration<?> appenders = Logger.getRootLogger().getAllAppenders();
+        while (appenders.hasMoreElements()) {
+            Object appender = appenders.nextElement();
+            if (appender instanceof AsyncFileAppender) {
+                dropped += ((AsyncFileAppender) appender).getDroppedCount();
+            }
+        }
+        return dropped;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return gameManager.isGamePaused();
+    }
+
+    @Override
+    public double getSimulationSpeed() {
+        return gameManager.getSimulationSpeed();
+    }
+
+    @Override
+    public void setSimulationSpeed(double speed) {
+        onGameThread(() -> {
+            gameManager.setSimulationSpeed(speed);
+            return null;
+        });
+    }
+
+    @Override
+    public void pause() {
+        onGameThread(() -> {
+            gameManager.pauseGame();
+            return null;
+        });
+    }
+
+    @Override
+    public void resume() {
+        onGameThread(() -> {
+            gameManager.resumeGame();
+            return null;
+        });
+    }
+
+    @Override
+    public void startWave() {
+        onGameThread(() -> {
+            if (gameManager.critterManager != null && !gameManager.isWaveStarted()) {
+                gameManager.startWave();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String dumpState() {
+        return onGameThread(() -> {
+            StringBuilder dump = new StringBuilder();
+            dump.append("level=").append(getLevel())
+                    .append(" gold=").append(getGold())
+                    .append(" waveRunning=").append(isWaveRunning())
+                    .append(" gameEnded=").append(isGameEnded())
+                    .append(" paused=").append(isPaused())
+                    .append(" speed=").append(getSimulationSpeed())
+                    .append(" critters=").append(getCritterCount())
+                    .append(" towers=").append(getTowerCount())
+                    .append(" ticks=").append(getTickCount())
+                    .append(System.lineSeparator());
+            dump.append(gameManager.getProfiler().getReport());
+            if (gameManager.tileManager != null && gameManager.sideBar != null) {
+                dump.append(new GsonBuilder().setPrettyPrinting().create().toJson(gameManager.getSaveGameState()));
+            }
+            return dump.toString();
+        });
+    }
+
+    /**
+     * Get the frame times of the profiling window, in the histogram shared by the readers
+     *
+     * @return Returns the histogram of the frame times, only valid while holding its lock
+     */
+    private LatencyHistogram frameTimes() {
+        return gameManager.getProfiler().getWindow(ProfilePhase.FRAME, frameTimes);
+    }
+
+    /**
+     * Runs a task on the JavaFX thread and waits for it
+     *
+     * @param task The task
+     * @param <T> Type of the result
+     * @return Returns the result of the task
+     */
+    private static <T> T onGameThread(Callable<T> task) {
+        try {
+            if (Platform.isFxApplicationThread()) {
+                return task.call();
+            }
+
+            FutureTask<T> future = new FutureTask<>(task);
+            Platform.runLater(future);
+            return future.get(GAME_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("The game thread did not answer in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the game thread");
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package game.management;
+
+import javax.management.MXBean;
+
+/**
+ * Management interface of the running game, published through JMX so that
+ * jconsole or any JMX client can watch and control a game without a profiler.
+ * @version $revision $
+ */
+@MXBean
+public interface IGameMetrics {
+    /**
+     * @return Number of critters alive in the current wave
+     */
+    int getCritterCount();
+
+    /**
+     * @return Number of towers on the map
+     */
+    int getTowerCount();
+
+    /**
+     * @return Current level, one more than the number of finished waves
+     */
+    int getLevel();
+
+    /**
+     * @return true while a wave is running
+     */
+    boolean isWaveRunning();
+
+    /**
+     * @return true when the game is over
+     */
+    boolean isGameEnded();
+
+    /**
+     * @return Gold available to the player
+     */
+    int getGold();
+
+    /**
+     * @return Frames drawn during the last second
+     */
+    double getFramesPerSecond();
+
+    /**
+     * @return Simulation ticks run during the last second
+     */
+    double getTicksPerSecond();
+
+    /**
+     * @return Simulation ticks run since the start
+     */
+    long getTickCount();
+
+    /**
+     * @return Median frame time of the profiling window, in milliseconds
+     */
+    double getFrameTimeP50Millis();
+
+    /**
+     * @return 99th percentile of the frame time of the profiling window, in milliseconds
+     */
+    double getFrameTimeP99Millis();
+
+    /**
+     * @return Longest frame of the profiling window, in milliseconds
+     */
+    double getFrameTimeMaxMillis();
+
+    /**
+     * @return Average number of bytes allocated by the game thread per frame, -1 if not measured
+     */
+    double getAllocatedBytesPerFrame();
+
+    /**
+     * @return Log records dropped by the asynchronous appenders since the start
+     */
+    long getDroppedLogRecords();
+
+    /**
+     * @return true while the simulation is paused
+     */
+    boolean isPaused();
+
+    /**
+     * @return Simulation ticks per frame, 1 is the normal speed
+     */
+    double getSimulationSpeed();
+
+    /**
+     * @param speed Simulation ticks per frame
+     */
+    void setSimulationSpeed(double speed);
+
+    /**
+     * Stops the simulation
+     */
+    void pause();
+
+    /**
+     * Runs the simulation again
+     */
+    void resume();
+
+    /**
+     * Starts the next wave, if none is running
+     */
+    void startWave();
+
+    /**
+     * @return The saved game state and the metrics, as text
+     */
+    String dumpState();
+}
@@ -2,6 +2,7 @@ package game.pathlogic;
 
 import common.SpriteType;
 import common.Tile;
+import common.diagnostics.PathComputationEvent;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -12,6 +13,8 @@ import java.util.List;
 public class PathFinder {
     private Tile[][] tiles;
     public int rows, columns;
+    private Tile entryPoint;
+    private Tile exitPoint;
 
     /**
      * Default constructor
@@ -30,20 +33,50 @@ public class PathFinder {
      * @return Returns the list of paths from entry point to exit point.
      */
     public LinkedList<Tile> getPaths() {
+        PathComputationEvent event = new PathComputationEvent();
+        event.begin();
+
+        Graph<Tile> graph = buildGraph();
+
+        Search<Tile> search = new Search<>();
+        List<LinkedList<Tile>> paths = search.depthFirst(graph, entryPoint, exitPoint);
+
+        // pick the shortest path
+        LinkedList<Tile> minPath = paths.get(0);
+        for (LinkedList<Tile> path: paths) {
+            if (path.size() < minPath.size()) {
+                minPath = path;
+            }
+        }
+
+        if (event.shouldCommit()) {
+            event.cells = rows * columns;
+            event.paths = paths.size();
+            event.pathLength = minPath.size();
+            event.commit();
+        }
+        return minPath;
+    }
+
+    /**
+     * Builds the graph of the path tiles and looks up the entry and exit points on the way
+     * @return Returns the graph connecting every path tile to its neighbours
+     */
+    public Graph<Tile> buildGraph() {
         Graph<Tile> graph = new Graph<Tile>();
 
-        Tile start = null;
-        Tile end = null;
+        entryPoint = null;
+        exitPoint = null;
 
         for (int x = 0; x < columns; x++) {
             for (int y = 0; y < rows; y++) {
                 Tile tile = tiles[x][y];
                 if (tile != null) {
                     if (tile.getType() == SpriteType.ENTRY_POINT) {
-                        start = tile;
+                        entryPoint = tile;
                     }
                     else if (tile.getType() == SpriteType.EXIT_POINT) {
-                        end = tile;
+                        exitPoint = tile;
                     }
                     else if (tile.getType() != SpriteType.PATH) {
                         continue;
@@ -56,19 +89,23 @@ public class PathFinder {
                 }
             }
         }
+        return graph;
+    }
 
-        Search<Tile> search = new Search<>();
-        List<LinkedList<Tile>> paths = search.depthFirst(graph, start, end);
-
-        // pick the shortest path
-        LinkedList<Tile> minPath = paths.get(0);
-        for (LinkedList<Tile> path: paths) {
-            if (path.size() < minPath.size()) {
-                minPath = path;
-            }
-        }
+    /**
+     * Gets the entry point found by the last {@link #buildGraph()}
+     * @return Returns the entry tile, or null
+     */
+    public Tile getEntryPoint() {
+        return entryPoint;
+    }
 
-        return minPath;
+    /**
+     * Gets the exit point found by the last {@link #buildGraph()}
+     * @return Returns the exit tile, or null
+     */
+    public Tile getExitPoint() {
+        return exitPoint;
     }
 
     /**
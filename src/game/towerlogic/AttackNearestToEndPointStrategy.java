@@ -23,11 +23,12 @@ public class AttackNearestToEndPointStrategy extends AttackStrategyBase {
      */
     public AttackNearestToEndPointStrategy(Tower leTower) {
         super(leTower);
+        // the exit point is an overlay tile, the scenery only holds the background
         for (Tile[] tileArray:
-                GameManager.getInstance().tileManager.getSceneryTiles()) {
+                GameManager.getInstance().tileManager.getTilesOverlay()) {
             for (Tile leTile :
                     tileArray) {
-                if(leTile.getType() == SpriteType.EXIT_POINT){
+                if(leTile != null && leTile.getType() == SpriteType.EXIT_POINT){
                     endPoint = leTile;
                     break;
                 }
@@ -0,0 +1,125 @@
+package game.towerlogic;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local log of a tower, shown in the inspection panel.
+ * The last events are kept in a fixed ring of primitive slots, so adding an event allocates nothing.
+ * The text is only built when somebody reads the log.
+ * @version $revision $
+ */
+public class TowerLog {
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yy-MM-dd HH:mm:SSS").withZone(ZoneId.systemDefault());
+
+    private final long[] timestamps;
+    private final TowerLogEvent[] events;
+    private final double[] arguments;
+    private int next = 0;
+    private int size = 0;
+
+    /**
+     * Default constructor
+     *
+     * @param capacity number of events kept, older events are overwritten
+     */
+    public TowerLog(int capacity) {
+        timestamps = new long[capacity];
+        events = new TowerLogEvent[capacity];
+        arguments = new double[capacity * 2];
+    }
+
+    /**
+     * Adds an event to the log, replacing the oldest one when the log is full
+     *
+     * @param event the event
+     * @param first first argument of the event
+     * @param second second argument of the event
+     */
+    public void add(TowerLogEvent event, double first, double second) {
+        if (events.length == 0) {
+            return;
+        }
+
+        timestamps[next] = System.currentTimeMillis();
+        events[next] = event;
+        arguments[next * 2] = first;
+        arguments[next * 2 + 1] = second;
+
+        next = (next + 1) % events.length;
+        if (size < events.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Gets the number of events in the log
+     *
+     * @return the number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets an event of the log
+     *
+     * @param index index of the event, 0 is the oldest
+     * @return the event
+     */
+    public TowerLogEvent getEvent(int index) {
+        return events[slot(index)];
+    }
+
+    /**
+     * Formats an event of the log as a line of text
+     *
+     * @param index index of the event, 0 is the oldest
+     * @return the line with the date, the priority and the message
+     */
+    public String getLine(int index) {
+        int slot = slot(index);
+        TowerLogEvent event = events[slot];
+
+        return DATE_FORMAT.format(Instant.ofEpochMilli(timestamps[slot])) + " " + event.getPriority() + ": " +
+                event.format(arguments[slot * 2], arguments[slot * 2 + 1]);
+    }
+
+    /**
+     * Formats every event of the log
+     *
+     * @return the lines, oldest first
+     */
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(getLine(i));
+        }
+        return lines;
+    }
+
+    /**
+     * Removes every event
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Converts an index into the slot of the ring holding it
+     *
+     * @param index index of the event, 0 is the oldest
+     * @return the slot
+     */
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (next - size + index + events.length) % events.length;
+    }
+}
@@ -0,0 +1,72 @@
+package game.towerlogic;
+
+/**
+ * Events kept in the local log of a tower. Each event knows its priority and how to
+ * turn its arguments into the text shown in the inspection panel.
+ * @version $revision $
+ */
+public enum TowerLogEvent {
+    INITIALIZING,
+    SETTING_INITIAL_VALUES,
+    LEVEL_CHANGED,
+    LEVELS_ADDED,
+    CAN_BUY_CHANGED,
+    STRATEGY_CHANGED,
+    READY_TO_FIRE,
+    CRITTERS_IN_RANGE,
+    TARGETS_IN_RANGE,
+    SPLASH_APPLIED,
+    SPLASH_TARGETS_IN_RANGE,
+    BURN_APPLIED,
+    FREEZE_APPLIED;
+
+    private static final AttackStrategyEnum[] STRATEGIES = AttackStrategyEnum.values();
+
+    /**
+     * Gets the priority written in front of the message
+     *
+     * @return the priority
+     */
+    public String getPriority() {
+        return "Info";
+    }
+
+    /**
+     * Builds the message of the event
+     *
+     * @param first first argument of the event, if any
+     * @param second second argument of the event, if any
+     * @return the readable message
+     */
+    public String format(double first, double second) {
+        switch (this) {
+            case INITIALIZING:
+                return "Initializing";
+            case SETTING_INITIAL_VALUES:
+                return "Setting initial values";
+            case LEVEL_CHANGED:
+                return "Setting new level: " + (int) first;
+            case LEVELS_ADDED:
+                return "Adding " + (int) first + " levels";
+            case CAN_BUY_CHANGED:
+                return "canBuy changed to: " + (first != 0);
+            case STRATEGY_CHANGED:
+                return "Strategy changed to " + STRATEGIES[(int) first];
+            case READY_TO_FIRE:
+                return "Ready to Fire";
+            case CRITTERS_IN_RANGE:
+                return "Found " + (int) first + " critters within range";
+            case TARGETS_IN_RANGE:
+            case SPLASH_TARGETS_IN_RANGE:
+                return "Found " + (int) first + " within range";
+            case SPLASH_APPLIED:
+                return "Appliying splash effect";
+            case BURN_APPLIED:
+                return "Applying burn effect of " + (float) first + " for " + second + " seconds";
+            case FREEZE_APPLIED:
+                return "Applying freeze effect of " + (float) first;
+            default:
+                return name();
+        }
+    }
+}
@@ -93,6 +93,7 @@ public class CreateMapDialogController implements Initializable {
                 LOGGER.info("Showing window");
                 stage.show();
                 stage.setHeight(stage.getHeight() - 12);
+                mapManager.suspendWhenHidden(stage);
 
                 stage.setOnCloseRequest(event -> {
                     try {
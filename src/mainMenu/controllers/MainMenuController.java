@@ -1,10 +1,11 @@
 package mainmenu.controllers;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import common.Helper;
 import common.Settings;
+import common.TileManager;
 import game.GameManager;
+import game.gamestate.AutoSaver;
 import game.gamestate.GameState;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -19,11 +20,13 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
+import map.MapGrid;
 import map.MapManager;
 import org.apache.log4j.Logger;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.util.ResourceBundle;
 
 /**
@@ -43,6 +46,7 @@ public class MainMenuController implements Initializable{
     private ListView mapListView;
 
     private ObservableList<String> savedMaps;
+    private static final long SAVE_TIMEOUT = 5000; // milliseconds
     private static final Logger LOGGER = Logger.getLogger(MainMenuController.class);
 
     /**
@@ -87,15 +91,11 @@ public class MainMenuController implements Initializable{
         LOGGER.info("Edit Map Button Clicked");
         String selectedMap = (String) mapListView.getSelectionModel().getSelectedItem();
         if (selectedMap != null) {
-            String mapContent = Helper.loadMap(selectedMap);
-            if (mapContent != null) {
+            MapGrid mapGrid = Helper.loadMapGrid(selectedMap);
+            if (mapGrid != null) {
                 LOGGER.info("Detected content in the map file");
-                String[] mapData = mapContent.split(System.getProperty("line.separator"));
-
-                LOGGER.info("Processing map file");
-                int sIndex = mapData[0].indexOf(",");
-                int columns = Integer.parseInt(mapData[0].substring(0, sIndex));
-                int rows = Integer.parseInt(mapData[0].substring(sIndex + 1, mapData[0].length()));
+                int columns = mapGrid.getColumns();
+                int rows = mapGrid.getRows();
 
                 LOGGER.info("Map file processed, setting up window");
                 Stage stage = new Stage();
@@ -106,12 +106,13 @@ public class MainMenuController implements Initializable{
 
                 LOGGER.info("Setting up map manager");
                 MapManager mapManager = MapManager.create(root, selectedMap, rows, columns);
-                mapManager.loadMapData(mapData);
+                mapManager.loadMapGrid(mapGrid);
                 mapManager.start();
 
                 LOGGER.info("Window ready to show");
                 stage.show();
                 stage.setHeight(stage.getHeight() - 12);
+                mapManager.suspendWhenHidden(stage);
 
                 stage.setOnCloseRequest(event -> {
                     LOGGER.info("Detected window closing, parsing data to save");
@@ -205,14 +206,9 @@ public class MainMenuController implements Initializable{
         String selectedMap = (String) mapListView.getSelectionModel().getSelectedItem();
         if (selectedMap != null) {
             LOGGER.info("Detected a selected map");
-            String mapContent = Helper.loadMap(selectedMap);
-            if (mapContent != null) {
+            MapGrid mapGrid = Helper.loadMapGrid(selectedMap);
+            if (mapGrid != null) {
                 LOGGER.info("Information in map file is valid. Loading Map");
-                String[] mapData = mapContent.split(System.getProperty("line.separator"));
-
-                int sIndex = mapData[0].indexOf(",");
-                int columns = Integer.parseInt(mapData[0].substring(0, sIndex));
-                int rows = Integer.parseInt(mapData[0].substring(sIndex + 1, mapData[0].length()));
 
                 Stage stage = new Stage();
                 Group root = new Group();
@@ -221,20 +217,27 @@ public class MainMenuController implements Initializable{
                 stage.setResizable(false);
 
                 LOGGER.info("Loading game manager");
-                GameManager.getInstance().initialize(root, rows, columns, mapData);
+                GameManager.getInstance().initialize(root, new TileManager(mapGrid));
+                GameState savedState = null;
                 if (loadSavedGame) {
                     LOGGER.info("Loading saved game");
-                    GameManager.getInstance().setSaveGameState(loadGameState(selectedMap));
+                    savedState = loadGameState(selectedMap);
+                    GameManager.getInstance().setSaveGameState(savedState);
                 }
+                AutoSaver autoSaver = new AutoSaver(Paths.get(Settings.USER_GAME_STATE_DIRECTORY, selectedMap),
+                        Settings.AUTOSAVE_INTERVAL, savedState);
+                GameManager.getInstance().setAutoSaver(autoSaver);
                 GameManager.getInstance().start();
                 stage.show();
                 stage.setHeight(stage.getHeight() - 12);
+                GameManager.getInstance().suspendWhenHidden(stage);
 
                 stage.setOnCloseRequest(event -> {
                     LOGGER.info("Detected close request");
                     GameManager.getInstance().stop();
+                    GameManager.getInstance().setAutoSaver(null);
                     LOGGER.info("Attempting to save game state");
-                    saveGameState(selectedMap);
+                    saveGameState(autoSaver);
                 });
             }
             else{
@@ -244,21 +247,18 @@ public class MainMenuController implements Initializable{
     }
 
     /**
-     * Save the game state to the file
+     * Save the game state to the file, waiting for the write to finish
      *
-     * @param mapName name of the map
+     * @param autoSaver saver of the game
      */
-    private void saveGameState(String mapName) {
-        GameState gameState = GameManager.getInstance().getSaveGameState();
-        if (gameState.towers.size() > 0 ||
-                gameState.level > 1) {
-            LOGGER.info("Saving game state");
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            String json = gson.toJson(gameState);
-            Helper.saveGameState(mapName, json);
-        }
-        else{
-            LOGGER.warn("Nothing to save");
+    private void saveGameState(AutoSaver autoSaver) {
+        autoSaver.save(GameManager.getInstance().getSaveGameState());
+        try {
+            if (!autoSaver.close(SAVE_TIMEOUT)) {
+                LOGGER.error("Game state still being saved after " + SAVE_TIMEOUT + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -0,0 +1,362 @@
+package map;
+
+import common.Helper;
+import common.SpriteType;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary map files, for the huge maps whose text file takes seconds to parse. A file is a header of
+ * {@value #HEADER_SIZE} bytes followed by the cells of a {@link MapGrid}, column after column:
+ * <pre>
+ * 0  "TDMP"
+ * 4  version, 1
+ * 5  encoding, 0 for one byte per cell, 1 for runs of cells
+ * 6  2 bytes reserved, 0
+ * 8  columns, 4 bytes big endian
+ * 12 rows, 4 bytes big endian
+ * </pre>
+ * Each cell holds the code of its type of tile: {@value #SCENERY_CODE} for the scenery,
+ * {@value #PATH_CODE} for the path, {@value #ENTRY_POINT_CODE} for the entry point and
+ * {@value #EXIT_POINT_CODE} for the exit point. The codes are part of the format and never change,
+ * whatever the order of {@link SpriteType}; towers and critters are not part of a map and have no code.
+ * <p>
+ * A run is the byte of the cells followed by the length of the run, 7 bits per byte, low bits first,
+ * the high bit set on every byte but the last. Maps are mostly scenery, so runs make them a lot smaller.
+ * <p>
+ * The files are mapped in memory to be read, so loading is a copy of the cells into the grid, and
+ * written to a temporary file renamed over the map, so a crash while saving never leaves half a map.
+ * It can also be run from the command line to convert the text map files:
+ * {@code BinaryMapFormat <import|export> <source> <target> [raw|rle]}
+ * @version $revision $
+ */
+public class BinaryMapFormat {
+    public static final int HEADER_SIZE = 16;
+    public static final String EXTENSION = ".tdmap";
+
+    // codes of the types of tile in the cells, stored in the files: never change them
+    public static final byte SCENERY_CODE = 0;
+    public static final byte PATH_CODE = 1;
+    public static final byte ENTRY_POINT_CODE = 2;
+    public static final byte EXIT_POINT_CODE = 3;
+
+    private static final byte[] MAGIC = {'T', 'D', 'M', 'P'};
+    private static final byte VERSION = 1;
+    private static final byte RAW = 0;
+    private static final byte RLE = 1;
+    // types of tile by code
+    private static final SpriteType[] TYPES = {
+            SpriteType.SCENERY, SpriteType.PATH, SpriteType.ENTRY_POINT, SpriteType.EXIT_POINT
+    };
+
+    private static final Logger LOGGER = Logger.getLogger(BinaryMapFormat.class);
+
+    /**
+     * Check whether a file is a binary map
+     *
+     * @param path The file
+     * @return Returns true if the file starts with the header of the binary maps
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinaryMap(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // read the whole magic
+            }
+            return !magic.hasRemaining() && hasMagic(magic, 0);
+        }
+    }
+
+    /**
+     * Loads a binary map
+     *
+     * @param path The file
+     * @return Returns the map
+     * @throws IOException if the file cannot be read or is not a valid binary map
+     */
+    public static MapGrid read(Path path) throws IOException {
+        long start = System.nanoTime();
+
+        MapGrid grid;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Map file too big: " + path);
+            }
+            // the cells are copied out of the mapping, which is dropped here and never handed out
+            grid = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+
+        LOGGER.info("Loaded a binary map of " + grid.getColumns() + "x" + grid.getRows() + " in " +
+                ((System.nanoTime() - start) / 1000000) + " ms");
+        return grid;
+    }
+
+    /**
+     * Reads a binary map
+     *
+     * @param buffer The content of the file, from its position to its limit
+     * @return Returns the map
+     * @throws IOException if the content is not a valid binary map
+     */
+    public static MapGrid read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || !hasMagic(buffer, buffer.position())) {
+            throw new IOException("Not a binary map");
+        }
+        int base = buffer.position();
+        byte version = buffer.get(base + 4);
+        byte encoding = buffer.get(base + 5);
+        int columns = buffer.getInt(base + 8);
+        int rows = buffer.getInt(base + 12);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary map version: " + version);
+        }
+
+        int size;
+        try {
+            size = MapGrid.checkedSize(columns, rows);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+
+        buffer.position(base + HEADER_SIZE);
+        byte[] cells = new byte[size];
+        if (encoding == RAW) {
+            if (buffer.remaining() != size) {
+                throw new IOException("Expected " + size + " cells, found " + buffer.remaining());
+            }
+            buffer.get(cells);
+            for (byte cell : cells) {
+                checkCell(cell);
+            }
+        } else if (encoding == RLE) {
+            decodeRuns(buffer, cells);
+        } else {
+            throw new IOException("Unknown binary map encoding: " + encoding);
+        }
+        return new MapGrid(columns, rows, cells);
+    }
+
+    /**
+     * Writes a binary map
+     *
+     * @param grid The map
+     * @param path The file, replaced at once if it exists, so a failed write leaves it as it was
+     * @param compress True to store runs of cells, false for one byte per cell
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(MapGrid grid, Path path, boolean compress) throws IOException {
+        byte[] body = compress ? encodeRuns(grid.getCells()) : grid.getCells();
+        ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        content.put(MAGIC);
+        content.put(VERSION);
+        content.put(compress ? RLE : RAW);
+        content.putShort((short) 0);
+        content.putInt(grid.getColumns());
+        content.putInt(grid.getRows());
+        content.put(body);
+
+        Helper.writeAtomically(path, content.array());
+    }
+
+    /**
+     * Converts a text map file into a binary map
+     *
+     * @param in The text map, it is not closed
+     * @param path The binary map, replaced if it exists
+     * @param compress True to store runs of cells
+     * @throws MapFormatException if the text map is malformed
+     * @throws IOException if a file fails
+     */
+    public static void importText(Reader in, Path path, boolean compress) throws IOException {
+        write(TextMapParser.parse(in), path, compress);
+    }
+
+    /**
+     * Converts a binary map into a text map file
+     *
+     * @param path The binary map
+     * @param out The text map, it is not closed
+     * @throws IOException if a file fails or the binary map is not valid
+     */
+    public static void exportText(Path path, Writer out) throws IOException {
+        read(path).write(out);
+    }
+
+    /**
+     * Converts maps between the text and the binary formats
+     *
+     * @param args import or export, the source and target files, and raw or rle for the imports
+     * @throws IOException if the conversion fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: BinaryMapFormat <import|export> <source> <target> [raw|rle]");
+            return;
+        }
+
+        Path source = Paths.get(args[1]);
+        Path target = Paths.get(args[2]);
+        if (args[0].equals("export")) {
+            try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                exportText(source, out);
+            }
+        } else {
+            boolean compress = args.length < 4 || !args[3].equals("raw");
+            try (Reader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                importText(in, target, compress);
+            }
+        }
+    }
+
+    /**
+     * Get the code of a type of tile
+     *
+     * @param type The type
+     * @return Returns the code stored in the cells
+     * @throws IllegalArgumentException if the type is not part of a map, like the towers and the critters
+     */
+    public static byte toCode(SpriteType type) {
+        switch (type) {
+            case SCENERY:
+                return SCENERY_CODE;
+            case PATH:
+                return PATH_CODE;
+            case ENTRY_POINT:
+                return ENTRY_POINT_CODE;
+            case EXIT_POINT:
+                return EXIT_POINT_CODE;
+            default:
+                throw new IllegalArgumentException("Not a tile type of a map: " + type);
+        }
+    }
+
+    /**
+     * Get the type of tile of a code
+     *
+     * @param code The code stored in a cell
+     * @return Returns the type
+     * @throws MapFormatException if no type has this code
+     */
+    public static SpriteType toType(byte code) throws MapFormatException {
+        checkCell(code);
+        return TYPES[code];
+    }
+
+    /**
+     * Get the type of tile of a code already checked
+     *
+     * @param code A valid code
+     * @return Returns the type
+     */
+    static SpriteType typeOf(byte code) {
+        return TYPES[code];
+    }
+
+    /**
+     * Check whether the magic bytes are at a position
+     *
+     * @param buffer The buffer
+     * @param position Position of the magic
+     * @return Returns true if they are
+     */
+    private static boolean hasMagic(ByteBuffer buffer, int position) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(position + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a cell holds the code of a type of tile
+     *
+     * @param cell The cell
+     * @throws MapFormatException if it does not
+     */
+    private static void checkCell(byte cell) throws MapFormatException {
+        if (cell < 0 || cell >= TYPES.length) {
+            throw new MapFormatException("Invalid tile type code in binary map: " + cell);
+        }
+    }
+
+    /**
+     * Encodes cells into runs
+     *
+     * @param cells The cells
+     * @return Returns the runs
+     */
+    private static byte[] encodeRuns(byte[] cells) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int i = 0;
+        while (i < cells.length) {
+            byte cell = cells[i];
+            int end = i + 1;
+            while (end < cells.length && cells[end] == cell) {
+                end++;
+            }
+
+            out.write(cell);
+            int length = end - i;
+            while (length >= 0x80) {
+                out.write((length & 0x7f) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+            i = end;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes runs into cells
+     *
+     * @param buffer The runs, from the position to the limit
+     * @param cells The cells to fill, all of them
+     * @throws IOException if the runs are malformed or do not fill the cells exactly
+     */
+    private static void decodeRuns(ByteBuffer buffer, byte[] cells) throws IOException {
+        int index = 0;
+        while (buffer.hasRemaining()) {
+            byte cell = buffer.get();
+            checkCell(cell);
+
+            long length = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (!buffer.hasRemaining() || shift > 28) {
+                    throw new IOException("Malformed run in binary map");
+                }
+                b = buffer.get() & 0xff;
+                length |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            if (length == 0 || index + length > cells.length) {
+                throw new IOException("Runs of the binary map do not match its size");
+            }
+            int end = (int) (index + length);
+            if (cell != 0) {
+                Arrays.fill(cells, index, end, cell);
+            }
+            index = end;
+        }
+        if (index != cells.length) {
+            throw new IOException("Expected " + cells.length + " cells, found " + index);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package map;
+
+/**
+ * Map built by the {@link MapGenerator}. It is a {@link MapGrid}, so it is written and stored like any
+ * other map; the generator also keeps count of the path tiles and sets the cells by their code.
+ * @version $revision $
+ */
+public class GeneratedMap extends MapGrid {
+    static final byte EMPTY = BinaryMapFormat.SCENERY_CODE;
+    static final byte PATH = BinaryMapFormat.PATH_CODE;
+    static final byte ENTRY_POINT = BinaryMapFormat.ENTRY_POINT_CODE;
+    static final byte EXIT_POINT = BinaryMapFormat.EXIT_POINT_CODE;
+
+    private int pathTileCount = 0;
+
+    /**
+     * Main constructor, the map starts without any path
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     */
+    GeneratedMap(int columns, int rows) {
+        super(columns, rows);
+        if (columns < 2) {
+            throw new IllegalArgumentException("Map too small: " + columns + "x" + rows);
+        }
+    }
+
+    /**
+     * Get the number of tiles of the path, the entry and exit points included
+     *
+     * @return Returns the number of lines of the map file after the first one
+     */
+    public int getPathTileCount() {
+        return pathTileCount;
+    }
+
+    /**
+     * Check whether a tile is part of the path
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @return Returns false for empty tiles and positions outside the map
+     */
+    public boolean isPath(int x, int y) {
+        return x >= 0 && x < getColumns() && y >= 0 && y < getRows() && getCells()[index(x, y)] != EMPTY;
+    }
+
+    /**
+     * Sets a tile
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @param type One of PATH, ENTRY_POINT and EXIT_POINT
+     */
+    void set(int x, int y, byte type) {
+        int index = index(x, y);
+        byte[] cells = getCells();
+        if (cells[index] == EMPTY) {
+            pathTileCount++;
+        }
+        cells[index] = type;
+    }
+
+    /**
+     * Converts a position into an index of the cells
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @return Returns the index
+     */
+    private int index(int x, int y) {
+        return (x * getRows()) + y;
+    }
+}
@@ -0,0 +1,43 @@
+package map;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a map file is malformed, with the number of the faulty line for the text map files
+ * @version $revision $
+ */
+public class MapFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+
+    /**
+     * Main constructor
+     *
+     * @param line Number of the faulty line, starting at 1
+     * @param message What is wrong with the line
+     */
+    public MapFormatException(int line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     * Constructor for the binary map files, which have no lines
+     *
+     * @param message What is wrong with the file
+     */
+    public MapFormatException(String message) {
+        super(message);
+        this.line = 0;
+    }
+
+    /**
+     * Get the number of the faulty line
+     *
+     * @return Returns the line, starting at 1, or 0 for the binary map files
+     */
+    public int getLine() {
+        return line;
+    }
+}
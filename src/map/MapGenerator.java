@@ -0,0 +1,276 @@
+package map;
+
+import common.Settings;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Generates maps for stress and scaling tests. The same seed and parameters always give the same map.
+ * Every map has one entry point on the left border, one exit point on the right border, and a path
+ * connecting them; paths never touch each other except where the layout joins them on purpose.
+ * <p>
+ * It can also be run from the command line to write a map into the folder of the user maps:
+ * {@code MapGenerator <randomWalk|maze|branches|openField> <columns> <rows> <seed> <name> [loops|branches]};
+ * names ending with {@value BinaryMapFormat#EXTENSION} are written as binary maps.
+ * @version $revision $
+ */
+public class MapGenerator {
+    private static final double TURN_PROBABILITY = 0.5;
+
+    private final Random random;
+
+    private static final Logger LOGGER = Logger.getLogger(MapGenerator.class);
+
+    /**
+     * Main constructor
+     *
+     * @param seed Seed of the random choices
+     */
+    public MapGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a single corridor wandering from the left border to the right border. The corridor turns
+     * in every other column, so it never runs next to itself.
+     *
+     * @param columns Number of columns, at least 2
+     * @param rows Number of rows
+     * @return Returns the map
+     */
+    public GeneratedMap randomWalk(int columns, int rows) {
+        GeneratedMap map = new GeneratedMap(columns, rows);
+
+        int entryY = random.nextInt(rows);
+        int y = entryY;
+        for (int x = 0; x < columns; x += 2) {
+            int target = random.nextDouble() < TURN_PROBABILITY ? random.nextInt(rows) : y;
+            map.set(x, y, GeneratedMap.PATH);
+            while (y != target) {
+                y += target > y ? 1 : -1;
+                map.set(x, y, GeneratedMap.PATH);
+            }
+            if (x + 1 < columns) {
+                map.set(x + 1, y, GeneratedMap.PATH);
+            }
+        }
+
+        map.set(0, entryY, GeneratedMap.ENTRY_POINT);
+        map.set(columns - 1, y, GeneratedMap.EXIT_POINT);
+        LOGGER.info("Generated a random walk of " + map.getPathTileCount() + " tiles");
+        return map;
+    }
+
+    /**
+     * Generates a maze filling the whole map. The rooms sit on the even columns and rows and are joined
+     * into a tree by a depth first walk; then walls between rooms are opened, each one adding a loop.
+     *
+     * @param columns Number of columns, at least 2
+     * @param rows Number of rows
+     * @param loops Number of loops, 0 gives exactly one way from the entry to the exit
+     * @return Returns the map
+     * @throws IllegalArgumentException if there are not enough walls to open for the loops
+     */
+    public GeneratedMap maze(int columns, int rows, int loops) {
+        GeneratedMap map = new GeneratedMap(columns, rows);
+        int roomColumns = (columns + 1) / 2;
+        int roomRows = (rows + 1) / 2;
+
+        int walls = ((roomColumns - 1) * roomRows) + (roomColumns * (roomRows - 1)) - ((roomColumns * roomRows) - 1);
+        if (loops < 0 || loops > walls) {
+            throw new IllegalArgumentException("A maze of " + columns + "x" + rows + " cannot have " + loops + " loops");
+        }
+
+        // depth first walk through the rooms, with an explicit stack for the huge maps
+        int entryRoom = random.nextInt(roomRows);
+        int[] stack = new int[roomColumns * roomRows];
+        int[] neighbours = new int[4];
+        int top = 0;
+        stack[top++] = entryRoom;
+        map.set(0, 2 * entryRoom, GeneratedMap.PATH);
+
+        while (top > 0) {
+            int room = stack[top - 1];
+            int i = room / roomRows;
+            int j = room % roomRows;
+
+            int count = 0;
+            if (i > 0 && !map.isPath(2 * (i - 1), 2 * j)) neighbours[count++] = room - roomRows;
+            if (i < roomColumns - 1 && !map.isPath(2 * (i + 1), 2 * j)) neighbours[count++] = room + roomRows;
+            if (j > 0 && !map.isPath(2 * i, 2 * (j - 1))) neighbours[count++] = room - 1;
+            if (j < roomRows - 1 && !map.isPath(2 * i, 2 * (j + 1))) neighbours[count++] = room + 1;
+
+            if (count == 0) {
+                top--;
+                continue;
+            }
+
+            int next = neighbours[random.nextInt(count)];
+            int nextI = next / roomRows;
+            int nextJ = next % roomRows;
+            map.set(i + nextI, j + nextJ, GeneratedMap.PATH);
+            map.set(2 * nextI, 2 * nextJ, GeneratedMap.PATH);
+            stack[top++] = next;
+        }
+
+        // open walls between rooms until there are enough loops
+        int opened = 0;
+        while (opened < loops) {
+            int i = random.nextInt(roomColumns);
+            int j = random.nextInt(roomRows);
+            boolean right = random.nextBoolean();
+            if (right ? i == roomColumns - 1 : j == roomRows - 1) {
+                continue;
+            }
+
+            int x = right ? (2 * i) + 1 : 2 * i;
+            int y = right ? 2 * j : (2 * j) + 1;
+            if (!map.isPath(x, y)) {
+                map.set(x, y, GeneratedMap.PATH);
+                opened++;
+            }
+        }
+
+        map.set(0, 2 * entryRoom, GeneratedMap.ENTRY_POINT);
+        // with an even number of columns the last column has no rooms, the exit is put next to the last room
+        map.set(columns - 1, 2 * random.nextInt(roomRows), GeneratedMap.EXIT_POINT);
+        LOGGER.info("Generated a maze of " + map.getPathTileCount() + " tiles with " + loops + " loops");
+        return map;
+    }
+
+    /**
+     * Generates a path splitting into parallel branches that join again before the exit. Two spines
+     * join the branches, so a critter can also switch branches at both ends.
+     *
+     * @param columns Number of columns, at least 5
+     * @param rows Number of rows, at least twice the number of branches minus one
+     * @param branches Number of branches, at least 1
+     * @return Returns the map
+     * @throws IllegalArgumentException if the branches do not fit in the map
+     */
+    public GeneratedMap branches(int columns, int rows, int branches) {
+        int slots = (rows + 1) / 2;
+        if (branches < 1 || branches > slots || columns < 5) {
+            throw new IllegalArgumentException(branches + " branches do not fit in a map of " + columns + "x" + rows);
+        }
+        GeneratedMap map = new GeneratedMap(columns, rows);
+
+        // branches on distinct even rows, so they never run next to each other
+        int[] branchRows = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            branchRows[i] = 2 * i;
+        }
+        int top = Integer.MAX_VALUE;
+        int bottom = 0;
+        for (int i = 0; i < branches; i++) {
+            int pick = i + random.nextInt(slots - i);
+            int row = branchRows[pick];
+            branchRows[pick] = branchRows[i];
+            branchRows[i] = row;
+
+            top = Math.min(top, row);
+            bottom = Math.max(bottom, row);
+        }
+
+        int left = 1 + random.nextInt(Math.max(1, (columns / 3) - 1));
+        int right = Math.max(left + 2, columns - 2 - random.nextInt(Math.max(1, columns / 3)));
+
+        for (int i = 0; i < branches; i++) {
+            for (int x = left; x <= right; x++) {
+                map.set(x, branchRows[i], GeneratedMap.PATH);
+            }
+        }
+        for (int y = top; y <= bottom; y++) {
+            map.set(left, y, GeneratedMap.PATH);
+            map.set(right, y, GeneratedMap.PATH);
+        }
+
+        int entryY = branchRows[random.nextInt(branches)];
+        for (int x = 0; x < left; x++) {
+            map.set(x, entryY, GeneratedMap.PATH);
+        }
+        int exitY = branchRows[random.nextInt(branches)];
+        for (int x = right + 1; x < columns; x++) {
+            map.set(x, exitY, GeneratedMap.PATH);
+        }
+
+        map.set(0, entryY, GeneratedMap.ENTRY_POINT);
+        map.set(columns - 1, exitY, GeneratedMap.EXIT_POINT);
+        LOGGER.info("Generated " + branches + " branches over " + map.getPathTileCount() + " tiles");
+        return map;
+    }
+
+    /**
+     * Generates an open field: every cell is a path tile. There is a way from the entry to the exit
+     * through any cell, so the field has more paths than any other layout of the same size.
+     *
+     * @param columns Number of columns, at least 2
+     * @param rows Number of rows
+     * @return Returns the map
+     */
+    public GeneratedMap openField(int columns, int rows) {
+        GeneratedMap map = new GeneratedMap(columns, rows);
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++) {
+                map.set(x, y, GeneratedMap.PATH);
+            }
+        }
+
+        map.set(0, random.nextInt(rows), GeneratedMap.ENTRY_POINT);
+        map.set(columns - 1, random.nextInt(rows), GeneratedMap.EXIT_POINT);
+        LOGGER.info("Generated an open field of " + map.getPathTileCount() + " tiles");
+        return map;
+    }
+
+    /**
+     * Writes a generated map into the folder of the user maps
+     *
+     * @param args Layout, columns, rows, seed, name of the map, and the loops or branches if needed
+     * @throws IOException if the map cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.out.println("Usage: MapGenerator <randomWalk|maze|branches|openField> <columns> <rows> <seed> <name> [loops|branches]");
+            return;
+        }
+
+        int columns = Integer.parseInt(args[1]);
+        int rows = Integer.parseInt(args[2]);
+        MapGenerator generator = new MapGenerator(Long.parseLong(args[3]));
+        int extra = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+
+        GeneratedMap map;
+        switch (args[0]) {
+            case "maze":
+                map = generator.maze(columns, rows, extra);
+                break;
+            case "branches":
+                map = generator.branches(columns, rows, Math.max(1, extra));
+                break;
+            case "openField":
+                map = generator.openField(columns, rows);
+                break;
+            default:
+                map = generator.randomWalk(columns, rows);
+                break;
+        }
+
+        if (args[4].endsWith(BinaryMapFormat.EXTENSION)) {
+            BinaryMapFormat.write(map, Paths.get(Settings.USER_MAP_DIRECTORY, args[4]), true);
+            return;
+        }
+
+        Writer out = new BufferedWriter(new FileWriter(Settings.USER_MAP_DIRECTORY + "/" + args[4]));
+        try {
+            map.write(out);
+        } finally {
+            out.close();
+        }
+    }
+}
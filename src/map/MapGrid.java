@@ -0,0 +1,222 @@
+package map;
+
+import common.SpriteType;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Tiles of a map, one byte per cell holding the code of the {@link SpriteType} of the overlay tile given by
+ * the {@link BinaryMapFormat}; the scenery is 0, as it has no overlay tile. The cells are stored column after column, like the
+ * overlay of the {@link common.TileManager}.
+ * <p>
+ * The text map files are parsed into a grid by the {@link TextMapParser}, and the
+ * {@link BinaryMapFormat} stores the cells as they are.
+ * @version $revision $
+ */
+public class MapGrid {
+    private final int columns;
+    private final int rows;
+    private final byte[] cells;
+
+    /**
+     * Main constructor, the map starts as scenery only
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     */
+    public MapGrid(int columns, int rows) {
+        this(columns, rows, new byte[checkedSize(columns, rows)]);
+    }
+
+    /**
+     * Constructor over existing cells, they are not copied
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     * @param cells Cells, column after column
+     */
+    MapGrid(int columns, int rows, byte[] cells) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cells = cells;
+    }
+
+    /**
+     * Get the number of columns
+     *
+     * @return Returns the width of the map in tiles
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return Returns the height of the map in tiles
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the type of a tile
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @return Returns the type, SCENERY where there is no overlay tile
+     */
+    public SpriteType getType(int x, int y) {
+        return BinaryMapFormat.typeOf(cells[(x * rows) + y]);
+    }
+
+    /**
+     * Sets the type of a tile
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @param type The type, SCENERY to remove the overlay tile
+     * @throws IllegalArgumentException if the type is not part of a map, like the towers and the critters
+     */
+    public void setType(int x, int y, SpriteType type) {
+        cells[(x * rows) + y] = BinaryMapFormat.toCode(type);
+    }
+
+    /**
+     * Get the cells, for the binary format
+     *
+     * @return Returns the cells, column after column
+     */
+    byte[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Parses the lines of a text map file
+     *
+     * @param mapData Lines of the map, the first one holding "columns,rows"
+     * @return Returns the map
+     * @throws IllegalArgumentException if a line is malformed or a tile is outside the map
+     */
+    public static MapGrid fromMapData(String[] mapData) {
+        try {
+            return TextMapParser.parse(mapData);
+        } catch (MapFormatException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the lines of a text map file of a known size; the first line is skipped
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     * @param mapData Lines of the map
+     * @return Returns the map
+     * @throws IllegalArgumentException if a line is malformed or a tile is outside the map
+     */
+    public static MapGrid fromMapData(int columns, int rows, String[] mapData) {
+        try {
+            return TextMapParser.parse(columns, rows, mapData);
+        } catch (MapFormatException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds the lines of the text map file
+     *
+     * @return Returns the lines, the first one holding the size
+     */
+    public String[] toMapData() {
+        int tiles = 0;
+        for (byte cell : cells) {
+            if (cell != 0) {
+                tiles++;
+            }
+        }
+
+        String[] mapData = new String[tiles + 1];
+        mapData[0] = columns + "," + rows;
+
+        int line = 1;
+        int index = 0;
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++, index++) {
+                if (cells[index] != 0) {
+                    mapData[line++] = tileLine(x, y, cells[index]);
+                }
+            }
+        }
+        return mapData;
+    }
+
+    /**
+     * Writes the map in the text format, in the same order as the map editor saves it
+     *
+     * @param out Writer to write to, it is not closed
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer out) throws IOException {
+        String lineSeparator = System.getProperty("line.separator");
+
+        out.write(columns + "," + rows);
+        out.write(lineSeparator);
+
+        int index = 0;
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++, index++) {
+                if (cells[index] != 0) {
+                    out.write(tileLine(x, y, cells[index]));
+                    out.write(lineSeparator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the content of the text map file
+     *
+     * @return Returns the map in the text format
+     */
+    @Override
+    public String toString() {
+        StringWriter out = new StringWriter();
+        try {
+            write(out);
+        } catch (IOException e) {
+            // a StringWriter does not fail
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Builds the line of an overlay tile in the text format
+     *
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @param cell Code of its type
+     * @return Returns the line, without its end
+     */
+    private static String tileLine(int x, int y, byte cell) {
+        return x + "," + y + ":" + BinaryMapFormat.typeOf(cell).toString();
+    }
+
+    /**
+     * Checks the size of a map
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     * @return Returns the number of cells
+     * @throws IllegalArgumentException if the map is empty or too big for one array
+     */
+    static int checkedSize(long columns, long rows) {
+        if (columns < 1 || rows < 1 || columns * rows > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Invalid map size: " + columns + "x" + rows);
+        }
+        return (int) (columns * rows);
+    }
+}
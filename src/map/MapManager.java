@@ -2,6 +2,8 @@ package map;
 
 import common.*;
 import common.core.*;
+import common.render.FxRenderer;
+import common.render.IRenderer;
 import javafx.scene.Group;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -21,7 +23,7 @@ public class MapManager extends GameLoop implements Observer {
     public TileManager tileManager;
     public SideBar sideBar;
 
-    private GraphicsContext gc;
+    private IRenderer renderer;
     private String mapName;
     private double width;
     private double height;
@@ -39,7 +41,7 @@ public class MapManager extends GameLoop implements Observer {
      * @param columns The number of columns in the Map
      */
     public MapManager(GraphicsContext gc, IMouseHandler mouseHandler, String name, int rows, int columns) {
-        this.gc = gc;
+        this.renderer = new FxRenderer(gc);
         this.mapName = name;
         this.width = gc.getCanvas().getWidth();
         this.height = gc.getCanvas().getHeight();
@@ -103,12 +105,12 @@ public class MapManager extends GameLoop implements Observer {
     }
     /**
      * Loads the Map in TileManager
-     * @param mapData Map data as Array of string
+     * @param grid Tiles of the map, text or binary
      */
-    public void loadMapData(String[] mapData) {
-        LOGGER.info("Loading map from map data");
-        Helper.loadTileManagerFromMapData(tileManager, mapData);
-        LOGGER.info("Map loaded from map data");
+    public void loadMapGrid(MapGrid grid) {
+        LOGGER.info("Loading map from map grid");
+        tileManager.loadOverlay(grid);
+        LOGGER.info("Map loaded from map grid");
     }
 
     /**
@@ -120,6 +122,7 @@ public class MapManager extends GameLoop implements Observer {
     @Override
     public void update(Observable o, Object arg) {
         MouseState mouseState = (MouseState) arg;
+        requestRedraw();
 
         tileManager.update(mouseState);
         sideBar.update(mouseState);
@@ -146,13 +149,21 @@ public class MapManager extends GameLoop implements Observer {
     @Override
     protected void update(double delta) {
     }
+    /**
+     * The editor only changes on user input, so it is always idle between mouse events.
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isIdle() {
+        return true;
+    }
     /**
      * Overridden Gameloop clear method to clear contents
      * {@inheritDoc}
      */
     @Override
     protected void clear() {
-        gc.clearRect(0, 0, width, height);
+        renderer.clearRect(0, 0, width, height);
     }
     /**
      * Overridden Gameloop draw method to draw Map and SideBar after each GameLoop iteration
@@ -160,13 +171,13 @@ public class MapManager extends GameLoop implements Observer {
      */
     @Override
     protected void draw() {
-        tileManager.draw(gc);
-        sideBar.draw(gc);
+        tileManager.draw(renderer);
+        sideBar.draw(renderer);
 
         MouseState mouseState = mouseHandler.getMouseState();
         if (mouseState.getSelectedSprite() != null) {
             Tile tile = mouseState.getSelectedSprite(Tile.class);
-            Helper.drawMouseIconTile(gc, tile, this.mousePosition);
+            Helper.drawMouseIconTile(renderer, tile, this.mousePosition);
         }
     }
 }
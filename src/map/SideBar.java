@@ -7,7 +7,7 @@ import common.Tile;
 import common.core.MouseEventType;
 import common.core.MouseState;
 import common.core.Vector2;
-import javafx.scene.canvas.GraphicsContext;
+import common.render.IRenderer;
 import javafx.scene.paint.Color;
 import org.apache.log4j.Logger;
 
@@ -76,14 +76,14 @@ public class SideBar {
     }
     /**
      * Method to draw graphics in SideBar
-     * @param gc The {@link javafx.scene.canvas.GraphicsContext} to use. All graphics will be placed here
+     * @param renderer The {@link common.render.IRenderer} to use. All graphics will be placed here
      */
-    public void draw(GraphicsContext gc) {
+    public void draw(IRenderer renderer) {
         sidebarlog.info("SideBar is drawn");
         for (int i = 0; i < tiles.size(); i++) {
             Tile tile = tiles.get(i);
-            tile.draw(gc);
-            Helper.drawText(gc, "X", tile.getPosition(), Color.RED);
+            tile.draw(renderer);
+            Helper.drawText(renderer, "X", tile.getPosition(), Color.RED);
         }
     }
     /**
@@ -0,0 +1,363 @@
+package map;
+
+import common.SpriteType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Parser of the text map files: a "columns,rows" line followed by one "x,y:TYPE" line per overlay tile.
+ * It reads the text one character at a time in a single pass and writes the tiles straight into a
+ * {@link MapGrid}, without building a string per line or per number. Lines may end with "\n", "\r\n" or
+ * "\r", so maps saved on any platform load the same; empty lines are skipped, and so is the byte order
+ * mark some editors write at the start of UTF-8 files.
+ * @version $revision $
+ */
+public class TextMapParser {
+    private static final SpriteType[] TYPES = SpriteType.values();
+    private static final char[][] TYPE_NAMES = new char[TYPES.length][];
+    private static final int MAX_DIGITS = 9;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    // the byte order mark in UTF-8
+    private static final byte[] BYTE_ORDER_MARK_BYTES = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().toCharArray();
+        }
+    }
+
+    /**
+     * Parts of a line
+     */
+    private enum Field {
+        COLUMNS,
+        ROWS,
+        X,
+        Y,
+        TYPE
+    }
+
+    private MapGrid grid;
+    private Field field;
+    private int line;
+    private boolean isLineEmpty = true;
+    private boolean isAfterCarriageReturn = false;
+
+    private int value = 0;
+    private int digits = 0;
+    private int columns;
+    private int x;
+    private int y;
+    private final char[] type = new char[longestTypeName()];
+    private int typeLength = 0;
+
+    /**
+     * Constructor for a whole map file, the first line holding the size
+     */
+    private TextMapParser() {
+        this.field = Field.COLUMNS;
+        this.line = 1;
+    }
+
+    /**
+     * Constructor for a map of a known size, the first line is not parsed
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     */
+    private TextMapParser(int columns, int rows) {
+        this.grid = new MapGrid(columns, rows);
+        this.field = Field.X;
+        this.line = 2;
+    }
+
+    /**
+     * Parses a text map file, read whole into memory. The file is not mapped, so that it can be saved
+     * over as soon as it is parsed
+     *
+     * @param path The file
+     * @return Returns the map
+     * @throws MapFormatException if a line is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static MapGrid parse(Path path) throws IOException {
+        return parse(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Parses the bytes of a text map file, from the position to the limit of the buffer
+     *
+     * @param buffer The content of the file, in ASCII
+     * @return Returns the map
+     * @throws MapFormatException if a line is malformed
+     */
+    public static MapGrid parse(ByteBuffer buffer) throws MapFormatException {
+        TextMapParser parser = new TextMapParser();
+        int start = buffer.position();
+        if (hasByteOrderMark(buffer, start)) {
+            start += BYTE_ORDER_MARK_BYTES.length;
+        }
+        for (int i = start; i < buffer.limit(); i++) {
+            parser.accept((char) (buffer.get(i) & 0xff));
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses a text map file
+     *
+     * @param in Reader of the file, it is not closed
+     * @return Returns the map
+     * @throws MapFormatException if a line is malformed
+     * @throws IOException if the reader fails
+     */
+    public static MapGrid parse(Reader in) throws IOException {
+        TextMapParser parser = new TextMapParser();
+        char[] chunk = new char[8192];
+        boolean isFirstChunk = true;
+        int read;
+        while ((read = in.read(chunk)) >= 0) {
+            int i = 0;
+            if (isFirstChunk && read > 0) {
+                isFirstChunk = false;
+                if (chunk[0] == BYTE_ORDER_MARK) {
+                    i = 1;
+                }
+            }
+            for (; i < read; i++) {
+                parser.accept(chunk[i]);
+            }
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses the lines of a text map file
+     *
+     * @param mapData The lines, the first one holding the size
+     * @return Returns the map
+     * @throws MapFormatException if a line is malformed
+     */
+    public static MapGrid parse(String[] mapData) throws MapFormatException {
+        TextMapParser parser = new TextMapParser();
+        for (int i = 0; i < mapData.length; i++) {
+            String text = mapData[i];
+            if (i == 0 && text != null && !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK) {
+                text = text.substring(1);
+            }
+            parser.acceptLine(i + 1, text);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses the lines of a text map file of a known size, the first line is skipped
+     *
+     * @param columns Number of columns
+     * @param rows Number of rows
+     * @param mapData The lines
+     * @return Returns the map
+     * @throws MapFormatException if a line is malformed
+     */
+    public static MapGrid parse(int columns, int rows, String[] mapData) throws MapFormatException {
+        TextMapParser parser = new TextMapParser(columns, rows);
+        for (int i = 1; i < mapData.length; i++) {
+            parser.acceptLine(i + 1, mapData[i]);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses one line given on its own
+     *
+     * @param number Number of the line, starting at 1
+     * @param text The line without its end, null lines are skipped
+     * @throws MapFormatException if the line is malformed
+     */
+    private void acceptLine(int number, String text) throws MapFormatException {
+        if (text == null) {
+            return;
+        }
+        line = number;
+        for (int i = 0; i < text.length(); i++) {
+            accept(text.charAt(i));
+        }
+        endLine();
+    }
+
+    /**
+     * Parses the next character
+     *
+     * @param c The character
+     * @throws MapFormatException if it does not fit in the line
+     */
+    private void accept(char c) throws MapFormatException {
+        if (c == '\n' || c == '\r') {
+            // the "\n" of a "\r\n" does not end another line
+            if (c == '\n' && isAfterCarriageReturn) {
+                isAfterCarriageReturn = false;
+                return;
+            }
+            isAfterCarriageReturn = c == '\r';
+            endLine();
+            line++;
+            return;
+        }
+        isAfterCarriageReturn = false;
+        isLineEmpty = false;
+
+        if (field == Field.TYPE) {
+            if (typeLength == type.length) {
+                throw new MapFormatException(line, "unknown tile type");
+            }
+            type[typeLength++] = c;
+            return;
+        }
+
+        if (c >= '0' && c <= '9') {
+            if (digits == MAX_DIGITS) {
+                throw new MapFormatException(line, "number too big");
+            }
+            value = (value * 10) + (c - '0');
+            digits++;
+            return;
+        }
+        if (digits == 0) {
+            throw new MapFormatException(line, "expected a number, found " + describe(c));
+        }
+
+        if (field == Field.COLUMNS && c == ',') {
+            columns = value;
+            field = Field.ROWS;
+        } else if (field == Field.X && c == ',') {
+            x = value;
+            field = Field.Y;
+        } else if (field == Field.Y && c == ':') {
+            y = value;
+            typeLength = 0;
+            field = Field.TYPE;
+        } else {
+            throw new MapFormatException(line, "unexpected " + describe(c));
+        }
+        value = 0;
+        digits = 0;
+    }
+
+    /**
+     * Ends the current line, applying what it holds
+     *
+     * @throws MapFormatException if the line is incomplete
+     */
+    private void endLine() throws MapFormatException {
+        if (isLineEmpty) {
+            return;
+        }
+
+        if (field == Field.ROWS && digits > 0) {
+            try {
+                grid = new MapGrid(columns, value);
+            } catch (IllegalArgumentException e) {
+                throw new MapFormatException(line, e.getMessage());
+            }
+        } else if (field == Field.TYPE) {
+            if (x >= grid.getColumns() || y >= grid.getRows()) {
+                throw new MapFormatException(line, "tile " + x + "," + y + " outside the map");
+            }
+            grid.setType(x, y, findType());
+        } else {
+            throw new MapFormatException(line, field == Field.COLUMNS || field == Field.ROWS ?
+                    "expected the size of the map as columns,rows" : "expected a tile as x,y:TYPE");
+        }
+
+        field = Field.X;
+        value = 0;
+        digits = 0;
+        isLineEmpty = true;
+    }
+
+    /**
+     * Ends the file
+     *
+     * @return Returns the map
+     * @throws MapFormatException if the last line is incomplete or the size is missing
+     */
+    private MapGrid finish() throws MapFormatException {
+        endLine();
+        if (grid == null) {
+            throw new MapFormatException(line, "the map has no size");
+        }
+        return grid;
+    }
+
+    /**
+     * Finds the type of tile named on the current line
+     *
+     * @return Returns the type
+     * @throws MapFormatException if no type has this name
+     */
+    private SpriteType findType() throws MapFormatException {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            char[] name = TYPE_NAMES[i];
+            if (name.length != typeLength) {
+                continue;
+            }
+            int j = 0;
+            while (j < typeLength && name[j] == type[j]) {
+                j++;
+            }
+            if (j == typeLength) {
+                if (TYPES[i] == SpriteType.TOWER || TYPES[i] == SpriteType.CRITTER) {
+                    throw new MapFormatException(line, "no " + TYPES[i] + " tiles in a map");
+                }
+                return TYPES[i];
+            }
+        }
+        throw new MapFormatException(line, "unknown tile type " + new String(type, 0, typeLength));
+    }
+
+    /**
+     * Check whether the UTF-8 byte order mark is at a position
+     *
+     * @param buffer The buffer
+     * @param position Position of the mark
+     * @return Returns true if it is
+     */
+    private static boolean hasByteOrderMark(ByteBuffer buffer, int position) {
+        if (buffer.limit() - position < BYTE_ORDER_MARK_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < BYTE_ORDER_MARK_BYTES.length; i++) {
+            if (buffer.get(position + i) != BYTE_ORDER_MARK_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describes a character for the error messages
+     *
+     * @param c The character
+     * @return Returns the character quoted, or its code when it cannot be printed
+     */
+    private static String describe(char c) {
+        return c >= ' ' && c < 127 ? "'" + c + "'" : "character " + (int) c;
+    }
+
+    /**
+     * Get the length of the longest name of a type of tile
+     *
+     * @return Returns the number of characters
+     */
+    private static int longestTypeName() {
+        int longest = 0;
+        for (char[] name : TYPE_NAMES) {
+            longest = Math.max(longest, name.length);
+        }
+        return longest;
+    }
+}
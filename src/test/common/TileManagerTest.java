@@ -1,7 +1,13 @@
 package test.common;
 
+import common.Settings;
 import common.TileManager;
+import common.core.Rect;
 import common.core.Vector2;
+import common.render.RecordingRenderer;
+import common.render.RenderCommandType;
+import game.towerlogic.Tower;
+import game.towerlogic.TowerType;
 import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -33,4 +39,43 @@ public class TileManagerTest {
         Assert.assertEquals(returnVector2.getY(),1.0);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getVisibleRangeTest()
+    {
+        //an area starting in the middle of tile 2 and ending in the middle of tile 4
+        Rect area = new Rect(new Vector2(80.0, 80.0), 64, 64);
+        Assert.assertEquals(2, leTileManager.getFirstColumn(area));
+        Assert.assertEquals(5, leTileManager.getLastColumn(area));
+        Assert.assertEquals(2, leTileManager.getFirstRow(area));
+        Assert.assertEquals(5, leTileManager.getLastRow(area));
+
+        //never outside the map
+        Rect outside = new Rect(new Vector2(-100.0, 200.0), 1000, 1000);
+        Assert.assertEquals(0, leTileManager.getFirstColumn(outside));
+        Assert.assertEquals(10, leTileManager.getLastRow(outside));
+    }
+
+    @Test
+    public void drawTowersRangeOutsideAreaTest()
+    {
+        TileManager tileManager = new TileManager();
+        tileManager.createScenery(10, 20);
+
+        //just right of the area, its range square reaches into it
+        Tower nearTower = new Tower(TowerType.ARROW, new Vector2(12 * Settings.TILE_WIDTH, 2 * Settings.TILE_HEIGHT));
+        nearTower.setActive(true);
+        tileManager.getTilesOverlay()[12][2] = nearTower;
+
+        //too far for its range square to reach the area
+        Tower farTower = new Tower(TowerType.ARROW, new Vector2(18 * Settings.TILE_WIDTH, 2 * Settings.TILE_HEIGHT));
+        farTower.setActive(true);
+        tileManager.getTilesOverlay()[18][2] = farTower;
+
+        RecordingRenderer renderer = new RecordingRenderer();
+        tileManager.drawTowers(renderer, new Rect(new Vector2(0, 0), 10 * Settings.TILE_WIDTH, 10 * Settings.TILE_HEIGHT));
+
+        Assert.assertEquals(1, renderer.getCount(RenderCommandType.STROKE_RECT));
+        Assert.assertEquals(nearTower.getRangeRect().getPosition().getX(),
+                renderer.getCommands().get(renderer.getCommands().size() - 1).getArgument(0), 0.001);
+    }
+}
@@ -3,6 +3,7 @@ package test.common;
 import common.SpriteType;
 import common.Tile;
 import common.core.Vector2;
+import common.render.AtlasSprite;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -31,5 +32,10 @@ public class TileTest {
         Assert.assertEquals(returnVector.getX(),0,0.001);
         Assert.assertEquals(returnVector.getY(),64,0.001);
     }
-}
 
+    @Test
+    public void getAtlasSpriteTest()
+    {
+        Assert.assertEquals(AtlasSprite.SCENERY, leTile.getAtlasSprite());
+    }
+}
@@ -0,0 +1,64 @@
+package test.common.core;
+
+import common.core.Camera;
+import common.core.Rect;
+import common.core.Vector2;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the camera showing maps bigger than the screen
+ */
+public class CameraTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private Camera leCamera;
+
+    @Before
+    public void BeforeTestingSetup() {
+        //a 100x100 viewport over a 400x200 world
+        leCamera = new Camera(100, 100, 400, 200);
+    }
+
+    @Test
+    public void panTest() {
+        assertTrue(leCamera.pan(1000, 1000));
+
+        Rect area = leCamera.getVisibleArea();
+        assertEquals(300, area.getPosition().getX(), 0.001);
+        assertEquals(100, area.getPosition().getY(), 0.001);
+
+        //already at the corner, nothing moves
+        assertFalse(leCamera.pan(10, 10));
+    }
+
+    @Test
+    public void screenToWorldTest() {
+        leCamera.pan(50, 20);
+        leCamera.zoomAt(2, 0, 0);
+
+        Vector2 world = leCamera.screenToWorld(new Vector2(10, 10));
+        assertEquals(55, world.getX(), 0.001);
+        assertEquals(25, world.getY(), 0.001);
+    }
+
+    @Test
+    public void zoomAtTest() {
+        //the world is only twice as high as the viewport
+        leCamera.zoomAt(0.1, 0, 0);
+
+        assertEquals(0.5, leCamera.getZoom(), 0.001);
+        assertEquals(200, leCamera.getVisibleArea().getHeight(), 0.001);
+    }
+
+    @Test
+    public void isInViewportTest() {
+        assertTrue(leCamera.isInViewport(new Vector2(50, 50)));
+        assertFalse(leCamera.isInViewport(new Vector2(150, 50)));
+    }
+}
@@ -0,0 +1,162 @@
+package test.common.core;
+
+import common.core.GameLoop;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sleeping and the suspension of the game loop
+ */
+public class GameLoopTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private static final long FRAME = 16666667L;
+
+    private TestLoop leLoop;
+    private long now;
+
+    @Before
+    public void BeforeTestingSetup() {
+        leLoop = new TestLoop();
+        leLoop.start();
+        now = FRAME;
+    }
+
+    @After
+    public void AfterTestingCleanup() {
+        leLoop.stop();
+    }
+
+    @Test
+    public void requestRedrawTest() {
+        leLoop.idle = true;
+        runFrame();
+        assertTrue(leLoop.isSleeping());
+        assertEquals(1, leLoop.updates);
+
+        //a click or a key asks for a frame
+        leLoop.requestRedraw();
+        assertFalse(leLoop.isSleeping());
+
+        //the frame is drawn, then the loop sleeps again
+        runFrame();
+        assertEquals(2, leLoop.updates);
+        assertTrue(leLoop.isSleeping());
+    }
+
+    @Test
+    public void animationKeepAliveTest() {
+        //a running wave keeps the loop awake
+        leLoop.idle = false;
+        for (int i = 0; i < 10; i++) {
+            runFrame();
+            assertFalse(leLoop.isSleeping());
+        }
+
+        //a redraw asked for during the last frame of the wave gives one more frame
+        leLoop.idle = true;
+        leLoop.redrawDuringUpdate = true;
+        runFrame();
+        assertFalse(leLoop.isSleeping());
+
+        leLoop.redrawDuringUpdate = false;
+        runFrame();
+        assertTrue(leLoop.isSleeping());
+        assertEquals(12, leLoop.updates);
+    }
+
+    @Test
+    public void suspendWhenHiddenTest() {
+        //closing the only window would stop JavaFX for the next tests
+        Platform.setImplicitExit(false);
+        Stage stage = new Stage();
+        stage.setScene(new Scene(new Group(), 100, 100));
+        leLoop.suspendWhenHidden(stage);
+        assertTrue("A stage not shown yet suspends the loop", leLoop.isSuspended());
+
+        stage.show();
+        assertFalse(leLoop.isSuspended());
+
+        stage.setIconified(true);
+        assertTrue(leLoop.isSuspended());
+
+        stage.setIconified(false);
+        assertFalse(leLoop.isSuspended());
+
+        stage.hide();
+        assertTrue(leLoop.isSuspended());
+    }
+
+    @Test
+    public void suspendedRedrawTest() {
+        leLoop.idle = true;
+        runFrame();
+        leLoop.setSuspended(true);
+
+        //redraws while hidden do not bring the loop back
+        leLoop.requestRedraw();
+        assertTrue(leLoop.isSleeping());
+
+        //showing the window again does
+        leLoop.setSuspended(false);
+        assertFalse(leLoop.isSleeping());
+        assertFalse(leLoop.isSuspended());
+    }
+
+    /**
+     * Runs the next frame of the timer
+     */
+    private void runFrame() {
+        leLoop.runFrame(now);
+        now += FRAME;
+    }
+
+    /**
+     * Loop counting its updates, idle on demand
+     */
+    private static class TestLoop extends GameLoop {
+        private boolean idle = false;
+        private boolean redrawDuringUpdate = false;
+        private int updates = 0;
+
+        /**
+         * Runs a frame like the timer does
+         *
+         * @param now Time of the frame, in nanoseconds
+         */
+        private void runFrame(long now) {
+            frame(now);
+        }
+
+        @Override
+        protected boolean isIdle() {
+            return idle;
+        }
+
+        @Override
+        protected void update(double delta) {
+            updates++;
+            if (redrawDuringUpdate) {
+                requestRedraw();
+            }
+        }
+
+        @Override
+        protected void draw() {
+        }
+
+        @Override
+        protected void clear() {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package test.common.diagnostics;
+
+import common.diagnostics.FrameProfiler;
+import common.diagnostics.LatencyHistogram;
+import common.diagnostics.ProfilePhase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the profiler of the game loop
+ */
+public class FrameProfilerTest {
+
+    @Test
+    public void stopTest() {
+        FrameProfiler profiler = new FrameProfiler();
+        long start = profiler.start();
+        start = profiler.stop(ProfilePhase.UPDATE, start);
+        profiler.stop(ProfilePhase.DRAW, start);
+        profiler.record(ProfilePhase.TARGETING, 1500);
+
+        assertEquals(1, profiler.getWindow(ProfilePhase.UPDATE).getCount());
+        assertEquals(1, profiler.getWindow(ProfilePhase.DRAW).getCount());
+        assertEquals(1500, profiler.getWindow(ProfilePhase.TARGETING).getMax());
+        assertEquals(0, profiler.getWindow(ProfilePhase.CLEAR).getCount());
+        assertTrue(profiler.getReport().contains("TARGETING"));
+    }
+
+    @Test
+    public void reusedWindowTest() {
+        FrameProfiler profiler = new FrameProfiler();
+        profiler.record(ProfilePhase.UPDATE, 1000);
+        profiler.record(ProfilePhase.DRAW, 2000);
+        profiler.record(ProfilePhase.DRAW, 3000);
+
+        LatencyHistogram window = new LatencyHistogram();
+        assertSame(window, profiler.getWindow(ProfilePhase.UPDATE, window));
+        assertEquals(1, window.getCount());
+
+        // the values of the previous phase are gone
+        profiler.getWindow(ProfilePhase.DRAW, window);
+        assertEquals(2, window.getCount());
+        assertEquals(3000, window.getMax());
+    }
+
+    @Test
+    public void disabledProfilerTest() {
+        FrameProfiler profiler = new FrameProfiler();
+        profiler.setEnabled(false);
+
+        long start = profiler.start();
+        assertEquals(0, start);
+        assertEquals(0, profiler.stop(ProfilePhase.FRAME, start));
+        profiler.record(ProfilePhase.FRAME, 10);
+
+        assertEquals(0, profiler.getWindow(ProfilePhase.FRAME).getCount());
+    }
+
+    @Test
+    public void windowTest() throws InterruptedException {
+        FrameProfiler profiler = new FrameProfiler(2, 1000000L);
+        profiler.record(ProfilePhase.FRAME, 10);
+        Thread.sleep(5);
+
+        assertEquals(0, profiler.getWindow(ProfilePhase.FRAME).getCount());
+    }
+
+    @Test
+    public void allocationTrackingTest() {
+        FrameProfiler profiler = new FrameProfiler();
+        assertFalse(profiler.isAllocationTracking());
+        assertEquals(-1, profiler.startAllocation());
+
+        profiler.setAllocationTracking(true);
+        if (!profiler.isAllocationTracking()) {
+            // the JVM does not count the bytes allocated by a thread
+            return;
+        }
+
+        long start = profiler.startAllocation();
+        Object[] allocated = new Object[1000];
+        profiler.stopAllocation(ProfilePhase.DRAW, start);
+
+        assertEquals(1, profiler.getAllocationCount(ProfilePhase.DRAW));
+        assertTrue(profiler.getAllocatedBytes(ProfilePhase.DRAW) >= allocated.length * 4);
+
+        profiler.reset();
+        assertEquals(0, profiler.getAllocatedBytes(ProfilePhase.DRAW));
+        assertEquals(0, profiler.getAllocationCount(ProfilePhase.DRAW));
+    }
+}
@@ -0,0 +1,77 @@
+package test.common.diagnostics;
+
+import common.SpriteType;
+import common.Tile;
+import common.core.Vector2;
+import common.diagnostics.TargetingEvent;
+import common.diagnostics.TickEvent;
+import game.pathlogic.PathFinder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the Flight Recorder events of the game
+ */
+public class GameEventsTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Test
+    public void pathComputationEventTest() throws IOException {
+        Tile[][] tiles = new Tile[3][3];
+        tiles[0][0] = new Tile(SpriteType.ENTRY_POINT, 32, 32, new Vector2(0, 0));
+        tiles[1][0] = new Tile(SpriteType.PATH, 32, 32, new Vector2(32, 0));
+        tiles[2][0] = new Tile(SpriteType.EXIT_POINT, 32, 32, new Vector2(64, 0));
+
+        Path file = Files.createTempFile("game-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("towerdefense.PathComputation");
+            recording.start();
+            new PathFinder(tiles, 3, 3).getPaths();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent event = null;
+            for (RecordedEvent candidate : events) {
+                if (candidate.getEventType().getName().equals("towerdefense.PathComputation")) {
+                    event = candidate;
+                }
+            }
+
+            assertNotNull(event);
+            assertEquals(9, event.getInt("cells"));
+            assertEquals(3, event.getInt("pathLength"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void isRecordedTest() {
+        assertFalse(TickEvent.isRecorded());
+        assertFalse(TargetingEvent.isRecorded());
+
+        try (Recording recording = new Recording()) {
+            recording.enable("towerdefense.Tick");
+            recording.disable("towerdefense.Targeting");
+            recording.start();
+            assertTrue(TickEvent.isRecorded());
+            assertFalse(TargetingEvent.isRecorded());
+            recording.stop();
+        }
+
+        assertFalse(TickEvent.isRecorded());
+    }
+}
@@ -0,0 +1,54 @@
+package test.common.diagnostics;
+
+import common.diagnostics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the histogram of durations
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void getValueAtPercentileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000000, histogram.getValueAtPercentile(50), 5000000 * 0.035);
+        assertEquals(9900000, histogram.getValueAtPercentile(99), 9900000 * 0.035);
+        assertEquals(10000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void smallValuesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(40);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getValueAtPercentile(1));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(40, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void addToAndResetTest() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(100);
+        second.record(200000);
+
+        first.addTo(second);
+        assertEquals(2, second.getCount());
+        assertEquals(200000, second.getMax());
+
+        second.reset();
+        assertEquals(0, second.getCount());
+        assertEquals(0, second.getValueAtPercentile(50));
+    }
+}
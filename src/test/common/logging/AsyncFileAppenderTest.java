@@ -0,0 +1,120 @@
+package test.common.logging;
+
+import common.logging.AsyncFileAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the appender writing the log file from a background thread
+ */
+public class AsyncFileAppenderTest {
+    private static final Logger LOGGER = Logger.getLogger(AsyncFileAppenderTest.class);
+    private File file;
+    private AsyncFileAppender appender;
+
+    @Before
+    public void BeforeTestingSetup() throws IOException {
+        file = File.createTempFile("async-appender", ".log");
+        appender = new AsyncFileAppender();
+        appender.setLayout(new PatternLayout("%m%n"));
+        appender.setFile(file.getAbsolutePath());
+        appender.setDatePattern("'.'yyyy-MM-dd");
+    }
+
+    @After
+    public void AfterTesting() {
+        appender.close();
+        file.delete();
+    }
+
+    @Test
+    public void closeTest() throws IOException {
+        appender.setBlocking(true);
+        appender.setQueueSize(16);
+        appender.activateOptions();
+
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(event("line " + i));
+        }
+        appender.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(1000, lines.size());
+        assertEquals("line 999", lines.get(999));
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    public void slowWriterCloseTest() throws IOException, InterruptedException {
+        AsyncFileAppender slowAppender = new AsyncFileAppender() {
+            @Override
+            protected void subAppend(LoggingEvent event) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.subAppend(event);
+            }
+        };
+        slowAppender.setLayout(new PatternLayout("%m%n"));
+        slowAppender.setFile(file.getAbsolutePath());
+        slowAppender.setDatePattern("'.'yyyy-MM-dd");
+        slowAppender.setBlocking(true);
+        slowAppender.setCloseTimeout(10);
+        slowAppender.activateOptions();
+
+        for (int i = 0; i < 50; i++) {
+            slowAppender.doAppend(event("line " + i));
+        }
+        slowAppender.close();
+        assertTrue("The writer finished before the close timeout", slowAppender.getQueuedCount() > 0);
+        // closing again does not cut the writer short either
+        slowAppender.close();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (slowAppender.getQueuedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(50, lines.size());
+        assertEquals("line 49", lines.get(49));
+    }
+
+    @Test
+    public void fullQueueTest() {
+        // without activating the options there is no writer thread to empty the queue
+        appender.setQueueSize(4);
+
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event("line " + i));
+        }
+
+        assertEquals(4, appender.getQueuedCount());
+        assertEquals(6, appender.getDroppedCount());
+    }
+
+    /**
+     * Builds an info event
+     *
+     * @param message Message of the event
+     * @return Returns the event
+     */
+    private static LoggingEvent event(String message) {
+        return new LoggingEvent(Logger.class.getName(), LOGGER, Level.INFO, message, null);
+    }
+}
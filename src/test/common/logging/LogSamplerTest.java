@@ -0,0 +1,54 @@
+package test.common.logging;
+
+import common.logging.GameLogger;
+import common.logging.LogSampler;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sampling of the messages logged every tick
+ */
+public class LogSamplerTest {
+    private Level previousLevel;
+
+    @Before
+    public void BeforeTestingSetup() {
+        previousLevel = Logger.getLogger(LogSamplerTest.class).getLevel();
+    }
+
+    @After
+    public void AfterTesting() {
+        Logger.getLogger(LogSamplerTest.class).setLevel(previousLevel);
+    }
+
+    @Test
+    public void sampleTest() {
+        Logger.getLogger(LogSamplerTest.class).setLevel(Level.INFO);
+        LogSampler sampler = new LogSampler(GameLogger.getLogger(LogSamplerTest.class), Level.INFO, "test", 10, 60000);
+
+        int logged = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.sample()) {
+                logged++;
+            }
+        }
+
+        assertEquals(10, logged);
+        assertEquals(100, sampler.getOccurrences());
+        assertEquals(90, sampler.getSkipped());
+    }
+
+    @Test
+    public void sampleDisabledLevelTest() {
+        Logger.getLogger(LogSamplerTest.class).setLevel(Level.WARN);
+        LogSampler sampler = new LogSampler(GameLogger.getLogger(LogSamplerTest.class), Level.INFO, "test", 1, 0);
+
+        assertFalse(sampler.sample());
+        assertEquals(0, sampler.getOccurrences());
+    }
+}
@@ -0,0 +1,80 @@
+package test.common.render;
+
+import common.Settings;
+import common.render.AtlasRegion;
+import common.render.AtlasSprite;
+import common.render.PixelBufferRenderer;
+import javafx.scene.paint.Color;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the software renderer
+ */
+public class PixelBufferRendererTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Test
+    public void fillRectTest() {
+        PixelBufferRenderer renderer = new PixelBufferRenderer(64, 64);
+        renderer.save();
+        renderer.clipRect(0, 0, 20, 64);
+        renderer.setTransform(2, 0, 0, 2, 4, 0);
+        renderer.setFill(Color.RED);
+        renderer.fillRect(0, 0, 10, 10);
+        renderer.restore();
+        renderer.flush();
+
+        //the rectangle covers x 4 to 24, y 0 to 20, clipped at x 20
+        assertEquals(0xffff0000, renderer.getPixel(4, 0));
+        assertEquals(0xffff0000, renderer.getPixel(19, 19));
+        assertEquals(0, renderer.getPixel(3, 0));
+        assertEquals(0, renderer.getPixel(20, 0));
+        assertEquals(0, renderer.getPixel(4, 20));
+    }
+
+    @Test
+    public void drawSpriteTest() {
+        PixelBufferRenderer renderer = new PixelBufferRenderer(64, 64);
+        renderer.drawSprite(AtlasSprite.SCENERY, 10, 20);
+        renderer.flush();
+
+        //the scenery tile is fully opaque, so the pixels are copied as they are
+        AtlasRegion region = Settings.SPRITE_ATLAS.getRegion(AtlasSprite.SCENERY);
+        int atlasWidth = (int) Settings.SPRITE_ATLAS.getImage().getWidth();
+        int[] atlasPixels = Settings.SPRITE_ATLAS.getPixels();
+        for (int y = 0; y < region.getHeight(); y++) {
+            for (int x = 0; x < region.getWidth(); x++) {
+                int expected = atlasPixels[(int) (region.getY() + y) * atlasWidth + (int) region.getX() + x];
+                assertEquals(expected, renderer.getPixel(10 + x, 20 + y));
+            }
+        }
+    }
+
+    @Test
+    public void flushParallelTest() {
+        PixelBufferRenderer sequential = new PixelBufferRenderer(256, 256);
+        PixelBufferRenderer parallel = new PixelBufferRenderer(256, 256);
+        sequential.setParallel(false);
+        parallel.setParallel(true);
+
+        for (PixelBufferRenderer renderer : new PixelBufferRenderer[] { sequential, parallel }) {
+            renderer.setFill(Color.color(0, 0, 1, 0.5));
+            for (int i = 0; i < 1000; i++) {
+                renderer.drawSprite(AtlasSprite.CRITTER, (i * 37) % 240, (i * 53) % 240);
+                renderer.fillRect((i * 11) % 250, (i * 7) % 250, 6, 3);
+            }
+            renderer.flush();
+        }
+
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                assertEquals(sequential.getPixel(x, y), parallel.getPixel(x, y));
+            }
+        }
+    }
+}
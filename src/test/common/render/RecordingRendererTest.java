@@ -0,0 +1,77 @@
+package test.common.render;
+
+import common.core.Vector2;
+import common.render.AtlasSprite;
+import common.render.RecordingRenderer;
+import common.render.RenderCommand;
+import common.render.RenderCommandType;
+import game.Critter;
+import game.CritterType;
+import javafx.scene.paint.Color;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the renderer recording the draw calls
+ */
+public class RecordingRendererTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private RecordingRenderer renderer;
+
+    @Before
+    public void BeforeTestingSetup() {
+        renderer = new RecordingRenderer();
+    }
+
+    @Test
+    public void drawCritterTest() {
+        Critter critter = new Critter(new Vector2(10, 20), CritterType.GROUND);
+        critter.draw(renderer);
+
+        //the critter sprite, then the border and the fill of its health bar
+        assertEquals(1, renderer.getCount(RenderCommandType.DRAW_SPRITE));
+        assertEquals(1, renderer.getCount(RenderCommandType.STROKE_RECT));
+        assertEquals(1, renderer.getCount(RenderCommandType.FILL_RECT));
+
+        RenderCommand first = renderer.getCommands().get(0);
+        assertEquals(AtlasSprite.CRITTER, first.getValue());
+        assertEquals(10, first.getArgument(0), 0.001);
+        assertEquals(20, first.getArgument(1), 0.001);
+    }
+
+    @Test
+    public void setFillTest() {
+        renderer.setFill(Color.RED);
+        renderer.setFill(Color.RED);
+        renderer.setFill(Color.BLUE);
+
+        assertEquals(3, renderer.getStateChangeCount());
+        assertEquals(1, renderer.getRedundantStateChangeCount());
+    }
+
+    @Test
+    public void restoreTest() {
+        renderer.setFill(Color.RED);
+        renderer.save();
+        renderer.setFill(Color.BLUE);
+        renderer.restore();
+        renderer.setFill(Color.RED);
+
+        assertEquals(1, renderer.getRedundantStateChangeCount());
+    }
+
+    @Test
+    public void resetTest() {
+        renderer.fillRect(0, 0, 1, 1);
+        renderer.reset();
+
+        assertEquals(0, renderer.getTotalCount());
+        assertTrue(renderer.getCommands().isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package test.common.render;
+
+import common.Settings;
+import common.render.AtlasRegion;
+import common.render.AtlasSprite;
+import common.render.SpriteAtlas;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test Class for SpriteAtlas
+ * @version $revision $
+ */
+public class SpriteAtlasTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+    private SpriteAtlas atlas;
+
+    @Before
+    public void BeforeTestingSetup() {
+        atlas = Settings.SPRITE_ATLAS;
+    }
+
+    @Test
+    public void buildSizeTest() {
+        AtlasRegion tower = atlas.getRegion(AtlasSprite.TOWER_ARROW);
+        assertEquals(Settings.TOWERARROW_TILE_IMAGE.getWidth(), tower.getWidth(), 0.001);
+        assertEquals(Settings.TOWERARROW_TILE_IMAGE.getHeight(), tower.getHeight(), 0.001);
+
+        AtlasRegion path = atlas.getRegion(AtlasSprite.PATH);
+        assertEquals(32, path.getWidth(), 0.001);
+        assertEquals(32, path.getHeight(), 0.001);
+    }
+
+    @Test
+    public void buildOverlapTest() {
+        AtlasSprite[] sprites = AtlasSprite.values();
+        for (int i = 0; i < sprites.length; i++) {
+            AtlasRegion a = atlas.getRegion(sprites[i]);
+            assertTrue(a.getX() + a.getWidth() <= atlas.getImage().getWidth());
+            assertTrue(a.getY() + a.getHeight() <= atlas.getImage().getHeight());
+            for (int j = i + 1; j < sprites.length; j++) {
+                AtlasRegion b = atlas.getRegion(sprites[j]);
+                boolean overlaps = a.getX() < b.getX() + b.getWidth() && b.getX() < a.getX() + a.getWidth() &&
+                        a.getY() < b.getY() + b.getHeight() && b.getY() < a.getY() + a.getHeight();
+                assertFalse(sprites[i] + " overlaps " + sprites[j], overlaps);
+            }
+        }
+    }
+
+    @Test
+    public void buildPixelsTest() {
+        AtlasRegion critter = atlas.getRegion(AtlasSprite.CRITTER);
+        int x = (int) critter.getWidth() / 2;
+        int y = (int) critter.getHeight() / 2;
+        assertEquals(Settings.CRITTER_TILE_IMAGE_1.getPixelReader().getArgb(x, y),
+                atlas.getImage().getPixelReader().getArgb((int) critter.getX() + x, (int) critter.getY() + y));
+    }
+}
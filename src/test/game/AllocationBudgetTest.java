@@ -0,0 +1,92 @@
+package test.game;
+
+import common.TileManager;
+import common.diagnostics.FrameProfiler;
+import common.diagnostics.ProfilePhase;
+import game.GameManager;
+import map.GeneratedMap;
+import map.MapGenerator;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation budgets of the simulation. A wave runs headless for a number of ticks after a warm-up,
+ * and the bytes allocated per tick by each subsystem must stay under its budget.
+ * Lower a budget whenever a subsystem gets leaner, so it stays that way.
+ */
+public class AllocationBudgetTest {
+    private static final int SIZE = 24;
+    private static final int CRITTERS = 100;
+    private static final int TOWERS = 6;
+    private static final int WARMUP_TICKS = 500;
+    private static final int MEASURED_TICKS = 300;
+
+    // bytes per tick, about a quarter above what the subsystems allocate today
+    private static final long TOWER_SHOOTS_BUDGET = 40 * 1024;
+    private static final long CRITTER_UPDATE_BUDGET = 7 * 1024;
+    private static final long DRAW_BUDGET = 1024;
+
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private GameManager gameManager;
+    private FrameProfiler profiler;
+
+    @Before
+    public void BeforeTestingSetup() {
+        Random random = new Random(42);
+        GeneratedMap map = new MapGenerator(random.nextLong()).randomWalk(SIZE, SIZE);
+        gameManager = HeadlessGame.create(new TileManager(SIZE, SIZE, map.toMapData()), random);
+        gameManager.setSaveGameState(HeadlessGame.towersNextToPath(map, TOWERS, 1000000, random));
+
+        profiler = gameManager.getProfiler();
+    }
+
+    @After
+    public void AfterTestingCleanup() {
+        profiler.setAllocationTracking(false);
+        profiler.reset();
+    }
+
+    @Test
+    public void tickAllocationBudgetTest() {
+        profiler.setAllocationTracking(true);
+        Assume.assumeTrue("The JVM does not count the bytes allocated by a thread", profiler.isAllocationTracking());
+
+        gameManager.startWave(CRITTERS);
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            gameManager.step(HeadlessGame.DELTA);
+        }
+        assertTrue("The wave ended during the warm-up", gameManager.isWaveStarted());
+
+        profiler.reset();
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            gameManager.step(HeadlessGame.DELTA);
+        }
+        assertTrue("The wave ended before the measure", gameManager.isWaveStarted());
+        assertEquals(MEASURED_TICKS, profiler.getAllocationCount(ProfilePhase.TOWER_SHOOTS));
+
+        assertWithinBudget(ProfilePhase.TOWER_SHOOTS, TOWER_SHOOTS_BUDGET);
+        assertWithinBudget(ProfilePhase.CRITTER_UPDATE, CRITTER_UPDATE_BUDGET);
+        assertWithinBudget(ProfilePhase.DRAW, DRAW_BUDGET);
+    }
+
+    /**
+     * Checks the bytes allocated per tick by a phase
+     *
+     * @param phase The phase
+     * @param budget Bytes allowed per tick
+     */
+    private void assertWithinBudget(ProfilePhase phase, long budget) {
+        long perTick = profiler.getAllocatedBytes(phase) / MEASURED_TICKS;
+        assertTrue(phase + " allocates " + perTick + " bytes per tick, the budget is " + budget, perTick <= budget);
+    }
+}
@@ -45,4 +45,10 @@ public class CritterHealthBarTest {
         Color expected = new Color(1.0,0.0,0.0,1.0);
         assertEquals(actual,expected);
     }
+
+    @Test
+    public void getBlendedColorOutOfRangeTest(){
+        assertEquals(bar.getBlendedColor(0), bar.getBlendedColor(-0.5));
+        assertEquals(bar.getBlendedColor(1), bar.getBlendedColor(1.5));
+    }
 }
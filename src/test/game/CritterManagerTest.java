@@ -3,6 +3,9 @@ package test.game;
 import common.SpriteType;
 import common.Tile;
 import common.core.Vector2;
+import common.render.RecordingRenderer;
+import common.render.RenderCommand;
+import common.render.RenderCommandType;
 import game.Critter;
 import game.CritterManager;
 import game.CritterType;
@@ -104,4 +107,56 @@ public class CritterManagerTest {
         assertTrue(result);
 
     }
+
+    @Test
+    public void drawLevelOfDetailTest()
+    {
+        ArrayList<Critter> crowd = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            crowd.add(new Critter(32, 32, new Vector2(64 + (i % 8), 64), CritterType.AIR));
+            crowd.add(new Critter(32, 32, new Vector2(128, 64 + (i % 8)), CritterType.AIR));
+        }
+        leCritterManager.setCritterList(crowd);
+
+        Rect area = new Rect(new Vector2(0, 0), 192, 192);
+        RecordingRenderer renderer = new RecordingRenderer();
+
+        leCritterManager.draw(renderer, area, 1);
+        assertEquals(200, renderer.getCount(RenderCommandType.DRAW_SPRITE));
+        assertEquals(200, renderer.getCount(RenderCommandType.STROKE_RECT));
+
+        // zoomed out, every crowded tile is drawn once
+        renderer.reset();
+        leCritterManager.draw(renderer, area, 0.5);
+        assertEquals(2, renderer.getCount(RenderCommandType.DRAW_SPRITE));
+        assertEquals(2, renderer.getCount(RenderCommandType.STROKE_RECT));
+        assertEquals(2, renderer.getCount(RenderCommandType.FILL_TEXT));
+    }
+
+    @Test
+    public void drawQueuedCrittersTest()
+    {
+        // a crowd on the entry tile, and the spawns queued in a line to its left, outside the map
+        ArrayList<Critter> wave = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            wave.add(new Critter(32, 32, new Vector2(i, 0), CritterType.AIR));
+        }
+        for (int i = 1; i <= 20; i++) {
+            wave.add(new Critter(32, 32, new Vector2(-32 * i, 0), CritterType.AIR));
+        }
+        leCritterManager.setCritterList(wave);
+
+        Rect area = new Rect(new Vector2(0, 0), 192, 192);
+        RecordingRenderer renderer = new RecordingRenderer();
+        leCritterManager.draw(renderer, area, 0.5);
+
+        // the group only counts the critters on the tile, the closest queued one sticks into the map on its own
+        assertEquals(1, renderer.getCount(RenderCommandType.FILL_TEXT));
+        for (RenderCommand command : renderer.getCommands()) {
+            if (command.getType() == RenderCommandType.FILL_TEXT) {
+                assertEquals("5", command.getValue());
+            }
+        }
+        assertEquals(2, renderer.getCount(RenderCommandType.DRAW_SPRITE));
+    }
 }
@@ -1,5 +1,6 @@
 package test.game;
 
+import common.Settings;
 import common.SpriteType;
 import common.Tile;
 import common.TileManager;
@@ -189,6 +190,36 @@ public class GameManagerTest {
         }
     }
 
+    @Test
+    public void setSimulationSpeedTest()
+    {
+        leGameManager.setSimulationSpeed(100);
+        assertEquals(Settings.MAX_SIMULATION_SPEED, leGameManager.getSimulationSpeed(), 0.001);
+        leGameManager.setSimulationSpeed(1);
+        assertEquals(1, leGameManager.getSimulationSpeed(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setSimulationSpeedInvalidTest()
+    {
+        leGameManager.setSimulationSpeed(0);
+    }
+
+    @Test
+    public void pauseGameTest()
+    {
+        leGameManager.pauseGame();
+        assertTrue(leGameManager.isGamePaused());
+        leGameManager.resumeGame();
+        assertFalse(leGameManager.isGamePaused());
+    }
+
+    @Test
+    public void getTowerCountTest()
+    {
+        assertEquals(0, leGameManager.getTowerCount());
+    }
+
     @Test
     public void getTowersInSceneTest()
     {
@@ -0,0 +1,120 @@
+package test.game;
+
+import common.TileManager;
+import common.core.IMouseHandler;
+import common.core.LayeredCanvas;
+import common.core.MouseState;
+import common.render.NullRenderer;
+import game.CritterManager;
+import game.GameManager;
+import game.gamestate.GameState;
+import game.gamestate.TowerState;
+import game.pathlogic.PathFinder;
+import game.towerlogic.AttackStrategyEnum;
+import game.towerlogic.TowerType;
+import map.GeneratedMap;
+
+import java.util.Observer;
+import java.util.Random;
+
+/**
+ * Sets the game up without a screen or a mouse, for the tests, the benchmarks and the trace harness:
+ * everything is drawn into a {@link NullRenderer}, and the critters take their randomness from a given
+ * source so that a game can be played again tick for tick. Run it with {@link GameManager#step(double)}.
+ * @version $revision $
+ */
+public class HeadlessGame {
+    public static final double DELTA = 1.0 / 60;
+
+    private static final AttackStrategyEnum[] STRATEGIES = {
+            AttackStrategyEnum.CLOSEST, AttackStrategyEnum.FARTHEST, AttackStrategyEnum.LOWESTHP,
+            AttackStrategyEnum.HIGHESTHP, AttackStrategyEnum.NEARESTTOENDPOINT
+    };
+
+    /**
+     * Sets up a new game on a map
+     *
+     * @param tileManager Tiles of the map
+     * @param random Source of randomness of the critters
+     * @return Returns the game manager, ready for a tower layout and a wave
+     */
+    public static GameManager create(TileManager tileManager, Random random) {
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.initialize(new LayeredCanvas(new NullRenderer(), tileManager.getWidth(), tileManager.getHeight()),
+                new IMouseHandler() {
+                    // nobody uses the mouse
+                    private final MouseState mouseState = new MouseState();
+
+                    @Override
+                    public MouseState getMouseState() {
+                        return mouseState;
+                    }
+
+                    @Override
+                    public void clearMouseState() {
+                    }
+
+                    @Override
+                    public void addObserver(Observer o) {
+                    }
+                }, tileManager);
+        gameManager.setSimulationSpeed(1);
+
+        CritterManager critterManager = new CritterManager(
+                new PathFinder(tileManager.getTilesOverlay(), tileManager.getRows(), tileManager.getColumns()));
+        critterManager.setRandom(random);
+        gameManager.critterManager = critterManager;
+        return gameManager;
+    }
+
+    /**
+     * Places towers of random types and strategies on free tiles next to the path
+     *
+     * @param map The map
+     * @param towers Number of towers, fewer if the path has not enough free tiles around it
+     * @param gold Available gold of the game
+     * @param random Source of randomness of the layout
+     * @return Returns the layout in the format of the saved games
+     */
+    public static GameState towersNextToPath(GeneratedMap map, int towers, int gold, Random random) {
+        GameState state = new GameState();
+        state.level = 1;
+        state.availableGold = gold;
+
+        for (int attempt = 0; attempt < 1000 && state.towers.size() < towers; attempt++) {
+            int x = random.nextInt(map.getColumns());
+            int y = random.nextInt(map.getRows());
+            if (map.isPath(x, y) || !(map.isPath(x - 1, y) || map.isPath(x + 1, y) ||
+                    map.isPath(x, y - 1) || map.isPath(x, y + 1)) || isTaken(state, x, y)) {
+                continue;
+            }
+
+            TowerState tower = new TowerState();
+            tower.id = "tower-" + state.towers.size();
+            tower.posX = x;
+            tower.posY = y;
+            tower.towerType = TowerType.values()[random.nextInt(TowerType.values().length)];
+            tower.strategy = STRATEGIES[random.nextInt(STRATEGIES.length)];
+            tower.level = 1 + random.nextInt(3);
+            state.towers.add(tower);
+        }
+        return state;
+    }
+
+    /**
+     * Check whether a tower is already placed on a tile
+     *
+     * @param state The layout
+     * @param x Column of the tile
+     * @param y Row of the tile
+     * @return Returns true if the tile is taken
+     */
+    private static boolean isTaken(GameState state, int x, int y) {
+        for (TowerState tower : state.towers) {
+            if (tower.posX == x && tower.posY == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
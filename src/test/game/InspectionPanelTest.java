@@ -1,6 +1,10 @@
 package test.game;
 
+import common.core.Vector2;
+import common.render.NullRenderer;
 import game.InspectionPanel;
+import game.towerlogic.Tower;
+import game.towerlogic.TowerType;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,4 +31,18 @@ public class InspectionPanelTest {
         double result = inspectionpanel.getCurrentYPosition(2,2,2);
         assertEquals(8,result,0.001);
     }
+
+    @Test
+    public void drawDirtyRegionsTest()
+    {
+        Tower tower = new Tower(TowerType.ARROW, new Vector2());
+        inspectionpanel.setSelectedTower(tower);
+        assertTrue(inspectionpanel.isDirty());
+
+        inspectionpanel.draw(new NullRenderer());
+        assertFalse(inspectionpanel.isDirty());
+
+        tower.setLevel(2);
+        assertTrue(inspectionpanel.isDirty());
+    }
 }
@@ -0,0 +1,51 @@
+package test.game;
+
+import common.core.Vector2;
+import common.render.RecordingRenderer;
+import common.render.RenderCommandType;
+import game.GameManager;
+import game.PerformanceOverlay;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the performance overlay
+ */
+public class PerformanceOverlayTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private PerformanceOverlay overlay;
+    private RecordingRenderer renderer;
+
+    @Before
+    public void BeforeTestingSetup() {
+        overlay = new PerformanceOverlay(new Vector2(0, 0));
+        renderer = new RecordingRenderer();
+    }
+
+    @Test
+    public void hiddenOverlayTest() {
+        assertFalse(overlay.update(GameManager.getInstance(), 1));
+        overlay.draw(renderer);
+
+        assertEquals(0, renderer.getTotalCount());
+    }
+
+    @Test
+    public void updateTest() {
+        overlay.toggle();
+
+        assertTrue(overlay.update(GameManager.getInstance(), 1000000000L));
+        assertFalse(overlay.update(GameManager.getInstance(), 1100000000L));
+        assertTrue(overlay.update(GameManager.getInstance(), 1300000000L));
+        assertTrue(overlay.getLines().get(0).startsWith("FPS"));
+
+        overlay.draw(renderer);
+        assertEquals(overlay.getLines().size(), renderer.getCount(RenderCommandType.FILL_TEXT));
+    }
+}
@@ -1,7 +1,9 @@
 package test.game;
 
 import common.core.Vector2;
+import common.render.NullRenderer;
 import game.SideBar;
+import game.SideBarRegion;
 import game.towerlogic.Tower;
 import org.junit.Before;
 import org.junit.Rule;
@@ -10,6 +12,7 @@ import test.JavaFXThreadingRule;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test Class for SideBar
@@ -65,4 +68,27 @@ public class SideBarTest {
         assertEquals(3,towersAvailable.length);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void drawDirtyRegionsTest(){
+        sidebar.draw(new NullRenderer());
+        for (SideBarRegion region : SideBarRegion.values()) {
+            assertFalse(sidebar.isDirty(region));
+        }
+    }
+
+    @Test
+    public void setAvailableGoldTest(){
+        sidebar.draw(new NullRenderer());
+        sidebar.setAvailableGold(sidebar.getAvailableGold() + 10);
+        assertTrue(sidebar.isDirty(SideBarRegion.GOLD));
+        assertFalse(sidebar.isDirty(SideBarRegion.SHOP));
+    }
+
+    @Test
+    public void selectTowerTest(){
+        sidebar.draw(new NullRenderer());
+        sidebar.getInspectionPanel().setSelectedTower(sidebar.getTowersAvailable()[0]);
+        assertTrue(sidebar.isDirty(SideBarRegion.INSPECTION));
+    }
+
+}
@@ -1,7 +1,9 @@
 package test.game;
 
+import common.Settings;
 import common.core.Vector2;
 import game.SideBar;
+import game.towerlogic.AttackStrategyEnum;
 import game.towerlogic.Tower;
 import game.towerlogic.TowerType;
 import org.junit.Before;
@@ -31,4 +33,12 @@ public class TowerTest {
         double rof = leTower.getRateOfFire();
         assertTrue(leTower.isTimeToFire(rof));
     }
+
+    @Test
+    public void localLogSizeTest() {
+        for (int i = 0; i < 2 * Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL; i++) {
+            leTower.setAttackStrategyEnum(AttackStrategyEnum.LOWESTHP);
+        }
+        assertEquals(Settings.NUMBERTOFLOGLINESIN_INSPECTIONPANEL - 1, leTower.getLocalLog().size());
+    }
 }
\ No newline at end of file
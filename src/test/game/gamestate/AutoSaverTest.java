@@ -0,0 +1,218 @@
+package test.game.gamestate;
+
+import com.google.gson.Gson;
+import common.Helper;
+import common.Settings;
+import common.TileManager;
+import common.core.MouseEventType;
+import common.core.MouseState;
+import game.GameManager;
+import game.gamestate.AutoSaver;
+import game.gamestate.GameState;
+import game.gamestate.TowerState;
+import game.towerlogic.AttackStrategyEnum;
+import game.towerlogic.TowerType;
+import map.GeneratedMap;
+import map.MapGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import test.JavaFXThreadingRule;
+import test.game.HeadlessGame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the background saves of the game
+ * @version $revision $
+ */
+public class AutoSaverTest {
+    private static final long TIMEOUT = 5000;
+
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private AutoSaver autoSaver;
+
+    @Before
+    public void BeforeTestingSetup() {
+        file = folder.getRoot().toPath().resolve("Sample Map 1");
+        autoSaver = new AutoSaver(file, 1000, null);
+    }
+
+    @After
+    public void AfterTestingCleanup() throws InterruptedException {
+        autoSaver.close(TIMEOUT);
+    }
+
+    @Test
+    public void saveTest() throws IOException, InterruptedException {
+        GameState state = state(3, 250, 2);
+        assertTrue(autoSaver.save(state));
+        assertTrue(autoSaver.flush(TIMEOUT));
+
+        assertEquals(1, autoSaver.getWriteCount());
+        assertEquals(state, read());
+    }
+
+    @Test
+    public void unchangedStateTest() throws InterruptedException {
+        assertTrue(autoSaver.save(state(2, 100, 1)));
+        assertFalse(autoSaver.save(state(2, 100, 1)));
+        assertTrue(autoSaver.save(state(2, 150, 1)));
+        assertTrue(autoSaver.flush(TIMEOUT));
+
+        assertTrue(autoSaver.getWriteCount() >= 1);
+        assertTrue(autoSaver.getWriteCount() <= 2);
+    }
+
+    @Test
+    public void savedStateTest() throws InterruptedException {
+        GameState loaded = state(4, 300, 3);
+        AutoSaver resumed = new AutoSaver(file, 1000, loaded);
+        try {
+            assertFalse(resumed.save(state(4, 300, 3)));
+        } finally {
+            resumed.close(TIMEOUT);
+        }
+        assertEquals(0, resumed.getWriteCount());
+    }
+
+    @Test
+    public void nothingToSaveTest() {
+        assertFalse(autoSaver.save(state(1, 1000, 0)));
+    }
+
+    @Test
+    public void latestSnapshotTest() throws IOException, InterruptedException {
+        for (int gold = 0; gold < 100; gold++) {
+            autoSaver.save(state(2, gold, 1));
+        }
+        assertTrue(autoSaver.close(TIMEOUT));
+
+        assertEquals(99, read().availableGold);
+    }
+
+    @Test
+    public void isDueTest() {
+        long start = TimeUnit.SECONDS.toNanos(10);
+        assertFalse(autoSaver.isDue(start));
+        assertFalse(autoSaver.isDue(start + TimeUnit.MILLISECONDS.toNanos(999)));
+        assertTrue(autoSaver.isDue(start + TimeUnit.MILLISECONDS.toNanos(1000)));
+        assertFalse(autoSaver.isDue(start + TimeUnit.MILLISECONDS.toNanos(1500)));
+        assertTrue(autoSaver.isDue(start + TimeUnit.MILLISECONDS.toNanos(2000)));
+    }
+
+    @Test
+    public void idleChangesTest() throws IOException, InterruptedException {
+        GeneratedMap map = new MapGenerator(7).randomWalk(12, 12);
+        GameManager gameManager = HeadlessGame.create(new TileManager(12, 12, map.toMapData()), new Random(7));
+        gameManager.setSaveGameState(state(1, 1000, 0));
+        gameManager.setAutoSaver(autoSaver);
+        try {
+            // no frame runs between the waves, the purchase alone must reach the file
+            int x = 0;
+            while (map.isPath(x, 0)) {
+                x++;
+            }
+            MouseState mouseState = new MouseState();
+            mouseState.setSelectedSprite(gameManager.sideBar.getTowersAvailable()[0]);
+            mouseState.setPosition((Settings.TILE_WIDTH * x) + 1, 1);
+            mouseState.setEventType(MouseEventType.LEFT_CLICK);
+            gameManager.update(null, mouseState);
+            assertTrue(autoSaver.flush(TIMEOUT));
+
+            GameState saved = read();
+            assertEquals(1, saved.towers.size());
+            assertEquals(x, saved.towers.get(0).posX);
+            assertEquals(0, saved.towers.get(0).posY);
+
+            gameManager.endWave();
+            assertTrue(autoSaver.flush(TIMEOUT));
+            assertEquals(2, read().level);
+        } finally {
+            gameManager.setAutoSaver(null);
+        }
+    }
+
+    @Test
+    public void writeAtomicallyTest() throws IOException {
+        Files.write(file, "old".getBytes(StandardCharsets.UTF_8));
+        Helper.writeAtomically(file, "new".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("new", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals("The temporary file was left behind", 1, files.count());
+        }
+    }
+
+    @Test
+    public void failedWriteTest() throws IOException, InterruptedException {
+        // a folder in the way of the file makes the rename fail
+        Files.createDirectory(file);
+        Files.write(file.resolve("child"), new byte[1]);
+
+        assertTrue(autoSaver.save(state(2, 10, 1)));
+        assertTrue(autoSaver.flush(TIMEOUT));
+        assertEquals(0, autoSaver.getWriteCount());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals("The temporary file was left behind", 1, files.count());
+        }
+
+        // the same state is written again once the way is clear
+        Files.delete(file.resolve("child"));
+        Files.delete(file);
+        assertTrue(autoSaver.save(state(2, 10, 1)));
+        assertTrue(autoSaver.flush(TIMEOUT));
+        assertEquals(1, autoSaver.getWriteCount());
+    }
+
+    /**
+     * Reads the saved game
+     *
+     * @return Returns the state in the file
+     * @throws IOException if the file cannot be read
+     */
+    private GameState read() throws IOException {
+        return new Gson().fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), GameState.class);
+    }
+
+    /**
+     * Builds a state of the game
+     *
+     * @param level Level of the game
+     * @param gold Available gold
+     * @param towers Number of towers
+     * @return Returns the state
+     */
+    private static GameState state(int level, int gold, int towers) {
+        GameState state = new GameState();
+        state.level = level;
+        state.availableGold = gold;
+        for (int i = 0; i < towers; i++) {
+            TowerState tower = new TowerState();
+            tower.id = "tower-" + i;
+            tower.posX = i;
+            tower.posY = 1;
+            tower.towerType = TowerType.ARROW;
+            tower.strategy = AttackStrategyEnum.CLOSEST;
+            tower.level = 1;
+            state.towers.add(tower);
+        }
+        return state;
+    }
+}
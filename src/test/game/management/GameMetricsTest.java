@@ -0,0 +1,46 @@
+package test.game.management;
+
+import common.Settings;
+import game.GameManager;
+import game.management.GameMetrics;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the JMX view of the game
+ */
+public class GameMetricsTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Test
+    public void registerTest() throws Exception {
+        GameManager gameManager = GameManager.getInstance();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GameMetrics.OBJECT_NAME);
+
+        assertTrue(server.isRegistered(name));
+        assertEquals(gameManager.getLevel(), server.getAttribute(name, "Level"));
+        assertEquals(gameManager.getTickCount(), server.getAttribute(name, "TickCount"));
+    }
+
+    @Test
+    public void setSimulationSpeedTest() {
+        GameManager gameManager = GameManager.getInstance();
+        GameMetrics metrics = new GameMetrics(gameManager);
+
+        metrics.setSimulationSpeed(2);
+        assertEquals(2, gameManager.getSimulationSpeed(), 0.001);
+        assertEquals(2, metrics.getSimulationSpeed(), 0.001);
+
+        metrics.setSimulationSpeed(1);
+        assertTrue(metrics.getSimulationSpeed() <= Settings.MAX_SIMULATION_SPEED);
+    }
+}
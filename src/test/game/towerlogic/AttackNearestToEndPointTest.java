@@ -96,6 +96,16 @@ public class AttackNearestToEndPointTest {
         assertEquals(zeroOneCritter, targets2.get(0));
     }
 
+    @Test
+    public void findsEndPointTest() {
+        GameManager.getInstance().tileManager = new TileManager(3, 3,
+                new String[]{"3,3", "0,1:ENTRY_POINT", "1,1:PATH", "2,1:EXIT_POINT"});
+
+        AttackNearestToEndPointStrategy strategy = new AttackNearestToEndPointStrategy(tower);
+        assertNotNull(strategy.getEndPoint());
+        assertEquals(SpriteType.EXIT_POINT, strategy.getEndPoint().getType());
+    }
+
     @Test
     public void doDamageDoesDamageTest() {
         zeroOneCritter.setHealthPoints(100);
@@ -0,0 +1,49 @@
+package test.game.towerlogic;
+
+import game.towerlogic.TowerLog;
+import game.towerlogic.TowerLogEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ring buffer behind the local log of the towers
+ */
+public class TowerLogTest {
+    private TowerLog log;
+
+    @Before
+    public void BeforeTestingSetup(){
+        log = new TowerLog(3);
+    }
+
+    @Test
+    public void addTest(){
+        log.add(TowerLogEvent.INITIALIZING, 0, 0);
+        log.add(TowerLogEvent.LEVEL_CHANGED, 2, 0);
+        log.add(TowerLogEvent.READY_TO_FIRE, 0, 0);
+        log.add(TowerLogEvent.TARGETS_IN_RANGE, 4, 0);
+
+        assertEquals(3, log.size());
+        assertEquals(TowerLogEvent.LEVEL_CHANGED, log.getEvent(0));
+        assertEquals(TowerLogEvent.TARGETS_IN_RANGE, log.getEvent(2));
+    }
+
+    @Test
+    public void getLineTest(){
+        log.add(TowerLogEvent.BURN_APPLIED, 12.5f, 0.3);
+
+        String line = log.getLine(0);
+        assertTrue(line.endsWith(" Info: Applying burn effect of 12.5 for 0.3 seconds"));
+        assertTrue(line, line.matches("\\d{2}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{3} .*"));
+        assertEquals(1, log.getLines().size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getLineOutOfRangeTest(){
+        log.add(TowerLogEvent.READY_TO_FIRE, 0, 0);
+        log.clear();
+        log.getLine(0);
+    }
+}
@@ -0,0 +1,16 @@
+package test.game.trace;
+
+/**
+ * Parts of the simulation state hashed separately in a {@link StateTrace}, so that a divergence
+ * tells which part of the state changed.
+ * @version $revision $
+ */
+public enum StateField {
+    CRITTER_POSITIONS,
+    CRITTER_HEALTH,
+    CRITTER_EFFECTS,
+    TOWER_COOLDOWNS,
+    GOLD,
+    LEVEL,
+    WAVE
+}
@@ -0,0 +1,197 @@
+package test.game.trace;
+
+import game.Critter;
+import game.GameManager;
+import game.towerlogic.Tower;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashes of the simulation state, one row per tick and one hash per {@link StateField}.
+ * Two runs of the same seeded game must give the same trace; the first row that differs tells the tick
+ * where the behaviour changed, and the differing hash which part of the state changed.
+ * <p>
+ * The file format is text, one line per tick: the tick followed by the hashes in hexadecimal, in the
+ * order of {@link StateField}. Lines starting with '#' are comments; the first one names the fields.
+ * @version $revision $
+ */
+public class StateTrace {
+    private static final StateField[] FIELDS = StateField.values();
+
+    private final List<int[]> ticks = new ArrayList<>();
+
+    /**
+     * Adds the hashes of the current state of the game
+     *
+     * @param gameManager The game
+     */
+    public void record(GameManager gameManager) {
+        ticks.add(hash(gameManager));
+    }
+
+    /**
+     * Get the number of recorded ticks
+     *
+     * @return Returns the number of rows
+     */
+    public int size() {
+        return ticks.size();
+    }
+
+    /**
+     * Get a recorded hash
+     *
+     * @param tick Tick, starting at 1
+     * @param field Part of the state
+     * @return Returns the hash
+     */
+    public int getHash(int tick, StateField field) {
+        return ticks.get(tick - 1)[field.ordinal()];
+    }
+
+    /**
+     * Looks for the first difference with another trace
+     *
+     * @param actual Trace to check against this one
+     * @return Returns the first divergence, or null if the traces are the same
+     */
+    public TraceDivergence findDivergence(StateTrace actual) {
+        int common = Math.min(size(), actual.size());
+        for (int i = 0; i < common; i++) {
+            int[] expectedRow = ticks.get(i);
+            int[] actualRow = actual.ticks.get(i);
+            for (StateField field : FIELDS) {
+                if (expectedRow[field.ordinal()] != actualRow[field.ordinal()]) {
+                    return new TraceDivergence(i + 1, field, expectedRow[field.ordinal()], actualRow[field.ordinal()]);
+                }
+            }
+        }
+
+        if (size() != actual.size()) {
+            return new TraceDivergence(common + 1, null, 0, 0);
+        }
+        return null;
+    }
+
+    /**
+     * Writes the trace
+     *
+     * @param out Writer to write to, it is not closed
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer out) throws IOException {
+        String lineSeparator = System.getProperty("line.separator");
+
+        StringBuilder line = new StringBuilder("# tick");
+        for (StateField field : FIELDS) {
+            line.append(' ').append(field);
+        }
+        out.write(line.toString());
+        out.write(lineSeparator);
+
+        for (int i = 0; i < ticks.size(); i++) {
+            line.setLength(0);
+            line.append(i + 1);
+            for (int hash : ticks.get(i)) {
+                line.append(' ').append(String.format("%08x", hash));
+            }
+            out.write(line.toString());
+            out.write(lineSeparator);
+        }
+    }
+
+    /**
+     * Reads a trace written by {@link #write(Writer)}
+     *
+     * @param in Reader to read from, it is not closed
+     * @return Returns the trace
+     * @throws IOException if the reader fails or the trace is malformed
+     */
+    public static StateTrace read(Reader in) throws IOException {
+        StateTrace trace = new StateTrace();
+        BufferedReader reader = new BufferedReader(in);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split(" ");
+            if (parts.length != FIELDS.length + 1 || Integer.parseInt(parts[0]) != trace.size() + 1) {
+                throw new IOException("Malformed trace line: " + line);
+            }
+
+            int[] row = new int[FIELDS.length];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = Integer.parseUnsignedInt(parts[i + 1], 16);
+            }
+            trace.ticks.add(row);
+        }
+        return trace;
+    }
+
+    /**
+     * Hashes the state of the game
+     *
+     * @param gameManager The game
+     * @return Returns one hash per field
+     */
+    public static int[] hash(GameManager gameManager) {
+        long[] hashes = new long[FIELDS.length];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = 17;
+        }
+
+        List<Critter> critters = gameManager.critterManager.getCritterList();
+        add(hashes, StateField.CRITTER_POSITIONS, critters.size());
+        for (Critter critter : critters) {
+            add(hashes, StateField.CRITTER_POSITIONS, critter.getPosition().getX());
+            add(hashes, StateField.CRITTER_POSITIONS, critter.getPosition().getY());
+            add(hashes, StateField.CRITTER_HEALTH, critter.getHealthPoints());
+            add(hashes, StateField.CRITTER_EFFECTS, critter.getSpeed());
+            add(hashes, StateField.CRITTER_EFFECTS, critter.getFrozenDuration());
+            add(hashes, StateField.CRITTER_EFFECTS, critter.getDamagePerSecond());
+            add(hashes, StateField.CRITTER_EFFECTS, critter.getDamagePerSecondDuration());
+        }
+
+        for (Tower tower : gameManager.getTowersInScene()) {
+            add(hashes, StateField.TOWER_COOLDOWNS, tower.getPosition().getX());
+            add(hashes, StateField.TOWER_COOLDOWNS, tower.getPosition().getY());
+            add(hashes, StateField.TOWER_COOLDOWNS, tower.getFireCooldown());
+        }
+
+        add(hashes, StateField.GOLD, gameManager.sideBar.getAvailableGold());
+        add(hashes, StateField.LEVEL, gameManager.getLevel());
+        add(hashes, StateField.WAVE, gameManager.isWaveStarted() ? 1 : 0);
+        add(hashes, StateField.WAVE, gameManager.isGameEnded() ? 1 : 0);
+
+        int[] row = new int[hashes.length];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = (int) (hashes[i] ^ (hashes[i] >>> 32));
+        }
+        return row;
+    }
+
+    /**
+     * Mixes a number into the hash of a field
+     *
+     * @param hashes Hashes of the fields
+     * @param field Field to mix into
+     * @param value Value to mix, compared bit for bit
+     */
+    private static void add(long[] hashes, StateField field, double value) {
+        // spread the bits first (finalizer of MurmurHash3), so a change in any bit changes the whole hash
+        long bits = Double.doubleToLongBits(value);
+        bits = (bits ^ (bits >>> 33)) * 0xff51afd7ed558ccdL;
+        bits = (bits ^ (bits >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+
+        hashes[field.ordinal()] = (hashes[field.ordinal()] * 31) + bits;
+    }
+}
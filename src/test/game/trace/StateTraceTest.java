@@ -0,0 +1,135 @@
+package test.game.trace;
+
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the state traces, and the check of the simulation against the golden traces.
+ * <p>
+ * When a change of behaviour is intended, record the golden traces again by running this test with
+ * {@code -Dtrace.record=true} from the root of the project, and commit them with the change.
+ * @version $revision $
+ */
+public class StateTraceTest {
+    private static final String GOLDEN_DIRECTORY = "src/test/game/trace/";
+
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Test
+    public void sameSeedTest() {
+        StateTrace first = new TraceHarness(7, 20).run(300);
+        StateTrace second = new TraceHarness(7, 20).run(300);
+
+        assertEquals(300, first.size());
+        assertNull(first.findDivergence(second));
+        assertNotNull(first.findDivergence(new TraceHarness(8, 20).run(300)));
+    }
+
+    @Test
+    public void writeReadTest() throws IOException {
+        StateTrace trace = new TraceHarness(7, 20).run(100);
+        StringWriter out = new StringWriter();
+        trace.write(out);
+
+        StateTrace read = StateTrace.read(new StringReader(out.toString()));
+        assertEquals(trace.size(), read.size());
+        assertNull(trace.findDivergence(read));
+        assertEquals(trace.getHash(50, StateField.GOLD), read.getHash(50, StateField.GOLD));
+    }
+
+    @Test(expected = IOException.class)
+    public void readMalformedTest() throws IOException {
+        StateTrace.read(new StringReader("# tick GOLD" + System.getProperty("line.separator") + "2 0000002a"));
+    }
+
+    @Test
+    public void divergenceTest() throws IOException {
+        StateTrace expected = StateTrace.read(new StringReader(traceText(3, "0000002a")));
+        StateTrace actual = StateTrace.read(new StringReader(traceText(3, "0000002b")));
+
+        TraceDivergence divergence = expected.findDivergence(actual);
+        assertEquals(3, divergence.getTick());
+        assertEquals(StateField.values()[StateField.values().length - 1], divergence.getField());
+
+        StateTrace shorter = StateTrace.read(new StringReader(traceText(2, "00000000")));
+        divergence = expected.findDivergence(shorter);
+        assertEquals(3, divergence.getTick());
+        assertNull(divergence.getField());
+    }
+
+    @Test
+    public void goldenTraceTest() throws IOException {
+        checkGolden("golden-42.trace", new TraceHarness(42, 40).run(3000));
+    }
+
+    @Test
+    public void goldenCrowdTraceTest() throws IOException {
+        checkGolden("golden-crowd-9.trace", new TraceHarness(9, 200).run(600));
+    }
+
+    /**
+     * Compares a trace with its golden trace, or records the golden trace when asked to
+     *
+     * @param name File name of the golden trace
+     * @param actual Trace of this build
+     * @throws IOException if the golden trace cannot be read or written
+     */
+    private void checkGolden(String name, StateTrace actual) throws IOException {
+        if (Boolean.getBoolean("trace.record")) {
+            Writer out = new FileWriter(GOLDEN_DIRECTORY + name);
+            try {
+                actual.write(out);
+            } finally {
+                out.close();
+            }
+            return;
+        }
+
+        InputStream in = getClass().getResourceAsStream(name);
+        assertNotNull("The golden trace " + name + " is missing", in);
+        StateTrace expected;
+        try {
+            expected = StateTrace.read(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } finally {
+            in.close();
+        }
+
+        TraceDivergence divergence = expected.findDivergence(actual);
+        if (divergence != null) {
+            fail(divergence.toString());
+        }
+    }
+
+    /**
+     * Builds a trace where every hash of every tick is zero, except the last one of the last tick
+     *
+     * @param ticks Number of ticks
+     * @param last Last hash of the last tick
+     * @return Returns the trace in the file format
+     */
+    private static String traceText(int ticks, String last) {
+        StringBuilder text = new StringBuilder();
+        for (int tick = 1; tick <= ticks; tick++) {
+            text.append(tick);
+            for (int i = 0; i < StateField.values().length; i++) {
+                boolean isLast = tick == ticks && i == StateField.values().length - 1;
+                text.append(' ').append(isLast ? last : "00000000");
+            }
+            text.append(System.getProperty("line.separator"));
+        }
+        return text.toString();
+    }
+}
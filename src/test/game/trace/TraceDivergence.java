@@ -0,0 +1,58 @@
+package test.game.trace;
+
+/**
+ * First difference between two {@link StateTrace}s
+ * @version $revision $
+ */
+public class TraceDivergence {
+    private final int tick;
+    private final StateField field;
+    private final int expected;
+    private final int actual;
+
+    /**
+     * Main constructor
+     *
+     * @param tick Tick where the traces diverge, starting at 1
+     * @param field First field that differs, null when one trace is shorter than the other
+     * @param expected Hash of the expected trace
+     * @param actual Hash of the actual trace
+     */
+    public TraceDivergence(int tick, StateField field, int expected, int actual) {
+        this.tick = tick;
+        this.field = field;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Get the tick where the traces diverge
+     *
+     * @return Returns the tick, starting at 1
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the first field that differs
+     *
+     * @return Returns the field, null when one trace is shorter than the other
+     */
+    public StateField getField() {
+        return field;
+    }
+
+    /**
+     * Describes the divergence
+     *
+     * @return Returns a message for the reports
+     */
+    @Override
+    public String toString() {
+        if (field == null) {
+            return "Traces diverge at tick " + tick + ": one of them ends there";
+        }
+        return String.format("Traces diverge at tick %d: %s is %08x instead of %08x", tick, field, actual, expected);
+    }
+}
@@ -0,0 +1,72 @@
+package test.game.trace;
+
+import common.TileManager;
+import game.GameManager;
+import map.GeneratedMap;
+import map.MapGenerator;
+import test.game.HeadlessGame;
+
+import java.util.Random;
+
+/**
+ * Plays seeded games headless and records their {@link StateTrace}. Everything random comes from the seed:
+ * the generated map, the tower layout and the size of the waves. A new wave starts as soon as the
+ * previous one ends, the way a player would start them.
+ * <p>
+ * Checking the trace of a build against a golden trace recorded before a refactoring shows whether the
+ * behaviour of the simulation changed, and from which tick.
+ * @version $revision $
+ */
+public class TraceHarness {
+    private static final int MAP_SIZE = 24;
+    private static final int TOWERS = 8;
+    private static final int GOLD = 1000;
+
+    private final long seed;
+    private final int critters;
+
+    /**
+     * Main constructor
+     *
+     * @param seed Seed of the game
+     * @param critters Critters per wave, 0 for the random waves of the game
+     */
+    public TraceHarness(long seed, int critters) {
+        this.seed = seed;
+        this.critters = critters;
+    }
+
+    /**
+     * Plays a new game and records the state after every tick
+     *
+     * @param ticks Number of ticks to play
+     * @return Returns the trace, one row per tick
+     */
+    public StateTrace run(int ticks) {
+        Random random = new Random(seed);
+        GameManager gameManager = setUp(random);
+
+        StateTrace trace = new StateTrace();
+        for (int i = 0; i < ticks; i++) {
+            if (!gameManager.isWaveStarted()) {
+                gameManager.startWave(critters > 0 ? critters : gameManager.critterManager.nextWaveSize());
+            }
+            gameManager.step(HeadlessGame.DELTA);
+            trace.record(gameManager);
+        }
+        return trace;
+    }
+
+    /**
+     * Sets up the game on a generated map, with towers next to the path
+     *
+     * @param random Source of randomness of the game
+     * @return Returns the game manager
+     */
+    private GameManager setUp(Random random) {
+        GeneratedMap map = new MapGenerator(random.nextLong()).randomWalk(MAP_SIZE, MAP_SIZE);
+        GameManager gameManager = HeadlessGame.create(new TileManager(MAP_SIZE, MAP_SIZE, map.toMapData()), random);
+        gameManager.setSaveGameState(HeadlessGame.towersNextToPath(map, TOWERS, GOLD, random));
+        return gameManager;
+    }
+}
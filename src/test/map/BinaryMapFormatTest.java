@@ -0,0 +1,197 @@
+package test.map;
+
+import common.SpriteType;
+import common.TileManager;
+import map.BinaryMapFormat;
+import map.GeneratedMap;
+import map.MapFormatException;
+import map.MapGenerator;
+import map.MapGrid;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import test.JavaFXThreadingRule;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the map grid and the binary map files
+ * @version $revision $
+ */
+public class BinaryMapFormatTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void textRoundTripTest() {
+        GeneratedMap map = new MapGenerator(5).maze(21, 13, 4);
+        MapGrid grid = MapGrid.fromMapData(map.toMapData());
+
+        assertEquals(21, grid.getColumns());
+        assertEquals(13, grid.getRows());
+        assertEquals(map.toString(), grid.toString());
+        assertArrayEquals(map.toMapData(), grid.toMapData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tileOutsideTheMapTest() {
+        MapGrid.fromMapData(new String[]{"3,3", "3,0:PATH"});
+    }
+
+    @Test
+    public void binaryRoundTripTest() throws IOException {
+        MapGrid grid = new MapGenerator(9).branches(40, 25, 3);
+
+        for (boolean compress : new boolean[]{false, true}) {
+            Path path = folder.newFile().toPath();
+            BinaryMapFormat.write(grid, path, compress);
+
+            assertTrue(BinaryMapFormat.isBinaryMap(path));
+            assertEquals(grid.toString(), BinaryMapFormat.read(path).toString());
+        }
+    }
+
+    @Test
+    public void runLengthTest() throws IOException {
+        MapGrid grid = new MapGenerator(3).randomWalk(300, 200);
+        Path raw = folder.newFile().toPath();
+        Path runs = folder.newFile().toPath();
+        BinaryMapFormat.write(grid, raw, false);
+        BinaryMapFormat.write(grid, runs, true);
+
+        assertEquals(BinaryMapFormat.HEADER_SIZE + (300 * 200), Files.size(raw));
+        assertTrue(Files.size(runs) * 10 < Files.size(raw));
+    }
+
+    @Test
+    public void importExportTest() throws IOException {
+        GeneratedMap map = new MapGenerator(1).randomWalk(30, 30);
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.importText(new StringReader(map.toString()), path, true);
+
+        StringWriter out = new StringWriter();
+        BinaryMapFormat.exportText(path, out);
+        assertEquals(map.toString(), out.toString());
+    }
+
+    @Test
+    public void tileManagerTest() {
+        MapGrid grid = new MapGenerator(2).maze(15, 15, 2);
+        TileManager fromGrid = new TileManager(grid);
+        TileManager fromText = new TileManager(15, 15, grid.toMapData());
+
+        for (int x = 0; x < 15; x++) {
+            for (int y = 0; y < 15; y++) {
+                SpriteType type = grid.getType(x, y);
+                if (type == SpriteType.SCENERY) {
+                    assertNull(fromGrid.getTilesOverlay()[x][y]);
+                    assertNull(fromText.getTilesOverlay()[x][y]);
+                } else {
+                    assertEquals(type, fromGrid.getTilesOverlay()[x][y].getType());
+                    assertEquals(type, fromText.getTilesOverlay()[x][y].getType());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void saveOverLoadedMapTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(new MapGenerator(4).maze(20, 20, 3), path, true);
+        MapGrid grid = BinaryMapFormat.read(path);
+        grid.setType(0, 0, SpriteType.PATH);
+
+        BinaryMapFormat.write(grid, path, true);
+
+        assertEquals(grid.toString(), BinaryMapFormat.read(path).toString());
+        // the temporary file is renamed over the map
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void textMapTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "3,3".getBytes());
+        assertFalse(BinaryMapFormat.isBinaryMap(path));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedMapTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(new MapGrid(10, 10), path, false);
+
+        byte[] content = Files.readAllBytes(path);
+        BinaryMapFormat.read(ByteBuffer.wrap(content, 0, content.length - 1));
+    }
+
+    @Test
+    public void tileTypeCodesTest() throws IOException {
+        // the codes are stored in the files, changing one breaks every saved map
+        assertEquals(0, BinaryMapFormat.toCode(SpriteType.SCENERY));
+        assertEquals(1, BinaryMapFormat.toCode(SpriteType.PATH));
+        assertEquals(2, BinaryMapFormat.toCode(SpriteType.ENTRY_POINT));
+        assertEquals(3, BinaryMapFormat.toCode(SpriteType.EXIT_POINT));
+        for (byte code = 0; code < 4; code++) {
+            assertEquals(code, BinaryMapFormat.toCode(BinaryMapFormat.toType(code)));
+        }
+
+        MapGrid grid = new MapGrid(2, 2);
+        grid.setType(0, 1, SpriteType.ENTRY_POINT);
+        grid.setType(1, 0, SpriteType.PATH);
+        grid.setType(1, 1, SpriteType.EXIT_POINT);
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(grid, path, false);
+
+        byte[] content = Files.readAllBytes(path);
+        assertArrayEquals(new byte[]{0, 2, 1, 3},
+                Arrays.copyOfRange(content, BinaryMapFormat.HEADER_SIZE, content.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void towerTileTypeTest() {
+        new MapGrid(2, 2).setType(0, 0, SpriteType.TOWER);
+    }
+
+    @Test(expected = MapFormatException.class)
+    public void unknownTileTypeCodeTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(new MapGrid(4, 4), path, true);
+
+        byte[] content = Files.readAllBytes(path);
+        // the code after the exit point, which the towers had when the cells held the ordinals
+        content[BinaryMapFormat.HEADER_SIZE] = 4;
+        BinaryMapFormat.read(ByteBuffer.wrap(content));
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidTileTypeTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(new MapGrid(4, 4), path, false);
+
+        byte[] content = Files.readAllBytes(path);
+        content[BinaryMapFormat.HEADER_SIZE + 5] = 100;
+        BinaryMapFormat.read(ByteBuffer.wrap(content));
+    }
+
+    @Test(expected = IOException.class)
+    public void longRunTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        BinaryMapFormat.write(new MapGrid(4, 4), path, true);
+
+        byte[] content = Files.readAllBytes(path);
+        // a single run of 16 scenery cells, made one too long
+        content[BinaryMapFormat.HEADER_SIZE + 1] = 17;
+        BinaryMapFormat.read(ByteBuffer.wrap(content));
+    }
+}
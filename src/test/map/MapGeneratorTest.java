@@ -0,0 +1,154 @@
+package test.map;
+
+import common.SpriteType;
+import common.Tile;
+import common.TileManager;
+import game.pathlogic.PathFinder;
+import map.GeneratedMap;
+import map.MapGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import test.JavaFXThreadingRule;
+
+import java.util.LinkedList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the map generator
+ * @version $revision $
+ */
+public class MapGeneratorTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Test
+    public void sameSeedTest() {
+        assertEquals(new MapGenerator(7).randomWalk(30, 20).toString(), new MapGenerator(7).randomWalk(30, 20).toString());
+        assertEquals(new MapGenerator(7).maze(30, 20, 5).toString(), new MapGenerator(7).maze(30, 20, 5).toString());
+        assertEquals(new MapGenerator(7).branches(30, 20, 3).toString(), new MapGenerator(7).branches(30, 20, 3).toString());
+        assertNotEquals(new MapGenerator(7).maze(30, 20, 5).toString(), new MapGenerator(8).maze(30, 20, 5).toString());
+    }
+
+    @Test
+    public void randomWalkTest() {
+        for (long seed = 0; seed < 20; seed++) {
+            GeneratedMap map = new MapGenerator(seed).randomWalk(31 + (int) seed % 2, 17);
+            assertEntryAndExit(map);
+            // a single corridor: every tile is joined to the next one only
+            assertEquals(map.getPathTileCount() - 1, countEdges(map));
+            assertTrue(isConnected(map));
+        }
+    }
+
+    @Test
+    public void mazeTest() {
+        for (int loops = 0; loops <= 10; loops += 5) {
+            GeneratedMap map = new MapGenerator(loops).maze(40, 21, loops);
+            assertEntryAndExit(map);
+            // a tree plus one edge per loop
+            assertEquals(map.getPathTileCount() - 1 + loops, countEdges(map));
+            assertTrue(isConnected(map));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mazeTooManyLoopsTest() {
+        new MapGenerator(1).maze(5, 5, 100);
+    }
+
+    @Test
+    public void branchesTest() {
+        GeneratedMap map = new MapGenerator(3).branches(50, 30, 4);
+        assertEntryAndExit(map);
+        assertTrue(isConnected(map));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void branchesOverflowTest() {
+        new MapGenerator(1).branches(20, 5, 4);
+    }
+
+    @Test
+    public void openFieldTest() {
+        GeneratedMap map = new MapGenerator(4).openField(12, 9);
+        assertEntryAndExit(map);
+        assertEquals(12 * 9, map.getPathTileCount());
+        assertTrue(isConnected(map));
+    }
+
+    @Test
+    public void mapDataTest() {
+        GeneratedMap map = new MapGenerator(11).maze(15, 15, 3);
+        String[] mapData = map.toMapData();
+
+        assertEquals("15,15", mapData[0]);
+        assertEquals(map.getPathTileCount() + 1, mapData.length);
+        assertArrayEquals(mapData, map.toString().split(System.getProperty("line.separator")));
+
+        TileManager tileManager = new TileManager(15, 15, mapData);
+        LinkedList<Tile> path = new PathFinder(tileManager.getTilesOverlay(), 15, 15).getPaths();
+        assertEquals(SpriteType.ENTRY_POINT, path.getFirst().getType());
+        assertEquals(SpriteType.EXIT_POINT, path.getLast().getType());
+    }
+
+    private static void assertEntryAndExit(GeneratedMap map) {
+        int entries = 0;
+        int exits = 0;
+        for (int x = 0; x < map.getColumns(); x++) {
+            for (int y = 0; y < map.getRows(); y++) {
+                if (map.getType(x, y) == SpriteType.ENTRY_POINT) {
+                    assertEquals(0, x);
+                    entries++;
+                }
+                else if (map.getType(x, y) == SpriteType.EXIT_POINT) {
+                    assertEquals(map.getColumns() - 1, x);
+                    exits++;
+                }
+            }
+        }
+        assertEquals(1, entries);
+        assertEquals(1, exits);
+    }
+
+    private static int countEdges(GeneratedMap map) {
+        int edges = 0;
+        for (int x = 0; x < map.getColumns(); x++) {
+            for (int y = 0; y < map.getRows(); y++) {
+                if (map.isPath(x, y)) {
+                    if (map.isPath(x + 1, y)) edges++;
+                    if (map.isPath(x, y + 1)) edges++;
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static boolean isConnected(GeneratedMap map) {
+        boolean[][] seen = new boolean[map.getColumns()][map.getRows()];
+        LinkedList<int[]> queue = new LinkedList<>();
+        for (int y = 0; y < map.getRows(); y++) {
+            if (map.getType(0, y) == SpriteType.ENTRY_POINT) {
+                queue.add(new int[]{0, y});
+                seen[0][y] = true;
+            }
+        }
+
+        int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        while (!queue.isEmpty()) {
+            int[] tile = queue.removeFirst();
+            if (map.getType(tile[0], tile[1]) == SpriteType.EXIT_POINT) {
+                return true;
+            }
+            for (int[] step : steps) {
+                int x = tile[0] + step[0];
+                int y = tile[1] + step[1];
+                if (map.isPath(x, y) && !seen[x][y]) {
+                    seen[x][y] = true;
+                    queue.add(new int[]{x, y});
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package test.map;
+
+import common.SpriteType;
+import common.TileManager;
+import map.MapFormatException;
+import map.MapGenerator;
+import map.MapGrid;
+import map.TextMapParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import test.JavaFXThreadingRule;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the parser of the text map files
+ * @version $revision $
+ */
+public class TextMapParserTest {
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void lineEndingsTest() throws IOException {
+        String map = "4,3\n0,1:ENTRY_POINT\n1,1:PATH\n2,1:PATH\n3,1:EXIT_POINT\n";
+        MapGrid unix = parse(map);
+
+        assertEquals(4, unix.getColumns());
+        assertEquals(3, unix.getRows());
+        assertEquals(SpriteType.ENTRY_POINT, unix.getType(0, 1));
+        assertEquals(SpriteType.PATH, unix.getType(2, 1));
+        assertEquals(SpriteType.SCENERY, unix.getType(2, 2));
+
+        assertEquals(unix.toString(), parse(map.replace("\n", "\r\n")).toString());
+        assertEquals(unix.toString(), parse(map.replace("\n", "\r")).toString());
+        // no line end after the last line, and empty lines
+        assertEquals(unix.toString(), parse(map.trim().replace("\n", "\n\n")).toString());
+    }
+
+    @Test
+    public void sourcesTest() throws IOException {
+        MapGrid grid = new MapGenerator(4).maze(31, 17, 3);
+        String text = grid.toString();
+
+        assertEquals(text, TextMapParser.parse(new StringReader(text)).toString());
+        assertEquals(text, TextMapParser.parse(grid.toMapData()).toString());
+        assertEquals(text, TextMapParser.parse(31, 17, grid.toMapData()).toString());
+    }
+
+    @Test
+    public void byteOrderMarkTest() throws IOException {
+        String map = "4,3\n0,1:ENTRY_POINT\n1,1:PATH\n2,1:PATH\n3,1:EXIT_POINT\n";
+        String expected = parse(map).toString();
+
+        byte[] bytes = ("\uFEFF" + map).getBytes(StandardCharsets.UTF_8);
+        assertEquals((byte) 0xEF, bytes[0]);
+        assertEquals(expected, TextMapParser.parse(ByteBuffer.wrap(bytes)).toString());
+        assertEquals(expected, TextMapParser.parse(new StringReader("\uFEFF" + map)).toString());
+        assertEquals(expected, TextMapParser.parse(("\uFEFF" + map).split("\n")).toString());
+
+        Path path = folder.newFile().toPath();
+        Files.write(path, bytes);
+        assertEquals(expected, TextMapParser.parse(path).toString());
+
+        // only at the start of the file
+        assertLineError("4,3\n\uFEFF0,1:PATH\n", 2);
+    }
+
+    @Test
+    public void malformedLineNumberTest() {
+        assertLineError("3,3\n0,0:PATH\n1;0:PATH\n", 3);
+        assertLineError("3,3\r\n0,0:PATH\r\n\r\n1,0:TOWERS\r\n", 4);
+        assertLineError("3,3\n0,0:PATH\n0,3:PATH\n", 3);
+        assertLineError("3,3\n0,0\n", 2);
+        assertLineError("3,3\n0,:PATH\n", 2);
+        assertLineError("3;3\n0,0:PATH\n", 1);
+        assertLineError("0,3\n", 1);
+        assertLineError("\n\n", 3);
+        assertLineError("3,3\n1234567890,0:PATH\n", 2);
+        assertLineError("3,3\n0,0:PATH\n1,0:TOWER\n", 3);
+    }
+
+    @Test
+    public void tileManagerErrorTest() {
+        try {
+            new TileManager(3, 3, new String[]{"3,3", "0,0:PATH", "", "2,1:GRASS"});
+            fail("An unknown tile type was accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 4:"));
+            assertEquals(4, ((MapFormatException) e.getCause()).getLine());
+        }
+    }
+
+    /**
+     * Parses a map from its bytes
+     *
+     * @param text The map file
+     * @return Returns the map
+     * @throws MapFormatException if the map is malformed
+     */
+    private static MapGrid parse(String text) throws MapFormatException {
+        return TextMapParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Checks that a map is rejected because of one line
+     *
+     * @param text The map file
+     * @param line The faulty line
+     */
+    private static void assertLineError(String text, int line) {
+        try {
+            parse(text);
+            fail("The map was accepted: " + text);
+        } catch (MapFormatException e) {
+            assertEquals(e.getMessage(), line, e.getLine());
+        }
+    }
+}